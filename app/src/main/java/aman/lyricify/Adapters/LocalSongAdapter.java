@@ -24,13 +24,7 @@ import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.target.Target;
 
 import java.io.File;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 
 import aman.lyricify.glide.AudioFileCover;
 
@@ -46,8 +40,7 @@ public class LocalSongAdapter extends RecyclerView.Adapter<LocalSongAdapter.Song
     private boolean isFlinging = false;
 
     // Section Indexing Data
-    private HashMap<String, Integer> mapIndex;
-    private String[] sections;
+    private SectionIndex sectionIndex = SectionIndex.EMPTY;
     private int currentSortMode = 0;
 
     // Listener for clicks
@@ -66,7 +59,7 @@ public class LocalSongAdapter extends RecyclerView.Adapter<LocalSongAdapter.Song
         this.context = context;
         this.songs = songs;
         this.inflater = LayoutInflater.from(context);
-        calculateSections(songs);
+        this.sectionIndex = SectionIndex.build(songs, currentSortMode);
     }
 
     // --- Fling Optimization Setter ---
@@ -82,14 +75,18 @@ public class LocalSongAdapter extends RecyclerView.Adapter<LocalSongAdapter.Song
         this.itemLongClickListener = listener;
     }
 
+    /** Selects the section buckets; takes effect with the next {@link #updateData}. */
     public void setSortMode(int mode) {
         this.currentSortMode = mode;
-        calculateSections(songs);
-        notifyDataSetChanged();
     }
 
     public void updateData(List<MediaStoreHelper.LocalSong> newSongs) {
-        calculateSections(newSongs);
+        updateData(newSongs, SectionIndex.build(newSongs, currentSortMode));
+    }
+
+    /** Shows {@code newSongs} with sections that were already built for them. */
+    public void updateData(List<MediaStoreHelper.LocalSong> newSongs, SectionIndex sections) {
+        this.sectionIndex = sections;
         notifyDataSetChanged();
     }
 
@@ -204,64 +201,18 @@ public class LocalSongAdapter extends RecyclerView.Adapter<LocalSongAdapter.Song
     }
 
     // --- Section Indexer Logic ---
-    private void calculateSections(List<MediaStoreHelper.LocalSong> songsList) {
-        mapIndex = new LinkedHashMap<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM yyyy", Locale.US);
-
-        List<MediaStoreHelper.LocalSong> currentList = new ArrayList<>(songsList);
-
-        for (int i = 0; i < currentList.size(); i++) {
-            String sectionHeader;
-            MediaStoreHelper.LocalSong song = currentList.get(i);
-
-            if (currentSortMode == 1) { // Date Added
-                Date date = new Date(song.dateAdded * 1000L);
-                sectionHeader = dateFormat.format(date);
-            } else if (currentSortMode == 2) { // Artist
-                String artist = song.artist;
-                sectionHeader =
-                        (artist == null || artist.isEmpty())
-                                ? "#"
-                                : artist.trim().substring(0, 1).toUpperCase(Locale.US);
-                if (!sectionHeader.matches("[A-Z]")) sectionHeader = "#";
-            } else { // Title (Default)
-                String title = song.title;
-                sectionHeader =
-                        (title == null || title.isEmpty())
-                                ? "#"
-                                : title.trim().substring(0, 1).toUpperCase(Locale.US);
-                if (!sectionHeader.matches("[A-Z]")) sectionHeader = "#";
-            }
-
-            if (!mapIndex.containsKey(sectionHeader)) {
-                mapIndex.put(sectionHeader, i);
-            }
-        }
-        ArrayList<String> sectionList = new ArrayList<>(mapIndex.keySet());
-        sections = new String[sectionList.size()];
-        sectionList.toArray(sections);
-    }
-
     @Override
     public Object[] getSections() {
-        return sections;
+        return sectionIndex.sections;
     }
 
     @Override
-    public int getPositionForSection(int sectionIndex) {
-        if (sections == null || sections.length == 0) return 0;
-        if (sectionIndex >= sections.length) sectionIndex = sections.length - 1;
-        if (sectionIndex < 0) sectionIndex = 0;
-        return mapIndex.getOrDefault(sections[sectionIndex], 0);
+    public int getPositionForSection(int section) {
+        return sectionIndex.positionForSection(section);
     }
 
     @Override
     public int getSectionForPosition(int position) {
-        if (sections == null || sections.length == 0) return 0;
-        for (int i = sections.length - 1; i >= 0; i--) {
-            Integer sectionStartPos = mapIndex.get(sections[i]);
-            if (sectionStartPos != null && position >= sectionStartPos) return i;
-        }
-        return 0;
+        return sectionIndex.sectionForPosition(position);
     }
 }
@@ -0,0 +1,175 @@
+package aman.lyricify;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * Fast scroller sections of one ordered song list.
+ *
+ * Lookups in both directions are array reads, so the scroller can query them
+ * on every touch event. Building is O(n) and is meant for the loader thread.
+ *
+ * Buckets per sort mode: first letter of the title, artist name, month added
+ * and lyrics format.
+ */
+public final class SectionIndex {
+
+    static final SectionIndex EMPTY = new SectionIndex(new String[0], new int[0], new int[0]);
+
+    private static final String[] LETTERS = new String[26];
+
+    static {
+        for (int i = 0; i < LETTERS.length; i++) LETTERS[i] = String.valueOf((char) ('A' + i));
+    }
+
+    final String[] sections;
+    // First position of each section
+    final int[] sectionStart;
+    // Section of each position
+    final int[] positionToSection;
+
+    private SectionIndex(String[] sections, int[] sectionStart, int[] positionToSection) {
+        this.sections = sections;
+        this.sectionStart = sectionStart;
+        this.positionToSection = positionToSection;
+    }
+
+    /** Re-creates an index from its arrays, e.g. when read back from a {@link LibrarySnapshot}. */
+    static SectionIndex of(String[] sections, int[] sectionStart, int[] positionToSection) {
+        return new SectionIndex(sections, sectionStart, positionToSection);
+    }
+
+    public static SectionIndex build(List<MediaStoreHelper.LocalSong> songs, int sortMode) {
+        return build(songs.size(), songs::get, sortMode);
+    }
+
+    static SectionIndex build(int size, IntFunction<MediaStoreHelper.LocalSong> songAt, int sortMode) {
+        if (size == 0) return EMPTY;
+
+        int[] positionToSection = new int[size];
+        ArrayList<String> labels = new ArrayList<>();
+        ArrayList<Integer> starts = new ArrayList<>();
+        HashMap<String, Integer> sectionOf = new HashMap<>();
+        Labeler labeler = new Labeler(sortMode);
+
+        String previous = null;
+        int previousSection = -1;
+        for (int position = 0; position < size; position++) {
+            String label = labeler.label(songAt.apply(position));
+            int section;
+            if (label.equals(previous)) {
+                section = previousSection;
+            } else {
+                // A label can come back later, e.g. "#" for titles sorting after "z"
+                Integer known = sectionOf.get(label);
+                if (known != null) {
+                    section = known;
+                } else {
+                    section = labels.size();
+                    labels.add(label);
+                    starts.add(position);
+                    sectionOf.put(label, section);
+                }
+                previous = label;
+                previousSection = section;
+            }
+            positionToSection[position] = section;
+        }
+
+        int[] sectionStart = new int[starts.size()];
+        for (int i = 0; i < sectionStart.length; i++) sectionStart[i] = starts.get(i);
+        return new SectionIndex(labels.toArray(new String[0]), sectionStart, positionToSection);
+    }
+
+    int sectionForPosition(int position) {
+        if (positionToSection.length == 0) return 0;
+        if (position < 0) position = 0;
+        if (position >= positionToSection.length) position = positionToSection.length - 1;
+        return positionToSection[position];
+    }
+
+    int positionForSection(int section) {
+        if (sectionStart.length == 0) return 0;
+        if (section < 0) section = 0;
+        if (section >= sectionStart.length) section = sectionStart.length - 1;
+        return sectionStart[section];
+    }
+
+    /** Maps songs to bucket labels, re-using the label while the bucket does not change. */
+    private static final class Labeler {
+        private final int sortMode;
+        private SimpleDateFormat dateFormat;
+        private Calendar calendar;
+        private int lastMonth = Integer.MIN_VALUE;
+        private String lastMonthLabel;
+        private String lastArtistKey;
+        private String lastArtistLabel;
+
+        Labeler(int sortMode) {
+            this.sortMode = sortMode;
+        }
+
+        String label(MediaStoreHelper.LocalSong song) {
+            switch (sortMode) {
+                case LibrarySortIndex.MODE_DATE_ADDED:
+                    return monthLabel(song.dateAdded * 1000L);
+                case LibrarySortIndex.MODE_ARTIST:
+                    return artistLabel(song);
+                case LibrarySortIndex.MODE_LYRICS_QUALITY:
+                    return qualityLabel(song.lyricsQuality);
+                default:
+                    return letterLabel(song.titleKey());
+            }
+        }
+
+        private String monthLabel(long millis) {
+            if (calendar == null) {
+                calendar = Calendar.getInstance();
+                dateFormat = new SimpleDateFormat("MMM yyyy", Locale.US);
+            }
+            calendar.setTimeInMillis(millis);
+            int month = calendar.get(Calendar.YEAR) * 12 + calendar.get(Calendar.MONTH);
+            if (month != lastMonth) {
+                lastMonth = month;
+                lastMonthLabel = dateFormat.format(calendar.getTime());
+            }
+            return lastMonthLabel;
+        }
+
+        private String artistLabel(MediaStoreHelper.LocalSong song) {
+            String key = song.artistKey();
+            if (key.isEmpty()) return "#";
+            if (!key.equals(lastArtistKey)) {
+                lastArtistKey = key;
+                // The first spelling seen names the bucket
+                lastArtistLabel = song.artist.trim();
+            }
+            return lastArtistLabel;
+        }
+
+        private static String letterLabel(String key) {
+            if (key.isEmpty()) return "#";
+            char c = key.charAt(0);
+            return c >= 'a' && c <= 'z' ? LETTERS[c - 'a'] : "#";
+        }
+
+        private static String qualityLabel(LyricsQualityIndex.Quality quality) {
+            if (quality == null) return "Not indexed";
+            switch (quality.format) {
+                case LyricsQualityIndex.FORMAT_WORD_SYNCED:
+                    return "Word synced";
+                case LyricsQualityIndex.FORMAT_LINE_SYNCED:
+                    return "Line synced";
+                case LyricsQualityIndex.FORMAT_PLAIN:
+                    return "Plain";
+                default:
+                    return "None";
+            }
+        }
+    }
+}
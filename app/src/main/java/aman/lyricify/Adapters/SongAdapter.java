@@ -2,108 +2,301 @@ package aman.lyricify;
 
 import android.animation.ValueAnimator;
 import android.content.Context;
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.*;
 import android.widget.*;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.google.android.material.card.MaterialCardView; // Import added
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
-public class SongAdapter extends ArrayAdapter<Song> {
+/**
+ * Online search results. Everything shown in a row is prepared off the UI
+ * thread by {@link #toItems} so binding only assigns text and starts Glide.
+ */
+public class SongAdapter extends RecyclerView.Adapter<SongAdapter.SongViewHolder> {
 
-    public SongAdapter(Context context, ArrayList<Song> songs) {
-        super(context, 0, songs);
-    }
-
-    @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        Song song = getItem(position);
+    // Material Green 600 / Orange 800 / Red 700
+    private static final int COLOR_SYNCED = 0xFF43A047;
+    private static final int COLOR_LYRICS = 0xFFEF6C00;
+    private static final int COLOR_NONE = 0xFFD32F2F;
 
-        if (convertView == null) {
-            convertView = LayoutInflater.from(getContext()).inflate(R.layout.song_item, parent, false);
-        }
+    // artworkImageView in song_item.xml
+    private static final int ARTWORK_SIZE_DP = 56;
 
-        ImageView artworkImageView = convertView.findViewById(R.id.artworkImageView);
-        TextView songNameTextView = convertView.findViewById(R.id.songNameTextView);
-        TextView artistNameTextView = convertView.findViewById(R.id.artistNameTextView);
-        ImageView arrowIcon = convertView.findViewById(R.id.arrowIcon);
-        LinearLayout detailsLayout = convertView.findViewById(R.id.detailsLayout);
-        
-        TextView matchPercentageTextView = convertView.findViewById(R.id.matchPercentageTextView);
-        TextView lyricsStatusTextView = convertView.findViewById(R.id.lyricsStatusTextView);
-        // New: Container for the colored badge
-        MaterialCardView statusBadgeCard = convertView.findViewById(R.id.statusBadgeCard); 
-
-        TextView albumNameTextView = convertView.findViewById(R.id.albumNameTextView);
-        TextView releaseDateTextView = convertView.findViewById(R.id.releaseDateTextView);
-        TextView durationTextView = convertView.findViewById(R.id.durationTextView);
-        TextView contentRatingTextView = convertView.findViewById(R.id.contentRatingTextView);
-
-        songNameTextView.setText(song.getSongName());
-        artistNameTextView.setText(song.getArtistName());
-        albumNameTextView.setText("Album: " + song.getAlbumName());
-        releaseDateTextView.setText("Release: " + song.getReleaseDate());
-        durationTextView.setText("Duration: " + song.getDuration());
-        contentRatingTextView.setText("Rating: " + song.getContentRating());
-
-        // Display match percentage (Neutral styling)
-        int matchScore = song.getMatchScore();
-        if (matchScore > 0) {
-            matchPercentageTextView.setVisibility(View.VISIBLE);
-            matchPercentageTextView.setText(matchScore + "% Match");
-        } else {
-            matchPercentageTextView.setVisibility(View.GONE);
-        }
+    /** Display model for one result row. */
+    public static final class Item {
+        final Song song;
+        final long stableId;
+        final String artworkUrl;
+        final String songName;
+        final String artistName;
+        final String album;
+        final String release;
+        final String duration;
+        final String rating;
+        final String match; // null hides the label
+        final String status;
+        final int statusColor;
 
-        // --- UPDATED LYRICS STATUS INDICATOR LOGIC ---
-        // Colors the CardView instead of the Text background
-        if (statusBadgeCard != null && lyricsStatusTextView != null) {
-            statusBadgeCard.setVisibility(View.VISIBLE);
+        Item(Song song, int matchScore, int artworkSize) {
+            this.song = song;
+            this.stableId = stableIdOf(song);
+            this.artworkUrl = ArtworkUrlResolver.resolve(song.getArtwork(), artworkSize);
+            this.songName = song.getSongName();
+            this.artistName = song.getArtistName();
+            this.album = "Album: " + song.getAlbumName();
+            this.release = "Release: " + song.getReleaseDate();
+            this.duration = "Duration: " + song.getDuration();
+            this.rating = "Rating: " + song.getContentRating();
+            this.match = matchScore > 0 ? matchScore + "% Match" : null;
 
             if (song.hasTimeSyncedLyrics()) {
                 // "SYNCED" - Confirms line sync
-                lyricsStatusTextView.setText("SYNCED");
-                // Material Green 600
-                statusBadgeCard.setCardBackgroundColor(Color.parseColor("#43A047")); 
+                status = "SYNCED";
+                statusColor = COLOR_SYNCED;
             } else if (song.hasLyrics()) {
                 // "LYRICS" - Confirms plain text only
-                lyricsStatusTextView.setText("LYRICS");
-                // Material Orange 800
-                statusBadgeCard.setCardBackgroundColor(Color.parseColor("#EF6C00")); 
+                status = "LYRICS";
+                statusColor = COLOR_LYRICS;
             } else {
                 // "NONE" - No lyrics data found
-                lyricsStatusTextView.setText("NONE");
-                // Material Red 700
-                statusBadgeCard.setCardBackgroundColor(Color.parseColor("#D32F2F")); 
+                status = "NONE";
+                statusColor = COLOR_NONE;
+            }
+        }
+
+        public Song getSong() {
+            return song;
+        }
+
+        boolean sameContent(Item other) {
+            return Objects.equals(artworkUrl, other.artworkUrl)
+                    && Objects.equals(songName, other.songName)
+                    && Objects.equals(artistName, other.artistName)
+                    && Objects.equals(album, other.album)
+                    && Objects.equals(release, other.release)
+                    && Objects.equals(duration, other.duration)
+                    && Objects.equals(rating, other.rating)
+                    && Objects.equals(match, other.match)
+                    && statusColor == other.statusColor;
+        }
+
+        // 64-bit FNV-1a of the catalogue id, so RecyclerView can keep rows across searches
+        private static long stableIdOf(Song song) {
+            String key = song.getId() != null
+                    ? song.getId()
+                    : song.getSongName() + '\u0000' + song.getArtistName();
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
             }
+            return hash;
         }
+    }
+
+    public interface OnItemClickListener {
+        void onItemClick(Song song);
+    }
 
-        String artworkUrl = song.getArtwork().replace("{w}", "200").replace("{h}", "200").replace("{f}", "jpg");
-        Glide.with(getContext()).load(artworkUrl).into(artworkImageView);
-
-        // Animate expand/collapse
-        arrowIcon.setOnClickListener(v -> {
-            if (detailsLayout.getVisibility() == View.GONE) {
-                expandView(detailsLayout);
-                arrowIcon.animate()
-                        .rotation(180)
-                        .setDuration(300)
-                        .setInterpolator(new OvershootInterpolator())
-                        .start();
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Item>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+                    return oldItem.stableId == newItem.stableId;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+                    return oldItem.sameContent(newItem);
+                }
+            };
+
+    private final Context context;
+    private final LayoutInflater inflater;
+    private final AsyncListDiffer<Item> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    // Rows the user expanded, by stable id (views are recycled)
+    private final Set<Long> expandedIds = new HashSet<>();
+    private final int artworkSize;
+    private OnItemClickListener itemClickListener;
+
+    public SongAdapter(Context context) {
+        this.context = context;
+        this.inflater = LayoutInflater.from(context);
+        this.artworkSize = artworkSizePx(context);
+        setHasStableIds(true);
+    }
+
+    /** Pixel size of the row artwork, also used to pick the artwork URL size. */
+    public static int artworkSizePx(Context context) {
+        return Math.round(ARTWORK_SIZE_DP * context.getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * Builds row models for already ranked results, {@code scores[i]} being the
+     * match score of {@code sorted.get(i)}. Meant for a background thread.
+     */
+    public static List<Item> toItems(List<Song> sorted, int[] scores, int artworkSize) {
+        // Stable ids must be unique, the API occasionally repeats a track
+        List<Item> items = new ArrayList<>(sorted.size());
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Item item = new Item(sorted.get(i), scores[i], artworkSize);
+            if (seen.add(item.stableId)) items.add(item);
+        }
+        return items;
+    }
+
+    public int getArtworkSize() {
+        return artworkSize;
+    }
+
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        this.itemClickListener = listener;
+    }
+
+    /** Diffs against the current rows on a background thread, then dispatches the changes. */
+    public void submitList(List<Item> items, Runnable commitCallback) {
+        differ.submitList(items, commitCallback);
+    }
+
+    public List<Item> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).stableId;
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @NonNull
+    @Override
+    public SongViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = inflater.inflate(R.layout.song_item, parent, false);
+        return new SongViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SongViewHolder holder, int position) {
+        holder.bind(differ.getCurrentList().get(position));
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull SongViewHolder holder) {
+        Glide.with(context).clear(holder.artworkImageView);
+    }
+
+    // --- ViewHolder ---
+    class SongViewHolder extends RecyclerView.ViewHolder {
+        ImageView artworkImageView;
+        TextView songNameTextView;
+        TextView artistNameTextView;
+        ImageView arrowIcon;
+        LinearLayout detailsLayout;
+        TextView matchPercentageTextView;
+        TextView lyricsStatusTextView;
+        MaterialCardView statusBadgeCard;
+        TextView albumNameTextView;
+        TextView releaseDateTextView;
+        TextView durationTextView;
+        TextView contentRatingTextView;
+
+        SongViewHolder(View itemView) {
+            super(itemView);
+            artworkImageView = itemView.findViewById(R.id.artworkImageView);
+            songNameTextView = itemView.findViewById(R.id.songNameTextView);
+            artistNameTextView = itemView.findViewById(R.id.artistNameTextView);
+            arrowIcon = itemView.findViewById(R.id.arrowIcon);
+            detailsLayout = itemView.findViewById(R.id.detailsLayout);
+            matchPercentageTextView = itemView.findViewById(R.id.matchPercentageTextView);
+            lyricsStatusTextView = itemView.findViewById(R.id.lyricsStatusTextView);
+            statusBadgeCard = itemView.findViewById(R.id.statusBadgeCard);
+            albumNameTextView = itemView.findViewById(R.id.albumNameTextView);
+            releaseDateTextView = itemView.findViewById(R.id.releaseDateTextView);
+            durationTextView = itemView.findViewById(R.id.durationTextView);
+            contentRatingTextView = itemView.findViewById(R.id.contentRatingTextView);
+
+            itemView.setOnClickListener(v -> {
+                int position = getBindingAdapterPosition();
+                if (position == RecyclerView.NO_POSITION || itemClickListener == null) return;
+                itemClickListener.onItemClick(differ.getCurrentList().get(position).song);
+            });
+
+            // Animate expand/collapse
+            arrowIcon.setOnClickListener(v -> {
+                int position = getBindingAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) return;
+                long id = differ.getCurrentList().get(position).stableId;
+
+                if (detailsLayout.getVisibility() == View.GONE) {
+                    expandedIds.add(id);
+                    expandView(detailsLayout);
+                    arrowIcon.animate()
+                            .rotation(180)
+                            .setDuration(300)
+                            .setInterpolator(new OvershootInterpolator())
+                            .start();
+                } else {
+                    expandedIds.remove(id);
+                    collapseView(detailsLayout);
+                    arrowIcon.animate()
+                            .rotation(0)
+                            .setDuration(300)
+                            .setInterpolator(new AnticipateOvershootInterpolator())
+                            .start();
+                }
+            });
+        }
+
+        void bind(Item item) {
+            songNameTextView.setText(item.songName);
+            artistNameTextView.setText(item.artistName);
+            albumNameTextView.setText(item.album);
+            releaseDateTextView.setText(item.release);
+            durationTextView.setText(item.duration);
+            contentRatingTextView.setText(item.rating);
+
+            // Display match percentage (Neutral styling)
+            if (item.match != null) {
+                matchPercentageTextView.setVisibility(View.VISIBLE);
+                matchPercentageTextView.setText(item.match);
             } else {
-                collapseView(detailsLayout);
-                arrowIcon.animate()
-                        .rotation(0)
-                        .setDuration(300)
-                        .setInterpolator(new AnticipateOvershootInterpolator())
-                        .start();
+                matchPercentageTextView.setVisibility(View.GONE);
             }
-        });
 
-        return convertView;
+            // Colors the CardView instead of the Text background
+            statusBadgeCard.setVisibility(View.VISIBLE);
+            lyricsStatusTextView.setText(item.status);
+            statusBadgeCard.setCardBackgroundColor(item.statusColor);
+
+            boolean expanded = expandedIds.contains(item.stableId);
+            detailsLayout.animate().cancel();
+            arrowIcon.animate().cancel();
+            detailsLayout.getLayoutParams().height = ViewGroup.LayoutParams.WRAP_CONTENT;
+            detailsLayout.setAlpha(expanded ? 1f : 0f);
+            detailsLayout.setVisibility(expanded ? View.VISIBLE : View.GONE);
+            arrowIcon.setRotation(expanded ? 180 : 0);
+
+            Glide.with(context)
+                    .load(item.artworkUrl)
+                    .override(artworkSize)
+                    .into(artworkImageView);
+        }
     }
 
     private void expandView(View view) {
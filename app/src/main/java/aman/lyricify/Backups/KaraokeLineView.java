@@ -14,6 +14,8 @@ public class KaraokeLineView extends LinearLayout {
 
     private LyricLineModels.KaraokeLine line;
     private List<KaraokeWordView> wordViews = new ArrayList<>();
+    private final WordProgressCalculator.Cursor cursor;
+    private final WordProgressCalculator.WordProgress progress = new WordProgressCalculator.WordProgress();
     private Typeface typeface;
     private int highlightTextSize;
     
@@ -21,6 +23,7 @@ public class KaraokeLineView extends LinearLayout {
                           Typeface typeface, int highlightTextSize) {
         super(context);
         this.line = line;
+        this.cursor = WordProgressCalculator.Cursor.ofModels(line.words, line.endTime);
         this.typeface = typeface;
         this.highlightTextSize = highlightTextSize;
         
@@ -67,36 +70,22 @@ public class KaraokeLineView extends LinearLayout {
     }
     
     /**
-     * Updates the state of all words based on current player position
+     * Updates the state of all words based on current player position.
+     * Only the words whose state changed since the last frame are touched.
      */
     public void updatePosition(long positionMs) {
-        for (int i = 0; i < line.words.size(); i++) {
-            LyricLineModels.KaraokeWord word = line.words.get(i);
-            long wordStart = word.timestamp;
-            
-            // Determine word end time (start of next word, or +1000ms if last)
-            long wordEnd;
-            if (i + 1 < line.words.size()) {
-                wordEnd = line.words.get(i + 1).timestamp;
-            } else {
-                wordEnd = wordStart + 1000; // Default duration for last word
-            }
-            long duration = wordEnd - wordStart;
-            
-            // Calculate progress 0.0 -> 1.0
-            float progress;
-            if (positionMs < wordStart) {
-                progress = 0f; // Not started
-            } else if (positionMs >= wordEnd) {
-                progress = 1f; // Completed
-            } else {
-                // In progress
-                progress = (float) (positionMs - wordStart) / (float) duration;
-            }
-            
-            // Update the view
-            wordViews.get(i).setProgress(progress);
+        int previous = progress.wordIndex;
+        cursor.update(positionMs, progress);
+        int active = progress.wordIndex;
+
+        if (active > previous) {
+            // Moved forward: everything we passed is complete
+            for (int i = Math.max(previous, 0); i < active; i++) wordViews.get(i).setProgress(1f);
+        } else if (active < previous) {
+            // Seeked back: everything after the new word restarts
+            for (int i = Math.max(active + 1, 0); i <= previous; i++) wordViews.get(i).setProgress(0f);
         }
+        if (active >= 0) wordViews.get(active).setProgress(progress.progress);
     }
 
     public void updateTypeface(Typeface typeface) {
@@ -111,6 +100,9 @@ public class KaraokeLineView extends LinearLayout {
     }
     
     public void resetAnimation() {
+        cursor.reset();
+        progress.wordIndex = -1;
+        progress.progress = 0f;
         for (KaraokeWordView wordView : wordViews) {
             wordView.setProgress(0f);
         }
@@ -9,16 +9,19 @@ import android.graphics.Color;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.Window;
 import android.widget.ImageView;
-import android.widget.ListView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.DataSource;
@@ -31,8 +34,9 @@ import com.google.android.material.floatingactionbutton.ExtendedFloatingActionBu
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
 import aman.lyricify.glide.AudioFileCover;
 
@@ -94,7 +98,7 @@ public class IdentifySongDialog {
         MaterialButton btnSearch = dialog.findViewById(R.id.btnDialogSearch);
         ExtendedFloatingActionButton btnManualEdit = dialog.findViewById(R.id.btnManualEdit);
         ProgressBar loading = dialog.findViewById(R.id.dialogLoading);
-        ListView apiListView = dialog.findViewById(R.id.dialogListView);
+        RecyclerView apiRecyclerView = dialog.findViewById(R.id.dialogRecyclerView);
         TextView errorText = dialog.findViewById(R.id.dialogErrorText);
 
         // UI Configuration
@@ -115,68 +119,76 @@ public class IdentifySongDialog {
         });
 
         // Search Logic
-        ArrayList<Song> apiResults = new ArrayList<>();
-        SongAdapter apiAdapter = new SongAdapter(context, apiResults);
-        apiListView.setAdapter(apiAdapter);
-
-        Runnable performSearch = () -> {
-            String title = editTitle.getText() != null ? editTitle.getText().toString().trim() : "";
-            String artist = editArtist.getText() != null ? editArtist.getText().toString().trim() : "";
-            String query = title + " " + artist;
-
-            if (query.isEmpty()) return;
+        SongAdapter apiAdapter = new SongAdapter(context);
+        int artworkSize = apiAdapter.getArtworkSize();
+        apiRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+        apiRecyclerView.setHasFixedSize(true);
+        apiRecyclerView.setAdapter(apiAdapter);
+
+        SongSearchSession searchSession = new SongSearchSession(localSong, artworkSize,
+                new SongSearchSession.Listener() {
+                    @Override
+                    public void onSearchStarted() {
+                        // Keep the previous results until the new ones are diffed in
+                        loading.setVisibility(View.VISIBLE);
+                        errorText.setVisibility(View.GONE);
+
+                        btnSearch.setEnabled(false);
+                        btnSearch.setText("Searching...");
+                        btnSearch.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#555555")));
+                    }
 
-            loading.setVisibility(View.VISIBLE);
-            errorText.setVisibility(View.GONE);
-            apiResults.clear();
-            apiAdapter.notifyDataSetChanged();
+                    @Override
+                    public void onResults(List<SongAdapter.Item> items) {
+                        apiAdapter.submitList(items, () -> apiRecyclerView.scrollToPosition(0));
+                        loading.setVisibility(View.GONE);
 
-            btnSearch.setEnabled(false);
-            btnSearch.setText("Searching...");
-            btnSearch.setBackgroundTintList(ColorStateList.valueOf(Color.parseColor("#555555")));
+                        if (items.isEmpty()) {
+                            errorText.setVisibility(View.VISIBLE);
+                            errorText.setText("No matches found");
+                        } else {
+                            errorText.setVisibility(View.GONE);
+                        }
 
-            ApiClient.searchSongs(query, new ApiClient.SearchCallback() {
-                @Override
-                public void onSuccess(ArrayList<Song> results) {
-                    for (Song s : results) {
-                        s.calculateMatchScore(query);
+                        resetSearchButton(btnSearch);
                     }
-                    Collections.sort(results, (s1, s2) -> Integer.compare(s2.getMatchScore(), s1.getMatchScore()));
-
-                    if (context instanceof android.app.Activity) {
-                        ((android.app.Activity) context).runOnUiThread(() -> {
-                            apiResults.addAll(results);
-                            apiAdapter.notifyDataSetChanged();
-                            loading.setVisibility(View.GONE);
-                            
-                            if (apiResults.isEmpty()) {
-                                errorText.setVisibility(View.VISIBLE);
-                                errorText.setText("No matches found");
-                            }
 
-                            resetSearchButton(btnSearch);
-                        });
+                    @Override
+                    public void onError(String error) {
+                        apiAdapter.submitList(Collections.emptyList(), null);
+                        loading.setVisibility(View.GONE);
+                        errorText.setVisibility(View.VISIBLE);
+                        errorText.setText("Error: " + error);
+                        resetSearchButton(btnSearch);
                     }
-                }
+                });
+        dialog.setOnDismissListener(d -> searchSession.close());
 
-                @Override
-                public void onFailure(String error) {
-                    if (context instanceof android.app.Activity) {
-                        ((android.app.Activity) context).runOnUiThread(() -> {
-                            loading.setVisibility(View.GONE);
-                            errorText.setVisibility(View.VISIBLE);
-                            errorText.setText("Error: " + error);
-                            resetSearchButton(btnSearch);
-                        });
-                    }
-                }
-            });
+        Supplier<String> currentQuery = () -> {
+            String title = editTitle.getText() != null ? editTitle.getText().toString().trim() : "";
+            String artist = editArtist.getText() != null ? editArtist.getText().toString().trim() : "";
+            return title + " " + artist;
+        };
+
+        // Re-search while typing, once the user pauses
+        TextWatcher queryWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchSession.searchDebounced(currentQuery.get());
+            }
         };
+        editTitle.addTextChangedListener(queryWatcher);
+        editArtist.addTextChangedListener(queryWatcher);
 
-        btnSearch.setOnClickListener(v -> performSearch.run());
+        btnSearch.setOnClickListener(v -> searchSession.searchNow(currentQuery.get()));
 
-        apiListView.setOnItemClickListener((parent, v, position, id) -> {
-            Song apiSong = apiResults.get(position);
+        apiAdapter.setOnItemClickListener(apiSong -> {
             dialog.dismiss();
             
             // LOGIC SPLIT:
@@ -190,7 +202,7 @@ public class IdentifySongDialog {
         });
 
         // Auto-search on open
-        performSearch.run();
+        searchSession.searchNow(currentQuery.get());
     }
 
     private void resetSearchButton(MaterialButton btnSearch) {
@@ -369,7 +369,7 @@ public class ArtworkBottomSheetFragment extends BottomSheetDialogFragment {
         listLoading.setVisibility(View.VISIBLE);
 
         MotionRepository.fetchMotionCovers(
-                ApiClient.client,
+                NetworkClient.get(activity),
                 trackUrl,
                 new MotionRepository.MotionCallback() {
                     @Override
@@ -439,7 +439,7 @@ public class ArtworkBottomSheetFragment extends BottomSheetDialogFragment {
         }
 
         MotionRepository.resolveMp4Url(
-                ApiClient.client,
+                NetworkClient.get(activity),
                 item.m3u8Url,
                 mp4Url -> {
                     if (!isAdded()) return;
@@ -458,8 +458,13 @@ public class ArtworkBottomSheetFragment extends BottomSheetDialogFragment {
     }
 
     private void downloadVideoToCache(String url, File targetFile) {
-        Request request = new Request.Builder().url(url).build();
-        ApiClient.client
+        // Videos skip the HTTP cache so they don't evict artwork and API responses
+        Request request =
+                new Request.Builder()
+                        .url(url)
+                        .cacheControl(new CacheControl.Builder().noStore().build())
+                        .build();
+        NetworkClient.get(activity)
                 .newCall(request)
                 .enqueue(
                         new Callback() {
@@ -499,7 +504,7 @@ public class ArtworkBottomSheetFragment extends BottomSheetDialogFragment {
         showDownloadOverlay();
 
         MotionRepository.resolveMp4Url(
-                ApiClient.client,
+                NetworkClient.get(activity),
                 item.m3u8Url,
                 mp4Url -> {
                     if (mp4Url == null) {
@@ -518,8 +523,13 @@ public class ArtworkBottomSheetFragment extends BottomSheetDialogFragment {
     }
 
     private void downloadFileWithProgress(String url) {
-        Request request = new Request.Builder().url(url).build();
-        ApiClient.client
+        // Videos skip the HTTP cache so they don't evict artwork and API responses
+        Request request =
+                new Request.Builder()
+                        .url(url)
+                        .cacheControl(new CacheControl.Builder().noStore().build())
+                        .build();
+        NetworkClient.get(activity)
                 .newCall(request)
                 .enqueue(
                         new Callback() {
@@ -15,7 +15,7 @@ import androidx.compose.foundation.LocalIndication
 import androidx.compose.foundation.interaction.InteractionSource
 import androidx.compose.foundation.interaction.PressInteraction
 import androidx.compose.foundation.layout.padding // Added Import
-import androidx.compose.foundation.lazy.rememberLazyListState
+import androidx.compose.foundation.lazy.LazyListState
 import androidx.compose.runtime.*
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.geometry.Offset
@@ -38,26 +38,49 @@ import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.compose.ui.unit.toIntSize
 import androidx.fragment.app.Fragment
+import androidx.lifecycle.lifecycleScope
 import com.mocharealm.accompanist.lyrics.core.model.SyncedLyrics
 import com.mocharealm.accompanist.lyrics.core.parser.AutoParser
 import com.mocharealm.accompanist.lyrics.ui.composable.lyrics.KaraokeLyricsView
+import java.util.concurrent.Executors
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.asCoroutineDispatcher
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 
 /**
  * Fragment wrapper for the Karaoke Lyrics library using Jetpack Compose. This provides a third
  * lyrics display option alongside Native and Web engines.
+ *
+ * The composition is set once. Playback position lives in a frame-clock driven state that is read
+ * only inside [PositionedKaraokeLyrics], so a playing song recomposes that one scope per frame and
+ * nothing above it. Lyrics are parsed on a background thread with a shared parser.
  */
 class KaraokeLyricsFragment : Fragment() {
 
     private var composeView: ComposeView? = null
-    private var syncedLyrics: SyncedLyrics? = null
+    private var syncedLyrics by mutableStateOf<SyncedLyrics?>(null)
+    private var parseJob: Job? = null
 
     // Playback state tracking
-    private var currentPosition by mutableLongStateOf(0L)
     private var playingState by mutableStateOf(false)
-    private var lastUpdateTime by mutableLongStateOf(0L)
     private var currentFontIndex by mutableIntStateOf(0)
 
+    // Last reported position and when it was reported, on the System.nanoTime() clock the
+    // Choreographer frame times use. Only read from the frame loop, so no snapshot state.
+    @Volatile private var anchorPosition = 0L
+    @Volatile private var anchorNanos = 0L
+
+    // Extrapolated once per frame; read only by PositionedKaraokeLyrics
+    private var framePosition by mutableLongStateOf(0L)
+
+    // Recomposition counters: content should stay at zero per frame while playing.
+    // Only kept while frame metrics are enabled in settings.
+    private var metricsEnabled = false
+    private var contentRecompositions = 0
+    private var positionRecompositions = 0
+
     // Callback interface for seeking
     fun interface SeekListener {
         fun onSeek(timeMs: Long)
@@ -70,16 +93,13 @@ class KaraokeLyricsFragment : Fragment() {
         container: ViewGroup?,
         savedInstanceState: Bundle?
     ): View {
-        composeView = ComposeView(requireContext())
+        metricsEnabled = FrameMetricsRecorder.isEnabled(requireContext())
+        composeView = ComposeView(requireContext()).apply {
+            setContent { KaraokeLyricsContent() }
+        }
         return composeView!!
     }
 
-    override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
-        super.onViewCreated(view, savedInstanceState)
-        // Content will be set when lyrics are loaded
-        syncedLyrics?.let { setupComposeContent() }
-    }
-
     /** Set the seek listener for handling line taps */
     fun setSeekListener(listener: SeekListener) {
         this.seekListener = listener
@@ -92,16 +112,21 @@ class KaraokeLyricsFragment : Fragment() {
     fun setLyrics(rawLyrics: String?) {
         if (rawLyrics.isNullOrEmpty()) return
 
-        try {
-            // Parse the lyrics using AutoParser
-            val autoParser = AutoParser.Builder().build()
-            syncedLyrics = autoParser.parse(rawLyrics)
-
-            // If view is already created, update the compose content
-            composeView?.let { setupComposeContent() }
-        } catch (e: Exception) {
-            e.printStackTrace()
-            // Handle parsing error
+        // A newer call supersedes a parse still in flight
+        parseJob?.cancel()
+        parseJob = lifecycleScope.launch {
+            val parseSpan = LatencyTracer.begin(LatencyTracer.STAGE_PARSE)
+            try {
+                val parsed = withContext(parseDispatcher) { parser.parse(rawLyrics) }
+                parseSpan.end()
+                syncedLyrics = parsed
+            } catch (e: CancellationException) {
+                parseSpan.cancel()
+                throw e
+            } catch (e: Exception) {
+                parseSpan.cancel()
+                Log.e(TAG, "Failed to parse lyrics", e)
+            }
         }
     }
 
@@ -110,8 +135,10 @@ class KaraokeLyricsFragment : Fragment() {
      * @param timeMs Current time in milliseconds
      */
     fun updateTime(timeMs: Long) {
-        currentPosition = timeMs
-        lastUpdateTime = System.currentTimeMillis()
+        anchorPosition = timeMs
+        anchorNanos = System.nanoTime()
+        // While playing the frame loop picks this up; when paused nothing else will
+        if (!playingState) framePosition = timeMs
     }
 
     /**
@@ -119,10 +146,17 @@ class KaraokeLyricsFragment : Fragment() {
      * @param playing Whether the music is currently playing
      */
     fun setPlaying(playing: Boolean) {
+        if (playingState && !playing) {
+            // Freeze where the extrapolation got to
+            anchorPosition = extrapolate(System.nanoTime())
+        }
+        anchorNanos = System.nanoTime()
         playingState = playing
-        lastUpdateTime = System.currentTimeMillis()
     }
 
+    private fun extrapolate(frameTimeNanos: Long): Long =
+        anchorPosition + (frameTimeNanos - anchorNanos).coerceAtLeast(0L) / 1_000_000L
+
     /**
      * Cycle through available fonts.
      * @return The name of the newly selected font
@@ -139,29 +173,24 @@ class KaraokeLyricsFragment : Fragment() {
         }
     }
 
-    /** Setup the Jetpack Compose content with the lyrics view */
-    private fun setupComposeContent() {
-        val lyrics = syncedLyrics ?: return
-        composeView?.setContent { KaraokeLyricsContent(lyrics = lyrics) }
-    }
-
     /** The actual Compose function that renders the lyrics */
     @Composable
-    private fun KaraokeLyricsContent(lyrics: SyncedLyrics) {
-        // 1. State for scrolling
-        val listState = rememberLazyListState()
+    private fun KaraokeLyricsContent() {
+        val lyrics = syncedLyrics ?: return
+        if (metricsEnabled) SideEffect { contentRecompositions++ }
 
-        // 2. Animated position for smooth playback
-        var animatedPosition by remember { mutableLongStateOf(0L) }
+        // 1. State for scrolling, starting over for each new song
+        val listState = remember(lyrics) { LazyListState() }
 
-        // 3. Remember state
-        val latestPlayingState by rememberUpdatedState(playingState)
-        val latestPosition by rememberUpdatedState(currentPosition)
-        val latestUpdateTime by rememberUpdatedState(lastUpdateTime)
-        val latestFontIndex by rememberUpdatedState(currentFontIndex)
+        // The frame after the first composition of these lyrics, i.e. once they were drawn
+        LaunchedEffect(lyrics) {
+            withFrameNanos { }
+            LatencyTracer.finish(LatencyTracer.STAGE_LYRICS_SHOWN)
+        }
 
-        // 4. Get the current font family based on the cycle index
-        val fontFamily = when (latestFontIndex) {
+        // 2. Font and styles, rebuilt only when the font changes
+        val fontIndex = currentFontIndex
+        val fontFamily = when (fontIndex) {
             0 -> FontFamily.Default
             1 -> FontFamily.Serif
             2 -> FontFamily.Monospace
@@ -169,68 +198,123 @@ class KaraokeLyricsFragment : Fragment() {
             4 -> FontFamily.Cursive
             else -> FontFamily.Default
         }
-
-        // 5. Smooth animation loop
-        LaunchedEffect(latestPlayingState) {
-            if (latestPlayingState) {
-                while (true) {
-                    val elapsed = System.currentTimeMillis() - latestUpdateTime
-                    animatedPosition = latestPosition + elapsed
-                    withFrameMillis {}
-                }
-            } else {
-                animatedPosition = latestPosition
-            }
+        val normalLineTextStyle = remember(fontFamily) {
+            TextStyle(
+                fontFamily = fontFamily,
+                fontSize = 35.sp,
+                fontWeight = FontWeight.Black,
+                color = Color.White
+            )
+        }
+        val accompanimentLineTextStyle = remember(fontFamily) {
+            TextStyle(
+                fontFamily = fontFamily,
+                fontSize = 20.sp,
+                fontWeight = FontWeight.Bold,
+                color = Color.White.copy(alpha = 0.6f)
+            )
+        }
+        // Applied padding to modifier since contentPadding parameter is unavailable
+        val modifier = remember {
+            Modifier
+                .padding(vertical = 100.dp)
+                .graphicsLayer { compositingStrategy = CompositingStrategy.Offscreen }
         }
 
-        // 6. Sync position when externally updated
-        LaunchedEffect(latestPosition, latestUpdateTime) {
-            if (!latestPlayingState) {
-                animatedPosition = latestPosition
+        // 3. Frame clock: one position per frame, from the frame's own timestamp
+        val playing = playingState
+        LaunchedEffect(playing) {
+            if (!playing) {
+                framePosition = anchorPosition
+                return@LaunchedEffect
+            }
+            var frames = 0
+            var windowStart = 0L
+            while (true) {
+                withFrameNanos { frameTimeNanos ->
+                    framePosition = extrapolate(frameTimeNanos)
+                    if (metricsEnabled) {
+                        if (windowStart == 0L) windowStart = frameTimeNanos
+                        frames++
+                        if (frameTimeNanos - windowStart >= METRICS_WINDOW_NANOS) {
+                            logRecompositions(frames)
+                            frames = 0
+                            windowStart = frameTimeNanos
+                        }
+                    }
+                }
             }
         }
 
-        // 7. Render with Custom Ripple Indication
-        key(latestFontIndex) {
+        // 4. Render with Custom Ripple Indication
+        key(fontIndex) {
             // Apply the custom Ripple Indication
             CompositionLocalProvider(LocalIndication provides RippleIndication) {
-                KaraokeLyricsView(
+                PositionedKaraokeLyrics(
+                    position = { framePosition },
                     listState = listState,
                     lyrics = lyrics,
-                    currentPosition = animatedPosition,
-                    onLineClicked = { line ->
-                        seekListener?.onSeek(line.start.toLong())
-                    },
-                    onLinePressed = { line ->
-                        // Optional: Handle long press
-                    },
-                    normalLineTextStyle = TextStyle(
-                        fontFamily = fontFamily,
-                        fontSize = 35.sp,
-                        fontWeight = FontWeight.Black,
-                        color = Color.White
-                    ),
-                    accompanimentLineTextStyle = TextStyle(
-                        fontFamily = fontFamily,
-                        fontSize = 20.sp,
-                        fontWeight = FontWeight.Bold,
-                        color = Color.White.copy(alpha = 0.6f)
-                    ),
-                    // Applied padding to modifier since contentPadding parameter is unavailable
-                    modifier = Modifier
-                        .padding(vertical = 100.dp) 
-                        .graphicsLayer {
-                            compositingStrategy = CompositingStrategy.Offscreen
-                        }
+                    normalLineTextStyle = normalLineTextStyle,
+                    accompanimentLineTextStyle = accompanimentLineTextStyle,
+                    modifier = modifier
                 )
             }
         }
     }
 
+    /**
+     * The only scope that reads the playback position. The library takes the position as a plain
+     * value, so this scope and the library's own content still recompose once per frame.
+     */
+    @Composable
+    private fun PositionedKaraokeLyrics(
+        position: () -> Long,
+        listState: LazyListState,
+        lyrics: SyncedLyrics,
+        normalLineTextStyle: TextStyle,
+        accompanimentLineTextStyle: TextStyle,
+        modifier: Modifier
+    ) {
+        if (metricsEnabled) SideEffect { positionRecompositions++ }
+        KaraokeLyricsView(
+            listState = listState,
+            lyrics = lyrics,
+            currentPosition = position(),
+            onLineClicked = { line ->
+                seekListener?.onSeek(line.start.toLong())
+            },
+            onLinePressed = { line ->
+                // Optional: Handle long press
+            },
+            normalLineTextStyle = normalLineTextStyle,
+            accompanimentLineTextStyle = accompanimentLineTextStyle,
+            modifier = modifier
+        )
+    }
+
+    private fun logRecompositions(frames: Int) {
+        Log.d(
+            TAG,
+            "$frames frames: content recomposed $contentRecompositions, " +
+                "position scope $positionRecompositions"
+        )
+        contentRecompositions = 0
+        positionRecompositions = 0
+    }
+
     override fun onDestroyView() {
         super.onDestroyView()
         composeView = null
     }
+
+    private companion object {
+        const val TAG = "KaraokeLyricsFragment"
+        const val METRICS_WINDOW_NANOS = 5_000_000_000L
+
+        // One parser for all instances; its thread is the only one that touches it
+        val parseDispatcher = Executors.newSingleThreadExecutor().asCoroutineDispatcher()
+        val parser: AutoParser by lazy { AutoParser.Builder().build() }
+    }
 }
 
 // =========================================================================
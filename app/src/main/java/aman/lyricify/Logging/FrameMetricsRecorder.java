@@ -0,0 +1,331 @@
+package aman.lyricify;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.Window;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Frame timing for one screen, from when it is attached until it is detached.
+ *
+ * Activities are measured with {@link Window.OnFrameMetricsAvailableListener},
+ * which reports each frame's real duration from input to swap. The floating
+ * window has no Window of its own, so it falls back to the interval between
+ * Choreographer frames, which catches UI thread stalls but not slow rendering.
+ *
+ * Durations go into fixed-width histograms, one for the whole session and one
+ * per segment (the lyrics engine on screen), so percentiles are cheap and
+ * nothing is allocated per frame. A frame is janky when it misses its vsync
+ * deadline and frozen when it takes over {@link #FROZEN_FRAME_MS}.
+ *
+ * Recording is off unless {@link #KEY_FRAME_METRICS_ENABLED} is set in
+ * settings. When on, a small overlay shows the live numbers and each session's
+ * report is logged and appended to {@code files/perf/frame_metrics.txt} on
+ * detach.
+ */
+public final class FrameMetricsRecorder {
+
+    private static final String TAG = "FrameMetrics";
+
+    private static final String PREFS_NAME = "LyricifyPrefs";
+    public static final String KEY_FRAME_METRICS_ENABLED = "frame_metrics_enabled";
+
+    private static final String EXPORT_DIR = "perf";
+    private static final String EXPORT_FILE = "frame_metrics.txt";
+    // The export is started over once it grows past this
+    private static final long MAX_EXPORT_BYTES = 1024 * 1024;
+
+    private static final int FROZEN_FRAME_MS = 700;
+    private static final long OVERLAY_REFRESH_MS = 1000;
+
+    // Histogram: 0.5 ms buckets up to 200 ms, then one overflow bucket
+    private static final int BUCKETS_PER_MS = 2;
+    private static final int MAX_BUCKET_MS = 200;
+    private static final int BUCKET_COUNT = MAX_BUCKET_MS * BUCKETS_PER_MS + 1;
+
+    private static HandlerThread metricsThread;
+
+    private final Context context;
+    private final String screen;
+    private final boolean enabled;
+    private final long startedAt = System.currentTimeMillis();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Guarded by this; frames arrive on the metrics thread, reads come from the UI
+    private final Histogram total = new Histogram();
+    private final LinkedHashMap<String, Histogram> segments = new LinkedHashMap<>();
+    private Histogram currentSegment;
+
+    private Window window;
+    private Window.OnFrameMetricsAvailableListener metricsListener;
+    private Choreographer.FrameCallback frameCallback;
+    private long lastFrameNanos;
+    private TextView overlay;
+    private Runnable overlayUpdater;
+
+    private FrameMetricsRecorder(Context context, String screen) {
+        this.context = context.getApplicationContext();
+        this.screen = screen;
+        this.enabled = isEnabled(context);
+    }
+
+    public static boolean isEnabled(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        return prefs.getBoolean(KEY_FRAME_METRICS_ENABLED, false);
+    }
+
+    /** Starts recording {@code activity}'s window. Call after setContentView. */
+    public static FrameMetricsRecorder attach(Activity activity, String screen) {
+        FrameMetricsRecorder recorder = new FrameMetricsRecorder(activity, screen);
+        if (!recorder.enabled) return recorder;
+
+        recorder.window = activity.getWindow();
+        recorder.metricsListener =
+                (window, frameMetrics, dropCount) -> recorder.onFrame(frameMetrics, window);
+        recorder.window.addOnFrameMetricsAvailableListener(
+                recorder.metricsListener, new Handler(metricsLooper()));
+
+        View decor = recorder.window.getDecorView();
+        if (decor instanceof ViewGroup) recorder.showOverlay((ViewGroup) decor);
+        return recorder;
+    }
+
+    /** Starts recording a window that was added without an Activity, e.g. an overlay. */
+    public static FrameMetricsRecorder attach(View root, String screen) {
+        FrameMetricsRecorder recorder = new FrameMetricsRecorder(root.getContext(), screen);
+        if (!recorder.enabled) return recorder;
+
+        recorder.frameCallback =
+                new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        if (recorder.lastFrameNanos > 0) {
+                            // A frame that arrives later than one vsync means frames were skipped
+                            recorder.record(
+                                    frameTimeNanos - recorder.lastFrameNanos,
+                                    vsyncNanos(root) * 3 / 2);
+                        }
+                        recorder.lastFrameNanos = frameTimeNanos;
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                };
+        Choreographer.getInstance().postFrameCallback(recorder.frameCallback);
+        return recorder;
+    }
+
+    /**
+     * Attributes following frames to {@code segment}, e.g. the lyrics engine
+     * now on screen. Frames before the first call only count towards the total.
+     */
+    public synchronized void setSegment(String segment) {
+        if (!enabled) return;
+        Histogram histogram = segments.get(segment);
+        if (histogram == null) {
+            histogram = new Histogram();
+            segments.put(segment, histogram);
+        }
+        currentSegment = histogram;
+    }
+
+    /** Stops recording, then logs and exports the session. */
+    public void detach() {
+        if (!enabled) return;
+        if (window != null && metricsListener != null) {
+            try {
+                window.removeOnFrameMetricsAvailableListener(metricsListener);
+            } catch (IllegalArgumentException ignored) {
+                // Already removed along with the window
+            }
+            metricsListener = null;
+        }
+        if (frameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            frameCallback = null;
+        }
+        if (overlayUpdater != null) mainHandler.removeCallbacks(overlayUpdater);
+
+        String report = report();
+        Log.i(TAG, report);
+        new Thread(() -> export(report)).start();
+    }
+
+    private static long vsyncNanos(View view) {
+        float refreshRate = view.getDisplay() != null ? view.getDisplay().getRefreshRate() : 60f;
+        return (long) (1_000_000_000L / refreshRate);
+    }
+
+    private void onFrame(FrameMetrics metrics, Window window) {
+        // A window's first frame includes its initial inflate and layout, so it is not a regular frame
+        if (metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return;
+        long duration = metrics.getMetric(FrameMetrics.TOTAL_DURATION);
+        long budget;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            budget = metrics.getMetric(FrameMetrics.DEADLINE);
+        } else {
+            budget = vsyncNanos(window.getDecorView());
+        }
+        record(duration, budget);
+    }
+
+    private synchronized void record(long durationNanos, long budgetNanos) {
+        total.add(durationNanos, budgetNanos);
+        if (currentSegment != null) currentSegment.add(durationNanos, budgetNanos);
+    }
+
+    private synchronized String report() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        StringBuilder sb = new StringBuilder();
+        sb.append(screen)
+                .append(" @ ")
+                .append(format.format(new Date(startedAt)))
+                .append(" (")
+                .append((System.currentTimeMillis() - startedAt) / 1000)
+                .append("s, ")
+                .append(Build.MANUFACTURER)
+                .append(' ')
+                .append(Build.MODEL)
+                .append(", API ")
+                .append(Build.VERSION.SDK_INT)
+                .append(")\n");
+        sb.append("  all: ").append(total.summary()).append('\n');
+        for (Map.Entry<String, Histogram> entry : segments.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(": ")
+                    .append(entry.getValue().summary()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void export(String report) {
+        File dir = new File(context.getFilesDir(), EXPORT_DIR);
+        if (!dir.exists() && !dir.mkdirs()) return;
+        File file = new File(dir, EXPORT_FILE);
+        boolean append = file.length() < MAX_EXPORT_BYTES;
+        try (FileWriter writer = new FileWriter(file, append)) {
+            writer.write(report);
+            writer.write('\n');
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to export frame metrics", e);
+        }
+    }
+
+    /** The file sessions are exported to, for sharing from a debug screen. */
+    public static File exportFile(Context context) {
+        return new File(new File(context.getFilesDir(), EXPORT_DIR), EXPORT_FILE);
+    }
+
+    private void showOverlay(ViewGroup decor) {
+        float density = context.getResources().getDisplayMetrics().density;
+        overlay = new TextView(decor.getContext());
+        overlay.setTextColor(Color.GREEN);
+        overlay.setBackgroundColor(0x99000000);
+        overlay.setTextSize(10);
+        overlay.setTypeface(Typeface.MONOSPACE);
+        int padding = (int) (4 * density);
+        overlay.setPadding(padding, padding, padding, padding);
+        // Numbers only; the overlay must never take touches from the screen below
+        overlay.setClickable(false);
+        overlay.setFocusable(false);
+
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        params.gravity = Gravity.TOP | Gravity.END;
+        params.topMargin = (int) (32 * density);
+        decor.addView(overlay, params);
+
+        overlayUpdater = new Runnable() {
+            @Override
+            public void run() {
+                overlay.setText(overlayText());
+                mainHandler.postDelayed(this, OVERLAY_REFRESH_MS);
+            }
+        };
+        mainHandler.post(overlayUpdater);
+    }
+
+    private synchronized String overlayText() {
+        StringBuilder sb = new StringBuilder(total.summary());
+        for (Map.Entry<String, Histogram> entry : segments.entrySet()) {
+            if (entry.getValue() != currentSegment) continue;
+            sb.append('\n').append(entry.getKey()).append(": ").append(entry.getValue().summary());
+        }
+        return sb.toString();
+    }
+
+    private static synchronized Looper metricsLooper() {
+        if (metricsThread == null) {
+            metricsThread = new HandlerThread("FrameMetrics");
+            metricsThread.start();
+        }
+        return metricsThread.getLooper();
+    }
+
+    /** Frame durations in 0.5 ms buckets, with jank and frozen frame counts. */
+    private static final class Histogram {
+        private final int[] buckets = new int[BUCKET_COUNT];
+        private int frames;
+        private int janky;
+        private int frozen;
+        private long maxNanos;
+
+        void add(long durationNanos, long budgetNanos) {
+            int bucket = (int) Math.min(durationNanos * BUCKETS_PER_MS / 1_000_000L, BUCKET_COUNT - 1);
+            buckets[bucket]++;
+            frames++;
+            if (durationNanos > budgetNanos) janky++;
+            if (durationNanos > FROZEN_FRAME_MS * 1_000_000L) frozen++;
+            if (durationNanos > maxNanos) maxNanos = durationNanos;
+        }
+
+        /** Upper edge of the bucket holding the {@code percent}th frame, in ms. */
+        float percentile(int percent) {
+            if (frames == 0) return 0;
+            int target = (int) Math.ceil(frames * percent / 100.0);
+            int seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return i == buckets.length - 1
+                            ? maxNanos / 1_000_000f
+                            : (i + 1) / (float) BUCKETS_PER_MS;
+                }
+            }
+            return maxNanos / 1_000_000f;
+        }
+
+        String summary() {
+            return String.format(
+                    Locale.US,
+                    "%d frames p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms jank=%d (%.1f%%) frozen=%d",
+                    frames,
+                    percentile(50),
+                    percentile(90),
+                    percentile(99),
+                    maxNanos / 1_000_000f,
+                    janky,
+                    frames > 0 ? janky * 100f / frames : 0f,
+                    frozen);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package aman.lyricify;
+
+import android.content.Context;
+
+import androidx.tracing.Trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Times the way from a track change to its lyrics on screen.
+ *
+ * A trace starts when a new track is seen, whichever of the media session,
+ * the notification listener or the player screen notices it first. Each stage
+ * after that (debounce, local file search, lyrics fetch, parse...) is recorded
+ * against the current trace as a {@link Span} or, for single points in time,
+ * with {@link #mark}. Every span is also an androidx.tracing async section, so
+ * the same stages show up in a system trace.
+ *
+ * A trace ends when lyrics are shown, when the next track starts, or once
+ * {@link #TRACE_WINDOW_MS} has passed. Finished traces go into a ring of the
+ * last {@link #MAX_TRACES} kept in {@code files/perf}, which
+ * {@link #report} turns into per-stage percentiles.
+ *
+ * Stages are attributed to whatever trace is current, so a lyrics fetch for
+ * another song made within the window counts towards the playing track.
+ */
+public final class LatencyTracer {
+
+    private static final String TAG = "LatencyTracer";
+    private static final String TRACE_PREFIX = "lyricify:";
+
+    private static final String RING_DIR = "perf";
+    private static final String RING_FILE = "latency_traces.dat";
+    private static final int MAX_TRACES = 200;
+
+    // Stages later than this after the track change are not part of its trace
+    private static final long TRACE_WINDOW_MS = 60_000;
+
+    /** Stage names, shared by the callers so the report groups them. */
+    public static final String STAGE_DEBOUNCE = "debounce";
+    public static final String STAGE_LOCAL_SEARCH = "local_search";
+    public static final String STAGE_CARD_SHOWN = "card_shown";
+    public static final String STAGE_ARTWORK = "artwork";
+    public static final String STAGE_LYRICS_FETCH = "lyrics_fetch";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_LYRICS_SHOWN = "lyrics_shown";
+
+    private static Context appContext;
+    private static Record current;
+    private static long currentStartNanos;
+    private static int nextCookie;
+
+    // Finished traces waiting for a save thread to merge them into the ring,
+    // so closing a trace never touches the disk
+    private static final ArrayList<Record> pending = new ArrayList<>();
+    private static boolean flushScheduled;
+    private static boolean clearRequested;
+
+    // Guards the ring and its file; only ever held off the main thread.
+    // Taken before the class lock, never while holding it.
+    private static final Object ringLock = new Object();
+    private static ArrayDeque<Record> ring;
+
+    private LatencyTracer() {}
+
+    /** One stage of a trace: when it started relative to the track change, and for how long. */
+    public static class Stage implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String name;
+        public final long offsetMs;
+        public final long durationMs;
+
+        Stage(String name, long offsetMs, long durationMs) {
+            this.name = name;
+            this.offsetMs = offsetMs;
+            this.durationMs = durationMs;
+        }
+    }
+
+    /** Everything recorded for one track. */
+    public static class Record implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final long startedAt;
+        public final String track;
+        public final String source;
+        public final ArrayList<Stage> stages = new ArrayList<>();
+
+        Record(long startedAt, String track, String source) {
+            this.startedAt = startedAt;
+            this.track = track;
+            this.source = source;
+        }
+    }
+
+    /** A running stage. {@link #end} records it, {@link #cancel} drops it. */
+    public static final class Span {
+        private final Record record;
+        private final String stage;
+        private final long startNanos;
+        private final int cookie;
+        private boolean done;
+
+        private Span(Record record, String stage, long startNanos, int cookie) {
+            this.record = record;
+            this.stage = stage;
+            this.startNanos = startNanos;
+            this.cookie = cookie;
+            if (record != null) Trace.beginAsyncSection(TRACE_PREFIX + stage, cookie);
+        }
+
+        public void end() {
+            finish(true);
+        }
+
+        public void cancel() {
+            finish(false);
+        }
+
+        private void finish(boolean keep) {
+            synchronized (LatencyTracer.class) {
+                if (done || record == null) return;
+                done = true;
+                Trace.endAsyncSection(TRACE_PREFIX + stage, cookie);
+                if (keep && record == current && !expired()) {
+                    long durationNanos = System.nanoTime() - startNanos;
+                    addStage(stage, startNanos - currentStartNanos, durationNanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a trace for {@code title}/{@code artist} unless one for the same
+     * track is already running. {@code source} names who noticed the change.
+     */
+    public static synchronized void trackChanged(
+            Context context, String title, String artist, String source) {
+        if (appContext == null && context != null) appContext = context.getApplicationContext();
+        String track = trackKey(title, artist);
+        if (current != null && current.track.equals(track) && !expired()) return;
+
+        close();
+        current = new Record(System.currentTimeMillis(), track, source);
+        currentStartNanos = System.nanoTime();
+    }
+
+    /** Starts timing {@code stage} of the current trace. Never null. */
+    public static synchronized Span begin(String stage) {
+        Record record = current != null && !expired() ? current : null;
+        return new Span(record, stage, System.nanoTime(), nextCookie++);
+    }
+
+    /**
+     * Records that {@code stage} was reached, e.g. the card became visible.
+     * Only the first time counts; artwork, say, can be replaced by a better one.
+     */
+    public static synchronized void mark(String stage) {
+        if (current == null || expired()) return;
+        for (Stage recorded : current.stages) {
+            if (recorded.name.equals(stage)) return;
+        }
+        addStage(stage, System.nanoTime() - currentStartNanos, 0);
+    }
+
+    /** Marks {@code stage} and ends the current trace; lyrics are on screen. */
+    public static synchronized void finish(String stage) {
+        if (current == null) return;
+        if (!expired()) addStage(stage, System.nanoTime() - currentStartNanos, 0);
+        close();
+    }
+
+    private static void addStage(String stage, long offsetNanos, long durationNanos) {
+        current.stages.add(new Stage(stage, offsetNanos / 1_000_000, durationNanos / 1_000_000));
+    }
+
+    private static boolean expired() {
+        return (System.nanoTime() - currentStartNanos) / 1_000_000 > TRACE_WINDOW_MS;
+    }
+
+    // Queues the current trace for the ring if anything was recorded for it
+    private static void close() {
+        Record record = current;
+        current = null;
+        if (record == null || record.stages.isEmpty() || appContext == null) return;
+
+        if (FrameMetricsRecorder.isEnabled(appContext)) Log.d(TAG, describe(record));
+        pending.add(record);
+        scheduleFlush();
+    }
+
+    private static void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        Context context = appContext;
+        new Thread(() -> {
+            synchronized (ringLock) {
+                merge(context);
+            }
+        }).start();
+    }
+
+    /**
+     * Folds the pending traces into the ring and writes it out if anything
+     * changed. Callers hold {@link #ringLock}.
+     */
+    private static ArrayDeque<Record> merge(Context context) {
+        ArrayList<Record> batch;
+        boolean cleared;
+        synchronized (LatencyTracer.class) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            cleared = clearRequested;
+            clearRequested = false;
+            flushScheduled = false;
+        }
+
+        File file = ringFile(context);
+        if (cleared) {
+            ring = new ArrayDeque<>();
+            if (file.exists() && !file.delete()) Log.w(TAG, "Could not delete " + file);
+        }
+        if (ring == null) ring = load(file);
+        if (batch.isEmpty()) return ring;
+
+        ring.addAll(batch);
+        while (ring.size() > MAX_TRACES) ring.removeFirst();
+        save(file, new ArrayList<>(ring));
+        return ring;
+    }
+
+    private static String describe(Record record) {
+        StringBuilder sb = new StringBuilder(record.track).append(" via ").append(record.source);
+        for (Stage stage : record.stages) {
+            sb.append(' ').append(stage.name).append('@').append(stage.offsetMs);
+            if (stage.durationMs > 0) sb.append('+').append(stage.durationMs);
+            sb.append("ms");
+        }
+        return sb.toString();
+    }
+
+    /** Finished traces, oldest first. Reads the disk; call off the main thread. */
+    public static List<Record> traces(Context context) {
+        synchronized (ringLock) {
+            return new ArrayList<>(merge(context.getApplicationContext()));
+        }
+    }
+
+    /** Drops every trace. The file is deleted on a save thread. */
+    public static synchronized void clear(Context context) {
+        if (appContext == null) appContext = context.getApplicationContext();
+        pending.clear();
+        clearRequested = true;
+        scheduleFlush();
+    }
+
+    /**
+     * Per stage over the stored traces: how long it took (p50/p90/p99) and how
+     * long after the track change it typically finished.
+     */
+    public static String report(Context context) {
+        List<Record> traces = traces(context);
+        if (traces.isEmpty()) return "No traces recorded yet.";
+
+        LinkedHashMap<String, ArrayList<Long>> durations = new LinkedHashMap<>();
+        LinkedHashMap<String, ArrayList<Long>> reachedAt = new LinkedHashMap<>();
+        for (Record record : traces) {
+            for (Stage stage : record.stages) {
+                if (!durations.containsKey(stage.name)) {
+                    durations.put(stage.name, new ArrayList<>());
+                    reachedAt.put(stage.name, new ArrayList<>());
+                }
+                durations.get(stage.name).add(stage.durationMs);
+                reachedAt.get(stage.name).add(stage.offsetMs + stage.durationMs);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(traces.size()).append(" tracks\n\n");
+        sb.append(String.format(Locale.US, "%-13s %4s %6s %6s %6s %7s%n",
+                "stage", "n", "p50", "p90", "p99", "at p50"));
+        for (Map.Entry<String, ArrayList<Long>> entry : durations.entrySet()) {
+            ArrayList<Long> took = entry.getValue();
+            ArrayList<Long> at = reachedAt.get(entry.getKey());
+            Collections.sort(took);
+            Collections.sort(at);
+            sb.append(String.format(Locale.US, "%-13s %4d %6d %6d %6d %7d%n",
+                    entry.getKey(),
+                    took.size(),
+                    percentile(took, 50),
+                    percentile(took, 90),
+                    percentile(took, 99),
+                    percentile(at, 50)));
+        }
+        sb.append("\nTimes in ms. \"at\" is since the track change.");
+        return sb.toString();
+    }
+
+    // Nearest-rank percentile of a sorted list
+    private static long percentile(List<Long> sorted, int percent) {
+        int rank = (int) Math.ceil(sorted.size() * percent / 100.0);
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static String trackKey(String title, String artist) {
+        String t = title != null ? title.trim().toLowerCase(Locale.ROOT) : "";
+        String a = artist != null ? artist.trim().toLowerCase(Locale.ROOT) : "";
+        return t + " - " + a;
+    }
+
+    private static File ringFile(Context context) {
+        return new File(new File(context.getFilesDir(), RING_DIR), RING_FILE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Record> load(File file) {
+        if (!file.exists()) return new ArrayDeque<>();
+        try (ObjectInputStream ois =
+                new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return new ArrayDeque<>((ArrayList<Record>) ois.readObject());
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading traces", e);
+            return new ArrayDeque<>();
+        }
+    }
+
+    private static void save(File file, ArrayList<Record> traces) {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) return;
+        try (ObjectOutputStream oos =
+                new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            oos.writeObject(traces);
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving traces", e);
+        }
+    }
+}
@@ -43,10 +43,7 @@ import com.google.android.material.materialswitch.MaterialSwitch;
 import com.google.android.material.navigation.NavigationView;
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -80,13 +77,23 @@ public class MainActivity extends AppCompatActivity {
     // Managers
     private MediaSessionHandler mediaSessionHandler;
     private NowPlayingManager nowPlayingManager;
+    private FrameMetricsRecorder frameMetrics;
     private PermissionManager permissionManager;
 
     private boolean isShowingSheet = false;
+    private boolean isIndexingLyrics = false;
+    // One library load at a time; calls made meanwhile run once it is done
+    private boolean isLoadingLibrary = false;
+    private boolean libraryReloadRequested = false;
 
     // Sort State
     private int currentSortCriteria = R.id.rbTitle;
     private int currentSortOrder = R.id.rbAscending;
+    // Sorted orders of the current library, replaced by each load
+    private volatile LibrarySortIndex sortIndex;
+    private int currentSortMode = LibrarySortIndex.MODE_TITLE;
+    // Filters and MediaStore generation the shown list was built from, null if stale
+    private volatile String loadedLibraryState;
 
     // Preference Keys
     private static final String PREFS_NAME = "LyricifyPrefs";
@@ -121,6 +128,7 @@ public class MainActivity extends AppCompatActivity {
         } else {
             setContentView(R.layout.activity_main);
         }
+        frameMetrics = FrameMetricsRecorder.attach(this, "Main");
 
         // 2. SETUP EXIT ANIMATION
         splashScreen.setOnExitAnimationListener(
@@ -205,7 +213,8 @@ public class MainActivity extends AppCompatActivity {
         currentSortOrder = prefs.getInt(KEY_SORT_ORDER, R.id.rbAscending);
         if (currentSortCriteria != R.id.rbTitle
                 && currentSortCriteria != R.id.rbArtist
-                && currentSortCriteria != R.id.rbDateAdded) {
+                && currentSortCriteria != R.id.rbDateAdded
+                && currentSortCriteria != R.id.rbLyricsQuality) {
             currentSortCriteria = R.id.rbTitle;
         }
     }
@@ -296,7 +305,6 @@ public class MainActivity extends AppCompatActivity {
                     @Override
                     public void onMediaFound(
                             String title, String artist, android.graphics.Bitmap artwork) {
-                        nowPlayingManager.cancelPendingUpdate();
                         nowPlayingManager.prepareUpdate(title, artist, artwork);
                     }
 
@@ -347,134 +355,288 @@ public class MainActivity extends AppCompatActivity {
                     public void onStoragePermissionDenied() {}
                 });
     }
-
-    private boolean hasLrcFile(String audioPath) {
-    if (audioPath == null) return false;
-
-    int lastDot = audioPath.lastIndexOf('.');
-    if (lastDot == -1) return false;
-
-    String basePath = audioPath.substring(0, lastDot);
-
-    return new File(basePath + ".lrc").exists()
-        || new File(basePath + ".ttml").exists();
-}
     
     
     private void loadLocalSongs() {
         if (!permissionManager.hasStoragePermission()) return;
+        if (isLoadingLibrary) {
+            libraryReloadRequested = true;
+            return;
+        }
+        isLoadingLibrary = true;
 
         // Only show loading if we don't have songs yet (prevents flickering on refresh)
-        if (allLocalSongs.isEmpty()) songLoading.setVisibility(View.VISIBLE);
+        boolean coldStart = allLocalSongs.isEmpty();
+        if (coldStart) songLoading.setVisibility(View.VISIBLE);
+        int snapshotSortMode = sortModeFor(currentSortCriteria);
+        boolean snapshotDescending = currentSortOrder == R.id.rbDescending;
 
         new Thread(
                         () -> {
-                            // 1. FETCH ALL SONGS
-                            List<MediaStoreHelper.LocalSong> allDeviceSongs =
-                                    MediaStoreHelper.getAllSongs(this);
-
-                            SharedPreferences prefs =
-                                    getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
-                            boolean scanAll = prefs.getBoolean(KEY_SCAN_ALL, true);
-                            boolean blacklistEnabled =
-                                    prefs.getBoolean(KEY_BLACKLIST_ENABLED, false);
-
-                            // Load Filtering Preferences
-                            boolean hideLyrics = prefs.getBoolean(KEY_HIDE_LYRICS, false);
-                            boolean hideLrc = prefs.getBoolean(KEY_HIDE_LRC, false);
-
-                            Set<String> whitelistPaths =
-                                    prefs.getStringSet(KEY_FOLDERS, new HashSet<>());
-                            Set<String> blacklistPaths =
-                                    prefs.getStringSet(KEY_BLACKLIST, new HashSet<>());
-
-                            // 2. FILTER BY WHITELIST (Included Folders)
-                            List<MediaStoreHelper.LocalSong> pendingSongs = new ArrayList<>();
-                            if (scanAll) {
-                                pendingSongs.addAll(allDeviceSongs);
-                            } else {
-                                if (!whitelistPaths.isEmpty()) {
-                                    for (MediaStoreHelper.LocalSong song : allDeviceSongs) {
-                                        if (song.filePath != null) {
-                                            for (String includePath : whitelistPaths) {
-                                                if (song.filePath.startsWith(includePath)) {
-                                                    pendingSongs.add(song);
-                                                    break;
-                                                }
-                                            }
-                                        }
-                                    }
+                            try {
+                                SharedPreferences prefs =
+                                        getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+                                boolean scanAll = prefs.getBoolean(KEY_SCAN_ALL, true);
+                                boolean blacklistEnabled =
+                                        prefs.getBoolean(KEY_BLACKLIST_ENABLED, false);
+
+                                // Load Filtering Preferences
+                                boolean hideLyrics = prefs.getBoolean(KEY_HIDE_LYRICS, false);
+                                boolean hideLrc = prefs.getBoolean(KEY_HIDE_LRC, false);
+
+                                Set<String> whitelistPaths =
+                                        prefs.getStringSet(KEY_FOLDERS, new HashSet<>());
+                                Set<String> blacklistPaths =
+                                        prefs.getStringSet(KEY_BLACKLIST, new HashSet<>());
+
+                                String filterKey =
+                                        LibrarySnapshot.filterKey(
+                                                scanAll,
+                                                blacklistEnabled,
+                                                hideLyrics,
+                                                hideLrc,
+                                                whitelistPaths,
+                                                blacklistPaths);
+                                String generation = LibrarySnapshot.mediaGeneration(this);
+
+                                // 0. COLD START: show the last list while MediaStore is queried
+                                String shownState =
+                                        coldStart
+                                                ? showLibrarySnapshot(
+                                                        filterKey,
+                                                        snapshotSortMode,
+                                                        snapshotDescending)
+                                                : loadedLibraryState;
+
+                                // Nothing changed in MediaStore or the filters since the list
+                                // on screen was built: keep it
+                                if (generation != null
+                                        && (filterKey + '|' + generation).equals(shownState)) {
+                                    runOnUiThread(() -> songLoading.setVisibility(View.GONE));
+                                    return;
                                 }
-                            }
 
-                            // 3. FILTER BY BLACKLIST (Excluded Folders)
-                            List<MediaStoreHelper.LocalSong> folderFilteredList = new ArrayList<>();
-                            if (blacklistEnabled && !blacklistPaths.isEmpty()) {
-                                for (MediaStoreHelper.LocalSong song : pendingSongs) {
-                                    boolean isBlacklisted = false;
-                                    if (song.filePath != null) {
-                                        for (String blockPath : blacklistPaths) {
-                                            if (song.filePath.startsWith(blockPath)) {
-                                                isBlacklisted = true;
-                                                break;
-                                            }
-                                        }
-                                    }
-                                    if (!isBlacklisted) {
+                                // 1. FETCH SONGS, narrowed to the chosen folders by MediaStore itself
+                                FolderScope scope =
+                                        FolderScope.compile(
+                                                scanAll,
+                                                whitelistPaths,
+                                                blacklistEnabled,
+                                                blacklistPaths);
+                                List<MediaStoreHelper.LocalSong> allDeviceSongs =
+                                        scope.isEmpty()
+                                                ? new ArrayList<>()
+                                                : MediaStoreHelper.getAllSongs(
+                                                        this,
+                                                        scope.selection(),
+                                                        scope.selectionArgs());
+
+                                // 2. FILTER BY FOLDERS (exact check, one path walk per song)
+                                List<MediaStoreHelper.LocalSong> folderFilteredList =
+                                        new ArrayList<>(allDeviceSongs.size());
+                                for (MediaStoreHelper.LocalSong song : allDeviceSongs) {
+                                    if (song.filePath == null) {
+                                        // No path to match folders against
+                                        if (scanAll) folderFilteredList.add(song);
+                                    } else if (scope.includes(song.filePath)) {
                                         folderFilteredList.add(song);
                                     }
                                 }
-                            } else {
-                                folderFilteredList.addAll(pendingSongs);
-                            }
 
-                            // 4. FILTER BY LYRICS & .LRC FILES
-                            List<MediaStoreHelper.LocalSong> finalFilteredList = new ArrayList<>();
+                                // 3. FILTER BY LYRICS & .LRC FILES
+                                List<MediaStoreHelper.LocalSong> finalFilteredList = new ArrayList<>();
 
-                            // Prepare Cache Manager if needed
-                            LyricsCacheManager cacheManager = null;
-                            if (hideLyrics) {
-                                cacheManager = LyricsCacheManager.getInstance(this);
-                            }
+                                // Indexed songs are answered without I/O; the rest fall
+                                // back to the direct probes and are indexed afterwards
+                                LyricsQualityIndex qualityIndex = LyricsQualityIndex.getInstance(this);
+                                List<MediaStoreHelper.LocalSong> unindexed = new ArrayList<>();
+
+                                // Prepare Cache Manager if needed
+                                LyricsCacheManager cacheManager = null;
+                                if (hideLyrics) {
+                                    cacheManager = LyricsCacheManager.getInstance(this);
+                                }
 
-                            for (MediaStoreHelper.LocalSong song : folderFilteredList) {
-                                boolean shouldInclude = true;
+                                SidecarDirectoryCache sidecarCache =
+                                        SidecarDirectoryCache.getInstance(this);
+                                sidecarCache.beginScan();
+
+                                for (MediaStoreHelper.LocalSong song : folderFilteredList) {
+                                    boolean shouldInclude = true;
+                                    SidecarDirectoryCache.Sidecar sidecar =
+                                            sidecarCache.sidecarFor(song.filePath);
+                                    boolean hasLrc = sidecar != null;
+
+                                    // Also stale once the sidecar was added, removed or rewritten
+                                    LyricsQualityIndex.Entry quality =
+                                            qualityIndex.lookup(song, sidecar);
+                                    if (quality != null) {
+                                        song.lyricsQuality = quality.best();
+                                    } else {
+                                        song.lyricsQuality = null;
+                                        unindexed.add(song);
+                                    }
 
-                                // Check A: Hidden because of Embedded Lyrics?
-                                if (hideLyrics && cacheManager != null) {
-                                    // hasLyrics uses cache:
-                                    // - If file date modified matches cache -> Returns instantly.
-                                    // - If file changed -> Scans with TagLib and updates cache.
-                                    if (cacheManager.hasLyrics(song.filePath)) {
-                                        shouldInclude = false;
+                                    // Check A: Hidden because of Embedded Lyrics?
+                                    if (hideLyrics) {
+                                        // hasLyrics uses cache:
+                                        // - If file date modified matches cache -> Returns instantly.
+                                        // - If file changed -> Scans with TagLib and updates cache.
+                                        boolean hasLyrics =
+                                                quality != null
+                                                        ? quality.hasEmbedded()
+                                                        : cacheManager.hasLyrics(song.filePath);
+                                        if (hasLyrics) {
+                                            shouldInclude = false;
+                                        }
+                                    }
+
+                                    // Check B: Hidden because of .LRC File?
+                                    if (shouldInclude && hideLrc) {
+                                        if (hasLrc) {
+                                            shouldInclude = false;
+                                        }
                                     }
-                                }
 
-                                // Check B: Hidden because of .LRC File?
-                                if (shouldInclude && hideLrc) {
-                                    if (hasLrcFile(song.filePath)) {
-                                        shouldInclude = false;
+                                    if (shouldInclude) {
+                                        finalFilteredList.add(song);
                                     }
                                 }
 
-                                if (shouldInclude) {
-                                    finalFilteredList.add(song);
+                                // Save the cache to disk if we used it
+                                if (hideLyrics && cacheManager != null) {
+                                    cacheManager.saveCache(this);
                                 }
+                                sidecarCache.saveCache(this);
+
+                                // Sort in every mode now, re-using the previous orders
+                                LibrarySortIndex newSortIndex =
+                                        LibrarySortIndex.build(finalFilteredList, sortIndex);
+
+                                // 4. UPDATE UI
+                                runOnUiThread(
+                                        () -> {
+                                            sortIndex = newSortIndex;
+                                            applyCurrentSort();
+                                            filterLocalSongs(searchEditText.getText().toString());
+                                            songLoading.setVisibility(View.GONE);
+                                        });
+
+                                // Keep what was just shown for the next cold start
+                                List<MediaStoreHelper.LocalSong> displayed = new ArrayList<>();
+                                newSortIndex.copyTo(snapshotSortMode, snapshotDescending, displayed);
+                                LibrarySnapshot.write(
+                                        this,
+                                        filterKey,
+                                        generation,
+                                        snapshotSortMode,
+                                        snapshotDescending,
+                                        displayed,
+                                        newSortIndex.sections(snapshotSortMode, snapshotDescending));
+                                loadedLibraryState =
+                                        unindexed.isEmpty() ? filterKey + '|' + generation : null;
+
+                                // 5. INDEX WHAT WAS MISSING
+                                if (!unindexed.isEmpty()) {
+                                    indexLyricsQuality(
+                                            unindexed,
+                                            hideLyrics
+                                                    || hideLrc
+                                                    || currentSortCriteria == R.id.rbLyricsQuality);
+                                }
+                            } finally {
+                                runOnUiThread(this::onLibraryLoadFinished);
                             }
+                        })
+                .start();
+    }
 
-                            // Save the cache to disk if we used it
-                            if (hideLyrics && cacheManager != null) {
-                                cacheManager.saveCache(this);
-                            }
+    private void onLibraryLoadFinished() {
+        isLoadingLibrary = false;
+        if (libraryReloadRequested && !isFinishing()) {
+            libraryReloadRequested = false;
+            loadLocalSongs();
+        }
+    }
+
+    /**
+     * Shows the list saved by the last load, if it was built with the current
+     * filters. Runs on the loader thread; sorting for the other modes is
+     * prepared here too so the sort dialog works before the load finishes.
+     *
+     * @return the state the snapshot was built from, null if none was shown or
+     *     it still needs lyrics indexing
+     */
+    private String showLibrarySnapshot(String filterKey, int sortMode, boolean descending) {
+        LibrarySnapshot snapshot = LibrarySnapshot.read(this);
+        if (snapshot == null || !snapshot.filterKey.equals(filterKey)) return null;
+
+        boolean sameOrder = snapshot.sortMode == sortMode && snapshot.descending == descending;
+        if (sameOrder) {
+            // Rows and sections exactly as saved, no sorting before the first frame
+            runOnUiThread(
+                    () -> {
+                        if (!allLocalSongs.isEmpty()) return;
+                        allLocalSongs.addAll(snapshot.songs);
+                        filteredLocalSongs.clear();
+                        filteredLocalSongs.addAll(allLocalSongs);
+                        localAdapter.setSortMode(sortMode);
+                        localAdapter.updateData(filteredLocalSongs, snapshot.sections);
+                        songLoading.setVisibility(View.GONE);
+                    });
+        }
+
+        LibrarySortIndex snapshotIndex = LibrarySortIndex.build(snapshot.songs, null);
+        String state =
+                snapshot.generation != null && snapshot.isComplete()
+                        ? snapshot.filterKey + '|' + snapshot.generation
+                        : null;
+        runOnUiThread(
+                () -> {
+                    if (sortIndex != null) return; // The full load already finished
+                    sortIndex = snapshotIndex;
+                    loadedLibraryState = state;
+                    if (!sameOrder) {
+                        applyCurrentSort();
+                        filterLocalSongs(searchEditText.getText().toString());
+                        songLoading.setVisibility(View.GONE);
+                    } else if (!searchEditText.getText().toString().trim().isEmpty()) {
+                        filterLocalSongs(searchEditText.getText().toString());
+                    }
+                });
+        return state;
+    }
+
+    /**
+     * Classifies the lyrics of {@code songs} in the background. When the result
+     * can change which songs are shown or their order, the list is rebuilt once
+     * from the now complete index.
+     */
+    private void indexLyricsQuality(List<MediaStoreHelper.LocalSong> songs, boolean reload) {
+        if (isIndexingLyrics) return;
+        isIndexingLyrics = true;
+
+        new Thread(
+                        () -> {
+                            LyricsQualityIndex qualityIndex = LyricsQualityIndex.getInstance(this);
+                            LyricsQualityIndex.IndexResult result =
+                                    qualityIndex.indexAll(
+                                            songs, SidecarDirectoryCache.getInstance(this));
+                            qualityIndex.saveIndex(this);
+                            int updated = result.updated;
+                            Log.d(
+                                    "LyricsQualityIndex",
+                                    "Indexed " + updated + " of " + songs.size() + " songs");
 
-                            // 5. UPDATE UI
                             runOnUiThread(
                                     () -> {
-                                        allLocalSongs.clear();
-                                        allLocalSongs.addAll(finalFilteredList);
-                                        applyCurrentSort();
-                                        filterLocalSongs(searchEditText.getText().toString());
-                                        songLoading.setVisibility(View.GONE);
+                                        isIndexingLyrics = false;
+                                        // The list reads these songs, so they only change here
+                                        result.applyTo(songs);
+                                        if (updated > 0 && reload && !isFinishing()) {
+                                            loadedLibraryState = null;
+                                            loadLocalSongs();
+                                        }
                                     });
                         })
                 .start();
@@ -482,7 +644,8 @@ public class MainActivity extends AppCompatActivity {
 
     private void filterLocalSongs(String query) {
         filteredLocalSongs.clear();
-        if (query == null || query.trim().isEmpty()) {
+        boolean unfiltered = query == null || query.trim().isEmpty();
+        if (unfiltered) {
             filteredLocalSongs.addAll(allLocalSongs);
         } else {
             String lowerQuery = query.toLowerCase(Locale.getDefault());
@@ -498,7 +661,15 @@ public class MainActivity extends AppCompatActivity {
         // FIX: Use updateData() instead of notifyDataSetChanged()
         // This forces the adapter to Recalculate Sections based on the new, correct order.
         if (localAdapter != null) {
-            localAdapter.updateData(filteredLocalSongs);
+            if (unfiltered && sortIndex != null && sortIndex.size() == filteredLocalSongs.size()) {
+                // The whole library: sections were built by the loader
+                localAdapter.updateData(
+                        filteredLocalSongs,
+                        sortIndex.sections(
+                                currentSortMode, currentSortOrder == R.id.rbDescending));
+            } else {
+                localAdapter.updateData(filteredLocalSongs);
+            }
         }
     }
 
@@ -532,6 +703,8 @@ public class MainActivity extends AppCompatActivity {
                     } catch (Exception ignored) {
                     }
 
+                    // The dialog offers "Edit Tags Manually", read the tags meanwhile
+                    TagEditorDataManager.prefetch(song.filePath);
                     new IdentifySongDialog(MainActivity.this, song, extractedBitmap).show();
                 });
 
@@ -543,6 +716,7 @@ public class MainActivity extends AppCompatActivity {
                     intent.putExtra("SONG_TITLE", song.title);
                     intent.putExtra("SONG_ARTIST", song.artist);
                     startActivity(intent);
+                    prefetchNeighbours(position);
                     // Note: The adapter expects void return for this interface based on my previous
                     // code,
                     // or if you used the standard boolean return, return true;
@@ -551,6 +725,16 @@ public class MainActivity extends AppCompatActivity {
         findViewById(R.id.sortButton).setOnClickListener(v -> showSortDialog());
     }
 
+    /** Tag edits tend to walk an album, so warm the editor for the adjacent rows. */
+    private void prefetchNeighbours(int position) {
+        if (position > 0 && position - 1 < filteredLocalSongs.size()) {
+            TagEditorDataManager.prefetch(filteredLocalSongs.get(position - 1).filePath);
+        }
+        if (position + 1 < filteredLocalSongs.size()) {
+            TagEditorDataManager.prefetch(filteredLocalSongs.get(position + 1).filePath);
+        }
+    }
+
     private void showSortDialog() {
         Dialog dialog = new Dialog(this);
         dialog.requestWindowFeature(Window.FEATURE_NO_TITLE);
@@ -618,36 +802,20 @@ public class MainActivity extends AppCompatActivity {
         dialog.show();
     }
 
-    private void applyCurrentSort() {
-        Comparator<MediaStoreHelper.LocalSong> comparator = null;
-        int sortMode = 0;
-
-        if (currentSortCriteria == R.id.rbTitle) {
-            comparator =
-                    (s1, s2) -> {
-                        String t1 = s1.title != null ? s1.title.trim() : "";
-                        String t2 = s2.title != null ? s2.title.trim() : "";
-                        return t1.compareToIgnoreCase(t2);
-                    };
-            sortMode = 0;
-        } else if (currentSortCriteria == R.id.rbArtist) {
-            comparator =
-                    (s1, s2) -> {
-                        String a1 = s1.artist != null ? s1.artist.trim() : "";
-                        String a2 = s2.artist != null ? s2.artist.trim() : "";
-                        return a1.compareToIgnoreCase(a2);
-                    };
-            sortMode = 2;
-        } else if (currentSortCriteria == R.id.rbDateAdded) {
-            comparator = (s1, s2) -> Long.compare(s1.dateAdded, s2.dateAdded);
-            sortMode = 1;
-        }
+    private static int sortModeFor(int sortCriteria) {
+        if (sortCriteria == R.id.rbArtist) return LibrarySortIndex.MODE_ARTIST;
+        if (sortCriteria == R.id.rbDateAdded) return LibrarySortIndex.MODE_DATE_ADDED;
+        if (sortCriteria == R.id.rbLyricsQuality) return LibrarySortIndex.MODE_LYRICS_QUALITY;
+        return LibrarySortIndex.MODE_TITLE;
+    }
 
+    private void applyCurrentSort() {
+        int sortMode = sortModeFor(currentSortCriteria);
+        currentSortMode = sortMode;
         if (localAdapter != null) localAdapter.setSortMode(sortMode);
-        if (comparator != null) {
-            if (currentSortOrder == R.id.rbDescending)
-                comparator = Collections.reverseOrder(comparator);
-            Collections.sort(allLocalSongs, comparator);
+        // Every order was prepared by the loader, this is only a copy
+        if (sortIndex != null) {
+            sortIndex.copyTo(sortMode, currentSortOrder == R.id.rbDescending, allLocalSongs);
         }
     }
 
@@ -783,6 +951,7 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        frameMetrics.detach();
         nowPlayingManager.unregister();
         mediaSessionHandler.cleanup();
     }
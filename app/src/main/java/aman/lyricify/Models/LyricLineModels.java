@@ -28,6 +28,7 @@ public class LyricLineModels {
     public static class KaraokeLine extends LyricLine {
         public String voice;
         public List<KaraokeWord> words;
+        public long endTime = -1; // Trailing <mm:ss.xxx> tag, -1 if absent
         public KaraokeLineView karaokeLineView;  // Changed from karaokeView to karaokeLineView
         
         public KaraokeLine(long timestamp, String voice, List<KaraokeWord> words) {
@@ -1,5 +1,7 @@
 package aman.lyricify;
 
+import java.util.regex.Pattern;
+
 import org.json.JSONObject;
 
 public class Song {
@@ -11,6 +13,46 @@ public class Song {
     private int matchScore = 0;
     private JSONObject fullTrackData;
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Computed on first scoring and then shared by every ranking of this song
+    private MatchKeys matchKeys;
+
+    /**
+     * Lowercased name/artist and their words. Immutable, so rankings on other
+     * threads see either none or all of it; at worst two compute it at once.
+     */
+    private static final class MatchKeys {
+        final String songLower, artistLower;
+        final String[] songWords, artistWords;
+
+        MatchKeys(String songName, String artistName) {
+            songLower = songName.toLowerCase();
+            artistLower = artistName.toLowerCase();
+            songWords = WHITESPACE.split(songLower);
+            artistWords = WHITESPACE.split(artistLower);
+        }
+    }
+
+    /**
+     * A search query normalized once, so scoring a page of results does not
+     * lowercase and split it again for every song.
+     */
+    public static final class MatchQuery {
+        final String lower;
+        final String[] words;
+
+        public MatchQuery(String query) {
+            if (query == null || query.trim().isEmpty()) {
+                lower = null;
+                words = null;
+            } else {
+                lower = query.toLowerCase().trim();
+                words = WHITESPACE.split(lower);
+            }
+        }
+    }
+
     // Updated Constructor
     public Song(String id, String songName, String artistName, String albumName, String artwork, 
                 String releaseDate, String duration, String contentRating, 
@@ -34,6 +76,13 @@ public class Song {
     public String getArtwork() { return artwork; }
     public String getReleaseDate() { return releaseDate; }
     public String getDuration() { return formattedDuration(); }
+    public long getDurationMillis() {
+        try {
+            return Long.parseLong(duration);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
     public String getContentRating() { return contentRating; }
     public int getMatchScore() { return matchScore; }
     public JSONObject getFullTrackData() { return fullTrackData; }
@@ -51,25 +100,38 @@ public class Song {
     }
 
     public void calculateMatchScore(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            matchScore = 100;
-            return;
-        }
+        calculateMatchScore(new MatchQuery(query));
+    }
 
-        String queryLower = query.toLowerCase().trim();
-        String[] queryWords = queryLower.split("\\s+");
-        
-        String songLower = songName.toLowerCase();
-        String artistLower = artistName.toLowerCase();
-        String[] songWords = songLower.split("\\s+");
-        String[] artistWords = artistLower.split("\\s+");
+    public void calculateMatchScore(MatchQuery query) {
+        matchScore = scoreAgainst(query);
+    }
+
+    /**
+     * The match score for {@code query} without storing it, so songs shared
+     * between searches can be scored by each of them independently.
+     */
+    public int scoreAgainst(MatchQuery query) {
+        if (query.lower == null) return 100;
+
+        String queryLower = query.lower;
+        String[] queryWords = query.words;
+
+        MatchKeys keys = matchKeys;
+        if (keys == null) {
+            keys = new MatchKeys(songName, artistName);
+            matchKeys = keys;
+        }
+        String songLower = keys.songLower;
+        String artistLower = keys.artistLower;
+        String[] songWords = keys.songWords;
+        String[] artistWords = keys.artistWords;
 
         boolean songExactMatch = songLower.equals(queryLower);
         boolean artistExactMatch = artistLower.equals(queryLower);
         
         if (songExactMatch && artistExactMatch) {
-            matchScore = 100;
-            return;
+            return 100;
         }
 
         int songScore = 0;
@@ -88,8 +150,7 @@ public class Song {
         }
 
         if (songMatched && artistMatched) {
-            matchScore = 100;
-            return;
+            return 100;
         }
 
         if (!songMatched) {
@@ -138,7 +199,7 @@ public class Song {
             totalScore = (artistScore / 2);
         }
 
-        matchScore = Math.min(100, totalScore);
+        return Math.min(100, totalScore);
     }
 
     private String formattedDuration() {
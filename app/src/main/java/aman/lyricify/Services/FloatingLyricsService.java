@@ -40,6 +40,7 @@ public class FloatingLyricsService extends Service {
 
     private WindowManager windowManager;
     private View floatingView;
+    private FrameMetricsRecorder frameMetrics;
     private ImageView bubbleView;
     private View expandedContainer;
     private LinearLayout windowHeader;
@@ -101,6 +102,7 @@ public class FloatingLyricsService extends Service {
 
         windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
         windowManager.addView(floatingView, params);
+        frameMetrics = FrameMetricsRecorder.attach(floatingView, "FloatingLyrics");
 
         bubbleView = floatingView.findViewById(R.id.bubbleView);
         expandedContainer = floatingView.findViewById(R.id.expandedContainer);
@@ -128,7 +130,7 @@ public class FloatingLyricsService extends Service {
             if (currentTitle != null) titleText.setText(currentTitle);
             if (currentUrl != null) {
                 Glide.with(this)
-                     .load(currentUrl.replace("{w}", "200").replace("{h}", "200"))
+                     .load(ArtworkUrlResolver.resolveFor(bubbleView, currentUrl))
                      .apply(RequestOptions.circleCropTransform())
                      .into(bubbleView);
             }
@@ -357,6 +359,7 @@ public class FloatingLyricsService extends Service {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        if (frameMetrics != null) frameMetrics.detach();
         if (floatingView != null) windowManager.removeView(floatingView);
         if (webContainer != null) webContainer.removeAllViews();
         if (updateHandler != null) updateHandler.removeCallbacks(updateRunnable);
@@ -8,6 +8,9 @@ import android.graphics.drawable.Drawable;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Icon;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.BroadcastReceiver;
@@ -20,6 +23,12 @@ public class SongNotificationListener extends NotificationListenerService {
 
     private String lastNotificationKey = "";
     private long lastNotificationTime = 0;
+    private long lastExistingCheckTime = 0;
+    private boolean existingCheckScheduled = false;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    // Requests closer together than this share one scan of the active notifications
+    private static final long EXISTING_CHECK_INTERVAL_MS = 1000;
     
     private static final Set<String> KNOWN_MUSIC_APPS = new HashSet<>(Arrays.asList(
         "com.spotify.music", "com.google.android.music", "com.apple.android.music",
@@ -50,11 +59,37 @@ public class SongNotificationListener extends NotificationListenerService {
         @Override
         public void onReceive(Context context, Intent intent) {
             if ("aman.lyricify.REQUEST_EXISTING_CHECK".equals(intent.getAction())) {
-                checkExistingNotifications();
+                requestExistingCheck();
             }
         }
     };
 
+    private final Runnable scheduledExistingCheck = () -> {
+        existingCheckScheduled = false;
+        runExistingCheck();
+    };
+
+    /**
+     * Scans right away unless a scan ran within the interval. Requests inside
+     * the interval are merged into one scan at its end, so the last request
+     * always sees the notifications as they are after it was made.
+     */
+    private void requestExistingCheck() {
+        if (existingCheckScheduled) return;
+        long wait = lastExistingCheckTime + EXISTING_CHECK_INTERVAL_MS - SystemClock.uptimeMillis();
+        if (lastExistingCheckTime == 0 || wait <= 0) {
+            runExistingCheck();
+        } else {
+            existingCheckScheduled = true;
+            mainHandler.postDelayed(scheduledExistingCheck, wait);
+        }
+    }
+
+    private void runExistingCheck() {
+        lastExistingCheckTime = SystemClock.uptimeMillis();
+        checkExistingNotifications();
+    }
+
     @Override
     public void onCreate() {
         super.onCreate();
@@ -64,6 +99,7 @@ public class SongNotificationListener extends NotificationListenerService {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        mainHandler.removeCallbacks(scheduledExistingCheck);
         try { unregisterReceiver(requestReceiver); } catch (Exception ignored) {}
     }
 
@@ -176,6 +212,9 @@ public class SongNotificationListener extends NotificationListenerService {
         
         lastNotificationKey = notificationKey;
         lastNotificationTime = currentTime;
+        if (source.equals("onNotificationPosted")) {
+            LatencyTracer.trackChanged(this, title, artist, "notification");
+        }
 
         Bitmap artwork = extractNotificationArtwork(notification, extras);
 
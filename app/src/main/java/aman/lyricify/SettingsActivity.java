@@ -2,6 +2,7 @@ package aman.lyricify;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.graphics.Typeface;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
@@ -13,6 +14,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.LinearLayout;
+import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -55,6 +57,7 @@ public class SettingsActivity extends AppCompatActivity {
     private MaterialSwitch switchScanAll, switchBlacklist, switchBottomUi, switchHideLyrics;
     private MaterialSwitch switchLowRam;
     private MaterialSwitch switchSquiggly; 
+    private MaterialSwitch switchFrameMetrics;
     private MaterialSwitch switchHideLrc; 
     
     private FolderAdapter whitelistAdapter, blacklistAdapter;
@@ -82,6 +85,7 @@ public class SettingsActivity extends AppCompatActivity {
         switchHideLyrics = findViewById(R.id.switchHideLyrics);
         switchLowRam = findViewById(R.id.switchLowRam);
         switchSquiggly = findViewById(R.id.switchSquiggly); 
+        switchFrameMetrics = findViewById(R.id.switchFrameMetrics);
         switchHideLrc = findViewById(R.id.switchHideLrc); 
 
         RecyclerView whitelistRecycler = findViewById(R.id.whitelistRecyclerView);
@@ -142,6 +146,7 @@ public class SettingsActivity extends AppCompatActivity {
         switchHideLyrics.setChecked(isHideLyrics);
         switchLowRam.setChecked(isLowRam);
         switchSquiggly.setChecked(isSquiggly); 
+        switchFrameMetrics.setChecked(FrameMetricsRecorder.isEnabled(this));
         switchHideLrc.setChecked(isHideLrc);
     }
     
@@ -200,10 +205,45 @@ public class SettingsActivity extends AppCompatActivity {
             prefs.edit().putBoolean(KEY_SQUIGGLY_ENABLED, isChecked).apply();
         });
 
+        switchFrameMetrics.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            prefs.edit().putBoolean(FrameMetricsRecorder.KEY_FRAME_METRICS_ENABLED, isChecked).apply();
+        });
+
+        findViewById(R.id.btnLatencyStats).setOnClickListener(v -> showLatencyDialog());
+
         findViewById(R.id.btnAddWhitelist).setOnClickListener(v -> openDirectoryPicker(REQUEST_CODE_WHITELIST));
         findViewById(R.id.btnAddBlacklist).setOnClickListener(v -> openDirectoryPicker(REQUEST_CODE_BLACKLIST));
     }
     
+    // --- TRACK CHANGE -> LYRICS LATENCY ---
+    private void showLatencyDialog() {
+        new Thread(() -> {
+            String report = LatencyTracer.report(this);
+            runOnUiThread(() -> {
+                if (isFinishing()) return;
+                int padding = (int) (20 * getResources().getDisplayMetrics().density);
+                TextView text = new TextView(this);
+                text.setText(report);
+                text.setTypeface(Typeface.MONOSPACE);
+                text.setTextSize(12);
+                text.setTextIsSelectable(true);
+                text.setPadding(padding, padding, padding, 0);
+                ScrollView scroll = new ScrollView(this);
+                scroll.addView(text);
+
+                new MaterialAlertDialogBuilder(this)
+                        .setTitle("Lyrics Latency")
+                        .setView(scroll)
+                        .setPositiveButton("Close", null)
+                        .setNeutralButton("Clear", (dialog, which) -> {
+                            LatencyTracer.clear(this);
+                            Toast.makeText(this, "Latency traces cleared", Toast.LENGTH_SHORT).show();
+                        })
+                        .show();
+            });
+        }).start();
+    }
+
     // --- DIALOG FOR PERMISSION REQUEST ---
     private void showPermissionDialog() {
         new MaterialAlertDialogBuilder(this)
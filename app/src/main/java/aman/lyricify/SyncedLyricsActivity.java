@@ -4,6 +4,7 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.ComponentName;
+import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.graphics.RenderEffect;
 import android.graphics.Shader;
@@ -33,8 +34,6 @@ import androidx.fragment.app.FragmentTransaction;
 import aman.youly.LyricsWebViewFragment;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.request.RequestOptions;
-import jp.wasabeef.glide.transformations.BlurTransformation;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
@@ -44,6 +43,11 @@ import java.util.List;
 
 public class SyncedLyricsActivity extends AppCompatActivity {
 
+    private static final String PREFS_NAME = "LyricifyPrefs";
+    private static final String KEY_PLAYER_MODE = "synced_lyrics_player_mode";
+    // Frame metrics segment per player mode
+    private static final String[] ENGINE_NAMES = {"native", "web", "karaoke"};
+
     // UI Components
     private SyncedLyricsView syncedLyricsView;
     private FrameLayout webViewContainer;
@@ -81,6 +85,7 @@ public class SyncedLyricsActivity extends AppCompatActivity {
 
     // Player mode: 0 = Native, 1 = YouLy (Web), 2 = Accompanist (Karaoke)
     private int currentPlayerMode = 0;
+    private boolean nativeLyricsLoaded = false;
 
     // Immersive State
     private boolean isImmersiveMode = false;
@@ -95,14 +100,21 @@ public class SyncedLyricsActivity extends AppCompatActivity {
     private String originalArtist = "";
     private String originalArtworkUrl;
     private boolean isShowingOriginalArt = true;
+    private int artworkRequestId = 0;
 
     // Flag to capture the initial session as "The Anchor"
     private boolean isFirstMetadataUpdate = true;
 
-    // Player Components
+    // Player Components, created the first time their mode is shown
     private LyricsWebViewFragment lyricsWebViewFragment;
     private KaraokeLyricsFragment karaokeLyricsFragment;
 
+    // Song the web engine should load once it exists
+    private String pendingWebTitle, pendingWebArtist, pendingWebAlbum;
+    private long pendingWebDurationSeconds;
+
+    private FrameMetricsRecorder frameMetrics;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -111,14 +123,14 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         
         hideSystemUI();
         setContentView(R.layout.activity_synced_lyrics);
+        frameMetrics = FrameMetricsRecorder.attach(this, "SyncedLyrics");
 
         initializeViews();
         extractIntentData(); // Populates UI only
 
-        setupYouLyFragment();
-        setupKaraokeFragment();
+        // Only the engine being shown is set up; the others wait for their first selection
+        restorePlayerMode();
         setupMediaSession();
-        fetchAndDisplayNativeLyrics();
 
         setupControls();
 
@@ -342,6 +354,7 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         if (!newTitle.equals(title)) {
             title = newTitle;
             artist = newArtist;
+            LatencyTracer.trackChanged(this, title, artist, "player");
 
             // Song changed: Update UI Text now
             runOnUiThread(
@@ -368,10 +381,7 @@ public class SyncedLyricsActivity extends AppCompatActivity {
                         });
 
                 // Reload Original Lyrics into WebView
-                if (lyricsWebViewFragment != null) {
-                    long durSeconds = duration / 1000;
-                    lyricsWebViewFragment.loadLyrics(title, artist, newAlbum, durSeconds);
-                }
+                loadWebLyrics(title, artist, newAlbum, duration / 1000);
 
             } else {
                 // --- MISMATCH (New Song) ---
@@ -396,52 +406,157 @@ public class SyncedLyricsActivity extends AppCompatActivity {
                             }
                         });
 
-                if (lyricsWebViewFragment != null) {
-                    long durSeconds = duration / 1000;
-                    lyricsWebViewFragment.loadLyrics(title, artist, newAlbum, durSeconds);
-                }
+                loadWebLyrics(title, artist, newAlbum, duration / 1000);
             }
         }
     }
 
+    private void loadWebLyrics(String title, String artist, String album, long durationSeconds) {
+        runOnUiThread(
+                () -> {
+                    if (lyricsWebViewFragment != null) {
+                        lyricsWebViewFragment.loadLyrics(title, artist, album, durationSeconds);
+                        return;
+                    }
+                    pendingWebTitle = title;
+                    pendingWebArtist = artist;
+                    pendingWebAlbum = album;
+                    pendingWebDurationSeconds = durationSeconds;
+                });
+    }
+
     private void switchToWebMode() {
         if (currentPlayerMode == 1) return;
 
-        View oldView;
-        if (currentPlayerMode == 2) oldView = karaokeContainer;
-        else oldView = syncedLyricsView;
+        View oldView = viewForMode(currentPlayerMode);
+        parkEngine(currentPlayerMode);
 
+        // Forced by a different song playing, so not remembered as the user's choice
         currentPlayerMode = 1;
+        applyModeControls(currentPlayerMode);
 
-        immersiveButton.show();
-        prevButton.setVisibility(View.VISIBLE);
-        nextButton.setVisibility(View.VISIBLE);
-        fontSwitchButton.setVisibility(View.INVISIBLE);
-        playerChangerButton.setIconResource(R.drawable.ic_layers);
+        ensureEngine(currentPlayerMode);
+        lyricsWebViewFragment.displayLyrics();
+        lyricsWebViewFragment.setPlaying(isPlaying);
+        animateReveal(webViewContainer, oldView);
+    }
 
-        if (lyricsWebViewFragment != null) {
-            lyricsWebViewFragment.displayLyrics();
-            lyricsWebViewFragment.setPlaying(isPlaying);
+    private View viewForMode(int mode) {
+        switch (mode) {
+            case 1:
+                return webViewContainer;
+            case 2:
+                return karaokeContainer;
+            default:
+                return syncedLyricsView;
         }
-        animateReveal(webViewContainer, oldView);
     }
 
-    private void togglePlayerView() {
-        View oldView;
-        switch (currentPlayerMode) {
+    /** Shows the last engine the user picked straight away, without the reveal animation. */
+    private void restorePlayerMode() {
+        SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+        int mode = prefs.getInt(KEY_PLAYER_MODE, 0);
+        currentPlayerMode = mode >= 0 && mode < 3 ? mode : 0;
+
+        ensureEngine(currentPlayerMode);
+        for (int m = 0; m < 3; m++) {
+            viewForMode(m).setVisibility(m == currentPlayerMode ? View.VISIBLE : View.GONE);
+        }
+        applyModeControls(currentPlayerMode);
+
+        if (currentPlayerMode == 1) {
+            // The fragment's view only exists once the activity has started
+            webViewContainer.post(
+                    () -> {
+                        if (currentPlayerMode != 1) return;
+                        lyricsWebViewFragment.displayLyrics();
+                        lyricsWebViewFragment.setPlaying(isPlaying);
+                    });
+        }
+    }
+
+    private void savePlayerMode(int mode) {
+        getSharedPreferences(PREFS_NAME, MODE_PRIVATE)
+                .edit()
+                .putInt(KEY_PLAYER_MODE, mode)
+                .apply();
+    }
+
+    private void applyModeControls(int mode) {
+        frameMetrics.setSegment(ENGINE_NAMES[mode]);
+        if (mode == 1) {
+            immersiveButton.show();
+            prevButton.setVisibility(View.VISIBLE);
+            nextButton.setVisibility(View.VISIBLE);
+            playerChangerButton.setIconResource(R.drawable.ic_layers);
+            fontSwitchButton.setVisibility(View.INVISIBLE);
+        } else {
+            immersiveButton.hide();
+            prevButton.setVisibility(View.GONE);
+            nextButton.setVisibility(View.GONE);
+            fontSwitchButton.setVisibility(View.VISIBLE);
+            playerChangerButton.setIconResource(
+                    mode == 0 ? R.drawable.ic_swap_horiz : R.drawable.ic_music_note);
+        }
+    }
+
+    /** Creates the engine for {@code mode} on first use and hands it the current lyrics. */
+    private void ensureEngine(int mode) {
+        switch (mode) {
             case 0:
-                oldView = syncedLyricsView;
+                if (!nativeLyricsLoaded) {
+                    nativeLyricsLoaded = true;
+                    fetchAndDisplayNativeLyrics();
+                }
                 break;
             case 1:
-                oldView = webViewContainer;
+                if (lyricsWebViewFragment == null) setupYouLyFragment();
                 break;
             case 2:
-                oldView = karaokeContainer;
+                if (karaokeLyricsFragment == null) {
+                    setupKaraokeFragment();
+                } else if (karaokeLyricsFragment.isDetached()) {
+                    getSupportFragmentManager()
+                            .beginTransaction()
+                            .attach(karaokeLyricsFragment)
+                            .commitNow();
+                }
                 break;
-            default:
-                oldView = syncedLyricsView;
+        }
+    }
+
+    /**
+     * Lets the engine being switched away from go idle. The karaoke fragment is
+     * detached, which drops its Compose tree but keeps the parsed lyrics for the
+     * next time it is shown; the web engine is paused and its shared WebView kept.
+     */
+    private void parkEngine(int mode) {
+        switch (mode) {
+            case 1:
+                if (lyricsWebViewFragment != null) lyricsWebViewFragment.setPlaying(false);
+                break;
+            case 2:
+                if (karaokeLyricsFragment != null && !karaokeLyricsFragment.isDetached()) {
+                    karaokeLyricsFragment.setPlaying(false);
+                    // Detach once the reveal animation has hidden the container
+                    karaokeContainer.postDelayed(
+                            () -> {
+                                if (currentPlayerMode != 2 && !isFinishing()) {
+                                    getSupportFragmentManager()
+                                            .beginTransaction()
+                                            .detach(karaokeLyricsFragment)
+                                            .commitAllowingStateLoss();
+                                }
+                            },
+                            1000);
+                }
                 break;
         }
+    }
+
+    private void togglePlayerView() {
+        View oldView = viewForMode(currentPlayerMode);
+        parkEngine(currentPlayerMode);
 
         long currentPosition = 0;
         if (mediaController != null) {
@@ -450,58 +565,38 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         }
 
         currentPlayerMode = (currentPlayerMode + 1) % 3;
+        savePlayerMode(currentPlayerMode);
+        applyModeControls(currentPlayerMode);
+        ensureEngine(currentPlayerMode);
 
         if (currentPlayerMode == 1) {
-            immersiveButton.show();
-            prevButton.setVisibility(View.VISIBLE);
-            nextButton.setVisibility(View.VISIBLE);
-            playerChangerButton.setIconResource(R.drawable.ic_layers);
-            fontSwitchButton.setVisibility(View.INVISIBLE);
             Toast.makeText(this, "YouLy+ Engine", Toast.LENGTH_SHORT).show();
         } else {
-            immersiveButton.hide();
-            prevButton.setVisibility(View.GONE);
-            nextButton.setVisibility(View.GONE);
-            fontSwitchButton.setVisibility(View.VISIBLE);
-
             if (isImmersiveMode) enableImmersiveMode(false);
 
             if (currentPlayerMode == 0) {
-                playerChangerButton.setIconResource(R.drawable.ic_swap_horiz);
                 Toast.makeText(this, "Native Engine", Toast.LENGTH_SHORT).show();
             } else {
-                playerChangerButton.setIconResource(R.drawable.ic_music_note);
                 Toast.makeText(this, "Accompanist Engine", Toast.LENGTH_SHORT).show();
             }
         }
 
-        View newView;
         switch (currentPlayerMode) {
             case 0:
-                newView = syncedLyricsView;
                 syncedLyricsView.updateTime(currentPosition);
                 break;
             case 1:
-                newView = webViewContainer;
-                if (lyricsWebViewFragment != null) {
-                    lyricsWebViewFragment.displayLyrics();
-                    lyricsWebViewFragment.updateTime(currentPosition);
-                    lyricsWebViewFragment.setPlaying(isPlaying);
-                }
+                lyricsWebViewFragment.displayLyrics();
+                lyricsWebViewFragment.updateTime(currentPosition);
+                lyricsWebViewFragment.setPlaying(isPlaying);
                 break;
             case 2:
-                newView = karaokeContainer;
-                if (karaokeLyricsFragment != null) {
-                    karaokeLyricsFragment.setPlaying(isPlaying);
-                    karaokeLyricsFragment.updateTime(currentPosition);
-                }
-                break;
-            default:
-                newView = syncedLyricsView;
+                karaokeLyricsFragment.setPlaying(isPlaying);
+                karaokeLyricsFragment.updateTime(currentPosition);
                 break;
         }
 
-        animateReveal(newView, oldView);
+        animateReveal(viewForMode(currentPlayerMode), oldView);
     }
 
     private void animateReveal(View viewToShow, View viewToHide) {
@@ -557,28 +652,13 @@ public class SyncedLyricsActivity extends AppCompatActivity {
     // --- UPDATED: Fallback Logic for Artwork Loading ---
     private void loadArtwork(String url) {
         if (url != null && !url.isEmpty()) {
-            String formattedUrl =
-                    url.replace("{w}", "500").replace("{h}", "500").replace("{f}", "jpg");
+            String formattedUrl = ArtworkUrlResolver.resolveFor(headerArtwork, url);
 
             // Standard load into Header
             Glide.with(this).asBitmap().load(formattedUrl).into(headerArtwork);
 
-            // BLUR LOGIC:
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                // API 31+: Just load, RenderEffect handles the blur
-                Glide.with(this).load(formattedUrl).into(immersiveBackground);
-                Glide.with(this).load(formattedUrl).into(immersiveBackgroundOverlay);
-            } else {
-                // API 29-30: Use Glide Transformation (Fallback)
-                Glide.with(this)
-                        .load(formattedUrl)
-                        .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 12)))
-                        .into(immersiveBackground);
-                Glide.with(this)
-                        .load(formattedUrl)
-                        .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 17)))
-                        .into(immersiveBackgroundOverlay);
-            }
+            // Backgrounds come from the shared derivatives cache (blurred once, off-thread)
+            ArtworkCache.getInstance().load(this, formattedUrl, backdropCallback(++artworkRequestId));
 
         } else {
             setPlaceholderArtwork();
@@ -590,28 +670,47 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         if (bitmap != null) {
             Glide.with(this).asBitmap().load(bitmap).into(headerArtwork);
 
-            // BLUR LOGIC:
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                // API 31+: Just load
-                Glide.with(this).load(bitmap).into(immersiveBackground);
-                Glide.with(this).load(bitmap).into(immersiveBackgroundOverlay);
-            } else {
-                // API 29-30: Use Glide Transformation (Fallback)
-                Glide.with(this)
-                        .load(bitmap)
-                        .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 12)))
-                        .into(immersiveBackground);
-                Glide.with(this)
-                        .load(bitmap)
-                        .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 17)))
-                        .into(immersiveBackgroundOverlay);
-            }
+            ArtworkCache.getInstance().load(bitmap, backdropCallback(++artworkRequestId));
         } else {
             setPlaceholderArtwork();
         }
     }
 
+    private ArtworkCache.Callback backdropCallback(int requestId) {
+        return new ArtworkCache.Callback() {
+            @Override
+            public void onPlaceholder(Bitmap placeholder) {
+                // Scaled up and blurred by RenderEffect, it stands in for the backdrop
+                if (requestId != artworkRequestId || isDestroyed()) return;
+                immersiveBackground.setImageBitmap(placeholder);
+                immersiveBackgroundOverlay.setImageBitmap(placeholder);
+            }
+
+            @Override
+            public void onReady(ArtworkCache.Derivatives derivatives) {
+                applyBackdrop(requestId, derivatives);
+            }
+        };
+    }
+
+    private void applyBackdrop(int requestId, ArtworkCache.Derivatives derivatives) {
+        // A newer artwork change superseded this one, or we're gone
+        if (requestId != artworkRequestId || isDestroyed()) return;
+        if (derivatives == null) {
+            immersiveBackground.setImageResource(R.drawable.ic_music_note);
+            immersiveBackgroundOverlay.setImageResource(R.drawable.ic_music_note);
+            syncedLyricsView.clearPalette();
+            return;
+        }
+        // API 31+ still runs RenderEffect on top, but now over a tiny bitmap
+        immersiveBackground.setImageBitmap(derivatives.backdrop);
+        immersiveBackgroundOverlay.setImageBitmap(derivatives.overlay);
+        syncedLyricsView.setPalette(derivatives.dominantColor, derivatives.vibrantColor);
+    }
+
     private void setPlaceholderArtwork() {
+        artworkRequestId++;
+        syncedLyricsView.clearPalette();
         headerArtwork.setImageResource(R.drawable.ic_music_note);
         immersiveBackground.setImageResource(R.drawable.ic_music_note);
         immersiveBackgroundOverlay.setImageResource(R.drawable.ic_music_note);
@@ -622,7 +721,14 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         lyricsWebViewFragment.setLyricsListener(this::seekToPosition);
         FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
         transaction.replace(R.id.webViewContainer, lyricsWebViewFragment);
-        transaction.commit();
+        transaction.commitNow();
+
+        // A song change arrived before the engine existed
+        if (pendingWebTitle != null) {
+            lyricsWebViewFragment.loadLyrics(
+                    pendingWebTitle, pendingWebArtist, pendingWebAlbum, pendingWebDurationSeconds);
+            pendingWebTitle = null;
+        }
     }
 
     private void setupKaraokeFragment() {
@@ -630,14 +736,14 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         karaokeLyricsFragment.setSeekListener(this::seekToPosition);
         FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
         transaction.replace(R.id.karaokeContainer, karaokeLyricsFragment);
-        transaction.commit();
+        transaction.commitNow();
+        if (lyrics != null && !lyrics.isEmpty()) karaokeLyricsFragment.setLyrics(lyrics);
     }
 
     private void fetchAndDisplayNativeLyrics() {
         if (lyrics != null && !lyrics.isEmpty()) {
             syncedLyricsView.setLyrics(lyrics);
             syncedLyricsView.setSeekListener(this::seekToPosition);
-            karaokeLyricsFragment.setLyrics(lyrics);
         }
     }
 
@@ -690,11 +796,15 @@ public class SyncedLyricsActivity extends AppCompatActivity {
         if (state == null) return;
         boolean isNowPlaying = (state.getState() == PlaybackState.STATE_PLAYING);
         isPlaying = isNowPlaying;
-        if (karaokeLyricsFragment != null) karaokeLyricsFragment.setPlaying(isPlaying);
-        if (lyricsWebViewFragment != null) lyricsWebViewFragment.setPlaying(isPlaying);
 
         runOnUiThread(
                 () -> {
+                    // Parked engines are told the state when they are shown again
+                    if (currentPlayerMode == 1 && lyricsWebViewFragment != null)
+                        lyricsWebViewFragment.setPlaying(isNowPlaying);
+                    if (currentPlayerMode == 2 && karaokeLyricsFragment != null)
+                        karaokeLyricsFragment.setPlaying(isNowPlaying);
+
                     if (isNowPlaying != lastPlayingState) {
                         int drawableId =
                                 isNowPlaying
@@ -793,6 +903,7 @@ public class SyncedLyricsActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (frameMetrics != null) frameMetrics.detach();
         if (updateHandler != null) updateHandler.removeCallbacks(updateRunnable);
         if (mediaController != null && mediaControllerCallback != null) {
             mediaController.unregisterCallback(mediaControllerCallback);
@@ -595,6 +595,7 @@ public class TagEditorActivity extends AppCompatActivity implements ApiClient.Ca
                 artworkHelper.getSelectedArtwork(),
                 artworkHelper.getSelectedArtworkBytes(),
                 artworkHelper.getSelectedArtworkMimeType(),
+                artworkHelper.getOriginalArtworkBytes(),
                 originalMetadata,
                 this::showLoading,
                 this::hideLoading,
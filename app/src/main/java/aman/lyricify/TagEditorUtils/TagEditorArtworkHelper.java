@@ -2,9 +2,9 @@ package aman.lyricify;
 
 import android.app.AlertDialog;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
 import android.graphics.Typeface;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.net.Uri;
@@ -28,14 +28,14 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.engine.DiskCacheStrategy; 
 import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
 import com.bumptech.glide.request.RequestListener;
-import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.target.Target;
-import com.bumptech.glide.request.transition.Transition;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
@@ -104,109 +104,90 @@ public class TagEditorArtworkHelper {
 
     public void loadArtworkFromUri(Uri uri) {
         Log.d(TAG, "Loading artwork from URI: " + uri);
-        try {
-            // 1. Load into ImageView (Optimized display, SKIP CACHE)
-            Glide.with(activity)
-                    .asDrawable()
-                    .load(uri)
-                    .diskCacheStrategy(DiskCacheStrategy.NONE) // Skip disk cache
-                    .skipMemoryCache(true) // Skip memory cache
-                    .into(artworkImageView);
-
-            // 2. Load Bitmap for caching (Let Glide decide size, but SKIP CACHE to ensure
-            // freshness)
-            Glide.with(activity)
-                    .asBitmap()
-                    .load(uri)
-                    .diskCacheStrategy(DiskCacheStrategy.NONE) // Skip disk cache
-                    .skipMemoryCache(true) // Skip memory cache
-                    .into(
-                            new CustomTarget<Bitmap>() {
-                                @Override
-                                public void onResourceReady(
-                                        Bitmap resource, Transition<? super Bitmap> t) {
-                                    selectedArtwork = resource;
-                                    // We wait for real dimensions calculation below
-                                }
-
-                                @Override
-                                public void onLoadCleared(Drawable p) {}
-                            });
-
-            // 3. Calculate REAL dimensions separately (Lightweight, No Memory Load)
-            new Thread(
-                            () -> {
-                                try {
-                                    InputStream is =
-                                            activity.getContentResolver().openInputStream(uri);
-                                    BitmapFactory.Options options = new BitmapFactory.Options();
-                                    options.inJustDecodeBounds = true; // THE OPTIMIZATION
-                                    BitmapFactory.decodeStream(is, null, options);
-                                    if (is != null) is.close();
-
-                                    realWidth = options.outWidth;
-                                    realHeight = options.outHeight;
-
-                                    // 4. Load Bytes
-                                    InputStream isBytes =
-                                            activity.getContentResolver().openInputStream(uri);
-                                    if (isBytes == null)
-                                        throw new java.io.IOException(
-                                                "InputStream is null for bytes: " + uri);
-
-                                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                                    byte[] buffer = new byte[8192];
-                                    int read;
-                                    while ((read = isBytes.read(buffer)) != -1)
-                                        baos.write(buffer, 0, read);
-                                    isBytes.close();
-
-                                    selectedArtworkBytes = baos.toByteArray();
-                                    selectedArtworkMimeType =
-                                            detectMimeType(selectedArtworkBytes, uri.toString());
-
-                                    Log.d(
-                                            TAG,
-                                            "Successfully loaded artwork bytes. Size: "
-                                                    + selectedArtworkBytes.length
-                                                    + ", MIME: "
-                                                    + selectedArtworkMimeType);
-
-                                    // Update UI
-                                    activity.runOnUiThread(
-                                            () -> {
-                                                artworkChanged = true;
-                                                resetArtworkButton.setEnabled(true);
-                                                updateArtworkDimensionsBadge();
-                                                updateRestoreStateCallback.run();
-                                            });
-
-                                } catch (Exception e) {
-                                    Log.e(
-                                            TAG,
-                                            "Failed to load image metadata/bytes from URI: " + uri,
-                                            e);
-                                    e.printStackTrace();
-                                }
-                            })
-                    .start();
-
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to load image from URI: " + uri, e);
-            Toast.makeText(activity, "Failed to load image: " + e.getMessage(), Toast.LENGTH_SHORT)
-                    .show();
-            e.printStackTrace();
-        }
+        // Read the file once; the bytes are both what we show and what gets saved
+        new Thread(
+                        () -> {
+                            try (InputStream is =
+                                    activity.getContentResolver().openInputStream(uri)) {
+                                if (is == null)
+                                    throw new IOException("InputStream is null for bytes: " + uri);
+
+                                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                                byte[] buffer = new byte[8192];
+                                int read;
+                                while ((read = is.read(buffer)) != -1) baos.write(buffer, 0, read);
+
+                                EncodedArtwork artwork =
+                                        EncodedArtwork.of(baos.toByteArray(), uri.toString());
+                                Log.d(
+                                        TAG,
+                                        "Successfully loaded artwork bytes. Size: "
+                                                + artwork.bytes.length
+                                                + ", MIME: "
+                                                + artwork.mimeType);
+
+                                activity.runOnUiThread(() -> showEncodedArtwork(artwork, null));
+                            } catch (Exception e) {
+                                Log.e(TAG, "Failed to load image bytes from URI: " + uri, e);
+                                activity.runOnUiThread(
+                                        () ->
+                                                Toast.makeText(
+                                                                activity,
+                                                                "Failed to load image: "
+                                                                        + e.getMessage(),
+                                                                Toast.LENGTH_SHORT)
+                                                        .show());
+                            }
+                        })
+                .start();
     }
 
     public void loadArtworkWithGlide(String url) {
         Log.d(TAG, "Loading artwork from URL: " + url);
-        // Display Image (Optimized, SKIP CACHE)
+        // One download: the encoded bytes are kept for saving and decoded for display
+        NetworkClient.fetchBytes(
+                activity,
+                url,
+                new NetworkClient.BytesCallback() {
+                    @Override
+                    public void onSuccess(byte[] bytes, String contentType) {
+                        EncodedArtwork artwork = EncodedArtwork.of(bytes, url);
+                        if (artwork == null) {
+                            onFailure(new IOException("Empty artwork response"));
+                            return;
+                        }
+                        activity.runOnUiThread(
+                                () ->
+                                        showEncodedArtwork(
+                                                artwork,
+                                                () ->
+                                                        Toast.makeText(
+                                                                        activity,
+                                                                        "Metadata fetched!",
+                                                                        Toast.LENGTH_SHORT)
+                                                                .show()));
+                    }
+
+                    @Override
+                    public void onFailure(IOException e) {
+                        Log.e(TAG, "Failed to download artwork bytes from URL: " + url, e);
+                        activity.runOnUiThread(activity::hideLoading);
+                    }
+                });
+    }
+
+    /**
+     * Displays {@code artwork} and, once it has decoded, makes it the selected
+     * artwork. The encoded bytes are kept as they are; the displayed drawable
+     * also supplies the bitmap used for previews. Bytes that fail to decode
+     * leave the previous selection in place. Must run on the UI thread.
+     */
+    private void showEncodedArtwork(EncodedArtwork artwork, Runnable onShown) {
         Glide.with(activity)
                 .asDrawable()
-                .load(url)
-                .diskCacheStrategy(DiskCacheStrategy.NONE) // Skip disk cache
-                .skipMemoryCache(true) // Skip memory cache
+                .load(artwork.bytes)
+                .diskCacheStrategy(DiskCacheStrategy.NONE) // Bytes are already in memory
+                .skipMemoryCache(true)
                 .listener(
                         new RequestListener<Drawable>() {
                             @Override
@@ -215,7 +196,7 @@ public class TagEditorArtworkHelper {
                                     Object model,
                                     Target<Drawable> target,
                                     boolean isFirstResource) {
-                                Log.e(TAG, "Glide Load Failed for URL: " + url, e);
+                                Log.e(TAG, "Glide failed to decode artwork bytes", e);
                                 activity.hideLoading();
                                 return false;
                             }
@@ -227,84 +208,27 @@ public class TagEditorArtworkHelper {
                                     Target<Drawable> target,
                                     DataSource dataSource,
                                     boolean isFirstResource) {
-                                artworkImageView.setImageDrawable(resource);
-                                loadArtworkBytes(url);
+                                selectedArtworkBytes = artwork.bytes;
+                                selectedArtworkMimeType = artwork.mimeType;
+                                realWidth = artwork.width;
+                                realHeight = artwork.height;
+                                if (resource instanceof BitmapDrawable) {
+                                    selectedArtwork = ((BitmapDrawable) resource).getBitmap();
+                                } else if (resource instanceof GifDrawable) {
+                                    selectedArtwork = ((GifDrawable) resource).getFirstFrame();
+                                }
                                 artworkChanged = true;
                                 resetArtworkButton.setEnabled(true);
+                                updateArtworkDimensionsBadge();
                                 updateRestoreStateCallback.run();
                                 activity.hideLoading();
-                                Toast.makeText(activity, "Metadata fetched!", Toast.LENGTH_SHORT)
-                                        .show();
+                                if (onShown != null) onShown.run();
                                 return false;
                             }
                         })
                 .into(artworkImageView);
     }
 
-    private void loadArtworkBytes(String url) {
-        // Fetch Bytes & Real Dimensions
-        Glide.with(activity)
-                .asBitmap()
-                .load(url)
-                .diskCacheStrategy(DiskCacheStrategy.NONE) // Skip disk cache
-                .skipMemoryCache(true) // Skip memory cache
-                .into(
-                        new CustomTarget<Bitmap>() {
-                            @Override
-                            public void onResourceReady(
-                                    Bitmap resource, Transition<? super Bitmap> t) {
-                                selectedArtwork = resource;
-                                new Thread(
-                                                () -> {
-                                                    try {
-                                                        java.net.URLConnection conn =
-                                                                new java.net.URL(url)
-                                                                        .openConnection();
-                                                        InputStream is = conn.getInputStream();
-                                                        ByteArrayOutputStream baos =
-                                                                new ByteArrayOutputStream();
-                                                        byte[] buffer = new byte[8192];
-                                                        int read;
-                                                        while ((read = is.read(buffer)) != -1)
-                                                            baos.write(buffer, 0, read);
-                                                        is.close();
-
-                                                        selectedArtworkBytes = baos.toByteArray();
-                                                        selectedArtworkMimeType =
-                                                                detectMimeType(
-                                                                        selectedArtworkBytes, url);
-
-                                                        // Parse dimensions from bytes
-                                                        BitmapFactory.Options options =
-                                                                new BitmapFactory.Options();
-                                                        options.inJustDecodeBounds = true;
-                                                        BitmapFactory.decodeByteArray(
-                                                                selectedArtworkBytes,
-                                                                0,
-                                                                selectedArtworkBytes.length,
-                                                                options);
-                                                        realWidth = options.outWidth;
-                                                        realHeight = options.outHeight;
-
-                                                        activity.runOnUiThread(
-                                                                () ->
-                                                                        updateArtworkDimensionsBadge());
-                                                    } catch (Exception e) {
-                                                        Log.e(
-                                                                TAG,
-                                                                "Failed to download artwork bytes from URL: "
-                                                                        + url,
-                                                                e);
-                                                    }
-                                                })
-                                        .start();
-                            }
-
-                            @Override
-                            public void onLoadCleared(Drawable p) {}
-                        });
-    }
-
     public void resetArtwork() {
         if (originalArtwork != null) {
             artworkImageView.setImageBitmap(originalArtwork);
@@ -350,43 +274,7 @@ public class TagEditorArtworkHelper {
     
 
     public String detectMimeType(byte[] imageData, String imageUrl) {
-        if (imageData != null && imageData.length >= 12) {
-            if (imageData[0] == (byte) 0xFF
-                    && imageData[1] == (byte) 0xD8
-                    && imageData[2] == (byte) 0xFF) return "image/jpeg";
-            if (imageData[0] == (byte) 0x89
-                    && imageData[1] == 0x50
-                    && imageData[2] == 0x4E
-                    && imageData[3] == 0x47) return "image/png";
-            if (imageData[0] == 0x47 && imageData[1] == 0x49 && imageData[2] == 0x46)
-                return "image/gif";
-            if (imageData[0] == 0x52
-                    && imageData[1] == 0x49
-                    && imageData[2] == 0x46
-                    && imageData[3] == 0x46
-                    && imageData[8] == 0x57
-                    && imageData[9] == 0x45
-                    && imageData[10] == 0x42
-                    && imageData[11] == 0x50) return "image/webp";
-            if (imageData[4] == 0x66
-                    && imageData[5] == 0x74
-                    && imageData[6] == 0x79
-                    && imageData[7] == 0x70
-                    && imageData[8] == 0x61
-                    && imageData[9] == 0x76
-                    && imageData[10] == 0x69
-                    && imageData[11] == 0x66) {
-                return "image/avif";
-            }
-        }
-        if (imageUrl != null) {
-            String lower = imageUrl.toLowerCase();
-            if (lower.endsWith(".png") || lower.contains(".png?")) return "image/png";
-            if (lower.endsWith(".gif") || lower.contains(".gif?")) return "image/gif";
-            if (lower.endsWith(".webp") || lower.contains(".webp?")) return "image/webp";
-            if (lower.endsWith(".avif") || lower.contains(".avif?")) return "image/avif";
-        }
-        return "image/jpeg";
+        return EncodedArtwork.detectMimeType(imageData, imageUrl);
     }
 
     public void showArtworkOptionsDialog(String intentArtworkUrl) {
@@ -405,7 +293,6 @@ public class TagEditorArtworkHelper {
                                 ? selectedArtwork.getHeight()
                                 : originalArtwork.getHeight());
 
-        final Bitmap currentBmp = artworkChanged ? selectedArtwork : originalArtwork;
         final float aspectRatio = (float) currentW / currentH;
 
         LinearLayout mainLayout = new LinearLayout(activity);
@@ -600,13 +487,13 @@ public class TagEditorArtworkHelper {
                     if (wStr.isEmpty() || hStr.isEmpty() || wStr.equals("0") || hStr.equals("0"))
                         return;
                     if (!canResize) {
-                        saveBitmapToStorage(currentBmp);
+                        saveCurrentArtworkToGallery();
                         dialog.dismiss();
                     } else {
                         int inputW = Integer.parseInt(wStr);
                         int inputH = Integer.parseInt(hStr);
                         if (inputW == currentW && inputH == currentH) {
-                            saveBitmapToStorage(currentBmp);
+                            saveCurrentArtworkToGallery();
                             dialog.dismiss();
                         } else {
                             fetchAndSaveArtwork(inputW, inputH, intentArtworkUrl, dialog);
@@ -636,38 +523,39 @@ public class TagEditorArtworkHelper {
                         .replace("{h}", String.valueOf(h))
                         .replace("{f}", "jpg");
 
-        Glide.with(activity)
-                .asBitmap()
-                .load(newUrl)
-                .diskCacheStrategy(DiskCacheStrategy.NONE) // Skip cache
-                .skipMemoryCache(true) // Skip memory cache
-                .into(
-                        new CustomTarget<Bitmap>() {
-                            @Override
-                            public void onResourceReady(
-                                    Bitmap resource, Transition<? super Bitmap> t) {
-                                saveBitmapToStorage(resource);
-                                selectedArtwork = resource;
-                                artworkImageView.setImageBitmap(resource);
-                                artworkChanged = true;
-                                resetArtworkButton.setEnabled(true);
-                                updateArtworkDimensionsBadge();
-                                updateRestoreStateCallback.run();
-                                activity.hideLoading();
-                                dialog.dismiss();
-                            }
-
-                            @Override
-                            public void onLoadCleared(Drawable p) {}
+        NetworkClient.fetchBytes(
+                activity,
+                newUrl,
+                new NetworkClient.BytesCallback() {
+                    @Override
+                    public void onSuccess(byte[] bytes, String contentType) {
+                        EncodedArtwork artwork = EncodedArtwork.of(bytes, newUrl);
+                        if (artwork == null) {
+                            onFailure(new IOException("Empty artwork response"));
+                            return;
+                        }
+                        activity.runOnUiThread(
+                                () -> {
+                                    // Saved exactly as served, no decode/re-encode
+                                    saveBytesToStorage(artwork.bytes, artwork.mimeType);
+                                    showEncodedArtwork(artwork, dialog::dismiss);
+                                });
+                    }
 
-                            @Override
-                            public void onLoadFailed(Drawable errorDrawable) {
-                                activity.hideLoading();
-                                Toast.makeText(activity, "Failed to download", Toast.LENGTH_SHORT)
-                                        .show();
-                                dialog.setCancelable(true);
-                            }
-                        });
+                    @Override
+                    public void onFailure(IOException e) {
+                        activity.runOnUiThread(
+                                () -> {
+                                    activity.hideLoading();
+                                    Toast.makeText(
+                                                    activity,
+                                                    "Failed to download",
+                                                    Toast.LENGTH_SHORT)
+                                            .show();
+                                    dialog.setCancelable(true);
+                                });
+                    }
+                });
     }
 
     public void saveBitmapToStorage(Bitmap bitmapToSave) {
@@ -788,6 +676,10 @@ public class TagEditorArtworkHelper {
     public Bitmap getOriginalArtwork() {
         return originalArtwork;
     }
+
+    public byte[] getOriginalArtworkBytes() {
+        return originalArtworkBytes;
+    }
 }
 
 
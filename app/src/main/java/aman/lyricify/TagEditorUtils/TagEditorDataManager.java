@@ -4,18 +4,19 @@ import android.app.AlertDialog;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.drawable.Drawable;
+import android.util.LruCache;
 
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.Toast;
 import com.google.android.material.textfield.TextInputEditText;
 import aman.taglib.TagLib;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -59,6 +60,35 @@ public class TagEditorDataManager {
                             "COMMENT", "RELEASEDATE", "LOCALE", "LANGUAGE", "UNSYNCEDLYRICS",
                             "LRC", "ELRC", "LYRICS"));
 
+    // Tags read ahead of time for files the user is likely to open next
+    private static final int PREFETCH_MAX_BYTES = 8 * 1024 * 1024;
+    private static final LruCache<String, PrefetchedTags> PREFETCHED =
+            new LruCache<String, PrefetchedTags>(PREFETCH_MAX_BYTES) {
+                @Override
+                protected int sizeOf(String key, PrefetchedTags value) {
+                    return 1024 + (value.artworkBytes != null ? value.artworkBytes.length : 0);
+                }
+            };
+    private static final Set<String> PREFETCHING = new HashSet<>();
+
+    private static class PrefetchedTags {
+        final HashMap<String, String> metadata;
+        final byte[] artworkBytes;
+        final String artworkMime;
+        // The file must not have changed since it was read
+        final long lastModified;
+        final long length;
+
+        PrefetchedTags(HashMap<String, String> metadata, byte[] artworkBytes, String artworkMime,
+                       long lastModified, long length) {
+            this.metadata = metadata;
+            this.artworkBytes = artworkBytes;
+            this.artworkMime = artworkMime;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
     public TagEditorDataManager(TagEditorActivity activity, TagLib tagLib) {
         this.activity = activity;
         this.tagLib = tagLib;
@@ -69,6 +99,58 @@ public class TagEditorDataManager {
     void onLoaded(HashMap<String, String> metadata, Bitmap artwork, byte[] rawData, String mimeType);
 }
 
+    /**
+     * Reads tags and the first artwork of {@code filePath} in the background
+     * so the editor can open without waiting on TagLib.
+     */
+    public static void prefetch(String filePath) {
+        if (filePath == null || filePath.isEmpty()) return;
+        synchronized (PREFETCHED) {
+            if (PREFETCHED.get(filePath) != null || !PREFETCHING.add(filePath)) return;
+        }
+
+        new Thread(() -> {
+            try {
+                File file = new File(filePath);
+                long lastModified = file.lastModified();
+                long length = file.length();
+
+                TagLib reader = new TagLib();
+                HashMap<String, String> metadata = reader.getMetadata(filePath);
+                TagLib.Artwork[] artworks = reader.getArtwork(filePath);
+                byte[] bytes = null;
+                String mime = null;
+                if (artworks != null && artworks.length > 0) {
+                    bytes = artworks[0].data;
+                    mime = artworks[0].mimeType;
+                }
+
+                synchronized (PREFETCHED) {
+                    PREFETCHED.put(filePath,
+                            new PrefetchedTags(metadata, bytes, mime, lastModified, length));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Prefetch failed for " + filePath + ": " + e.getMessage());
+            } finally {
+                synchronized (PREFETCHED) {
+                    PREFETCHING.remove(filePath);
+                }
+            }
+        }).start();
+    }
+
+    /** Removes and returns prefetched tags if the file is unchanged since. */
+    private static PrefetchedTags takePrefetched(String filePath) {
+        PrefetchedTags tags;
+        synchronized (PREFETCHED) {
+            tags = PREFETCHED.remove(filePath);
+        }
+        if (tags == null) return null;
+        File file = new File(filePath);
+        if (file.lastModified() != tags.lastModified || file.length() != tags.length) return null;
+        return tags;
+    }
+
     public void loadCurrentTags(
             String filePath,
             String intentArtworkUrl,
@@ -85,7 +167,9 @@ public class TagEditorDataManager {
 
         new Thread(() -> {
             try {
-                HashMap<String, String> originalMetadata = tagLib.getMetadata(filePath);
+                PrefetchedTags prefetched = takePrefetched(filePath);
+                HashMap<String, String> originalMetadata =
+                        prefetched != null ? prefetched.metadata : tagLib.getMetadata(filePath);
 
                 HashMap<String, String> uiMetadata = new HashMap<>();
                 if (originalMetadata != null) {
@@ -102,12 +186,18 @@ public class TagEditorDataManager {
             byte[] rawArtworkBytes = null;     // NEW
             String rawArtworkMime = null;      // NEW
 
-            TagLib.Artwork[] artworks = tagLib.getArtwork(filePath);
-            
-            if (artworks != null && artworks.length > 0) {
-                rawArtworkBytes = artworks[0].data;       // Capture raw bytes!
-                rawArtworkMime = artworks[0].mimeType;    // Capture mime type!
-                
+            if (prefetched != null) {
+                rawArtworkBytes = prefetched.artworkBytes;
+                rawArtworkMime = prefetched.artworkMime;
+            } else {
+                TagLib.Artwork[] artworks = tagLib.getArtwork(filePath);
+                if (artworks != null && artworks.length > 0) {
+                    rawArtworkBytes = artworks[0].data;       // Capture raw bytes!
+                    rawArtworkMime = artworks[0].mimeType;    // Capture mime type!
+                }
+            }
+
+            if (rawArtworkBytes != null && rawArtworkBytes.length > 0) {
                 final byte[] bytesFinal = rawArtworkBytes;
                 final String mimeFinal = rawArtworkMime;
 
@@ -280,6 +370,7 @@ public class TagEditorDataManager {
             Bitmap selectedArtwork,
             byte[] selectedArtworkBytes,
             String selectedArtworkMimeType,
+            byte[] originalArtworkBytes,
             HashMap<String, String> originalMetadata,
             java.util.function.Consumer<String> showLoading,
             Runnable hideLoading,
@@ -361,6 +452,21 @@ public class TagEditorDataManager {
                 newMetadataMap.put("LYRICS", bestLyrics);
                 newMetadataMap.putAll(customTagsMap);
 
+                // Only touch what actually changed
+                HashMap<String, String> changes = diffMetadata(originalMetadata, newMetadataMap);
+                boolean writeArtwork = artworkChanged
+                        && !(selectedArtworkBytes != null
+                                && Arrays.equals(selectedArtworkBytes, originalArtworkBytes));
+
+                if (changes.isEmpty() && !writeArtwork) {
+                    activity.runOnUiThread(() -> {
+                        hideLoading.run();
+                        Toast.makeText(activity, "No changes to save", Toast.LENGTH_SHORT).show();
+                        activity.finish();
+                    });
+                    return;
+                }
+
                 File originalFile = new File(filePath);
                 if (!originalFile.exists()) throw new Exception("File not found");
                 if (!originalFile.canRead()) throw new Exception("Cannot read file");
@@ -372,33 +478,27 @@ public class TagEditorDataManager {
                 activity.runOnUiThread(() -> activity.getLoadingText().setText("Copying file..."));
                 copyFile(originalFile, tempFile);
 
-                if (originalMetadata != null) {
-                    activity.runOnUiThread(() -> 
-                            activity.getLoadingText().setText("Cleaning old tags..."));
-                    HashMap<String, String> deleteMap = new HashMap<>();
-                    for (String key : originalMetadata.keySet()) deleteMap.put(key, "");
-                    for (String key : newMetadataMap.keySet()) deleteMap.put(key, "");
-                    tagLib.setMetadata(tempFile.getAbsolutePath(), deleteMap);
+                if (!changes.isEmpty()) {
+                    activity.runOnUiThread(() ->
+                            activity.getLoadingText().setText("Writing new tags..."));
+                    Log.d(TAG, "Writing " + changes.size() + " changed tag(s): " + changes.keySet());
+                    boolean success = tagLib.setMetadata(tempFile.getAbsolutePath(), changes);
+                    if (!success) throw new Exception("TagLib write failed");
                 }
 
-                activity.runOnUiThread(() -> 
-                        activity.getLoadingText().setText("Writing new tags..."));
-                boolean success = tagLib.setMetadata(tempFile.getAbsolutePath(), newMetadataMap);
-                if (!success) throw new Exception("TagLib write failed");
-
                 // NEW: Use raw bytes with MIME type if available
-                if (artworkChanged) {
+                if (writeArtwork) {
                     activity.runOnUiThread(() -> 
                             activity.getLoadingText().setText("Saving artwork..."));
                     
-                    if (selectedArtworkBytes != null && selectedArtworkMimeType != null) {
+                    // Original bytes pass through; only covers over budget get transcoded
+                    EncodedArtwork artwork = selectedArtworkBytes != null
+                            ? EncodedArtwork.of(selectedArtworkBytes, selectedArtworkMimeType)
+                            : EncodedArtwork.fromBitmap(selectedArtwork);
+                    if (artwork != null) {
+                        artwork = artwork.fitBudget(EncodedArtwork.EMBED_BUDGET_BYTES);
                         tagLib.setArtwork(tempFile.getAbsolutePath(),
-                                selectedArtworkBytes, selectedArtworkMimeType, "Cover (front)");
-                    } else if (selectedArtwork != null) {
-                        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                        selectedArtwork.compress(Bitmap.CompressFormat.JPEG, 90, stream);
-                        tagLib.setArtwork(tempFile.getAbsolutePath(),
-                                stream.toByteArray(), "image/jpeg", "Cover (front)");
+                                artwork.bytes, artwork.mimeType, "Cover (front)");
                     }
                 }
 
@@ -449,6 +549,38 @@ public class TagEditorDataManager {
         }).start();
     }
 
+    /**
+     * Keys whose value differs from the file, plus removed keys mapped to ""
+     * (an empty value deletes the tag). Both maps are upper-cased first, as
+     * TagLib property keys are case-insensitive, and only those keys are
+     * emitted; values are compared the way {@link #hasUnsavedChanges} does.
+     */
+    private HashMap<String, String> diffMetadata(
+            HashMap<String, String> originalMetadata, HashMap<String, String> newMetadata) {
+        HashMap<String, String> original = upperCaseKeys(originalMetadata);
+        HashMap<String, String> updated = upperCaseKeys(newMetadata);
+
+        HashMap<String, String> changes = new HashMap<>();
+        for (Map.Entry<String, String> e : updated.entrySet()) {
+            if (!equals(e.getValue(), original.get(e.getKey()))) {
+                changes.put(e.getKey(), e.getValue());
+            }
+        }
+        for (String key : original.keySet()) {
+            if (!updated.containsKey(key)) changes.put(key, "");
+        }
+        return changes;
+    }
+
+    private static HashMap<String, String> upperCaseKeys(HashMap<String, String> metadata) {
+        HashMap<String, String> normalized = new HashMap<>();
+        if (metadata == null) return normalized;
+        for (Map.Entry<String, String> e : metadata.entrySet()) {
+            normalized.put(e.getKey().toUpperCase(Locale.ROOT), e.getValue());
+        }
+        return normalized;
+    }
+
     private void copyFile(File source, File dest) throws Exception {
         java.io.FileInputStream fis = new java.io.FileInputStream(source);
         java.io.FileOutputStream fos = new java.io.FileOutputStream(dest);
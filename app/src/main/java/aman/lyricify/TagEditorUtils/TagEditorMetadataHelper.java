@@ -80,7 +80,7 @@ public class TagEditorMetadataHelper {
         this.intentArtworkUrl = song.getArtwork();
         this.intentSongId = song.getId();
 
-        ApiClient.getLyrics(song.getId(), new ApiClient.LyricsCallback() {
+        NetworkClient.getLyrics(song.getId(), new ApiClient.LyricsCallback() {
             @Override
             public void onSuccess(ApiClient.LyricsResponse lyricsResponse) {
                 cachedMetadata = lyricsResponse;
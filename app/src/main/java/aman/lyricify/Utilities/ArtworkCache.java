@@ -0,0 +1,263 @@
+package aman.lyricify;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+import java.util.HashMap;
+
+/**
+ * Caches everything the immersive backgrounds derive from a piece of artwork:
+ * the two blurred backdrops, a couple of palette colours for tinting and a
+ * tiny placeholder. Entries are keyed by a hash of the artwork's pixels, so the
+ * same decoded cover arriving again, as a URL or a notification bitmap, is only
+ * processed once. All work happens off the main thread on a small downscale;
+ * callbacks are delivered on the main thread.
+ */
+public class ArtworkCache {
+
+    private static final String TAG = "ArtworkCache";
+
+    // Same look as the old BlurTransformation(25, 12) / (25, 17) on a 500px cover
+    private static final int BASE_SIZE = 500;
+    private static final int BACKDROP_SIZE = BASE_SIZE / 12;
+    private static final int OVERLAY_SIZE = BASE_SIZE / 17;
+    private static final int BLUR_RADIUS = 25;
+
+    private static final int HASH_SIZE = 32;
+    private static final int PLACEHOLDER_SIZE = 8;
+    private static final int FETCH_SIZE = 128;
+
+    private static final int MAX_ENTRIES = 24;
+
+    public static class Derivatives {
+        public final Bitmap backdrop;
+        public final Bitmap overlay;
+        public final Bitmap placeholder;
+        public final int dominantColor;
+        public final int vibrantColor;
+
+        Derivatives(Bitmap backdrop, Bitmap overlay, Bitmap placeholder, int dominantColor, int vibrantColor) {
+            this.backdrop = backdrop;
+            this.overlay = overlay;
+            this.placeholder = placeholder;
+            this.dominantColor = dominantColor;
+            this.vibrantColor = vibrantColor;
+        }
+    }
+
+    public interface Callback {
+        /** Posted before the blurs when they still have to be computed. */
+        default void onPlaceholder(Bitmap placeholder) {}
+
+        void onReady(Derivatives derivatives);
+    }
+
+    private static ArtworkCache instance;
+
+    private final LruCache<Long, Derivatives> cache = new LruCache<>(MAX_ENTRIES);
+    // URL -> content hash, so re-entering a screen skips the network fetch entirely
+    private final HashMap<String, Long> urlIndex = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static synchronized ArtworkCache getInstance() {
+        if (instance == null) {
+            instance = new ArtworkCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Derive from an already decoded bitmap (e.g. notification artwork).
+     */
+    public void load(@Nullable Bitmap source, @NonNull Callback callback) {
+        if (source == null || source.isRecycled()) {
+            callback.onReady(null);
+            return;
+        }
+        new Thread(() -> {
+            Derivatives result = derive(source, null, callback);
+            mainHandler.post(() -> callback.onReady(result));
+        }).start();
+    }
+
+    /**
+     * Derive from a remote artwork URL. Glide fetches a small version only,
+     * we never need the full resolution for backgrounds.
+     */
+    public void load(@NonNull Context context, @Nullable String url, @NonNull Callback callback) {
+        if (url == null || url.isEmpty()) {
+            callback.onReady(null);
+            return;
+        }
+
+        Derivatives known = peek(url);
+        if (known != null) {
+            callback.onReady(known);
+            return;
+        }
+
+        Glide.with(context.getApplicationContext())
+                .asBitmap()
+                .load(url)
+                .override(FETCH_SIZE, FETCH_SIZE)
+                .into(new CustomTarget<Bitmap>() {
+                    @Override
+                    public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
+                        new Thread(() -> {
+                            Derivatives result = derive(resource, url, callback);
+                            mainHandler.post(() -> callback.onReady(result));
+                        }).start();
+                    }
+
+                    @Override
+                    public void onLoadFailed(@Nullable Drawable errorDrawable) {
+                        callback.onReady(null);
+                    }
+
+                    @Override
+                    public void onLoadCleared(@Nullable Drawable placeholder) {}
+                });
+    }
+
+    /**
+     * Returns cached derivatives for a URL we've already processed, or null.
+     */
+    @Nullable
+    public Derivatives peek(String url) {
+        Long hash;
+        synchronized (urlIndex) {
+            hash = urlIndex.get(url);
+        }
+        return hash != null ? cache.get(hash) : null;
+    }
+
+    @Nullable
+    private Derivatives derive(Bitmap source, @Nullable String url, Callback callback) {
+        try {
+            long hash = hashOf(source);
+            if (url != null) {
+                synchronized (urlIndex) {
+                    urlIndex.put(url, hash);
+                }
+            }
+
+            Derivatives cached = cache.get(hash);
+            if (cached != null) return cached;
+
+            Bitmap backdropBase = scaleToFit(source, BACKDROP_SIZE);
+            // Placeholder and palette come from the backdrop's downscale, never the full source
+            Bitmap placeholder = scaleToFit(backdropBase, PLACEHOLDER_SIZE);
+            mainHandler.post(() -> callback.onPlaceholder(placeholder));
+            int[] colors = extractColors(backdropBase);
+
+            Bitmap overlayBase = scaleToFit(source, OVERLAY_SIZE);
+            Bitmap backdrop = BlurHelper.stackBlur(backdropBase, Math.min(BLUR_RADIUS, maxRadius(backdropBase)));
+            Bitmap overlay = BlurHelper.stackBlur(overlayBase, Math.min(BLUR_RADIUS, maxRadius(overlayBase)));
+
+            Derivatives result = new Derivatives(backdrop, overlay, placeholder, colors[0], colors[1]);
+            cache.put(hash, result);
+            return result;
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to derive artwork", e);
+            return null;
+        }
+    }
+
+    private static int maxRadius(Bitmap bitmap) {
+        return Math.max(1, Math.min(bitmap.getWidth(), bitmap.getHeight()) / 2);
+    }
+
+    private static Bitmap scaleToFit(Bitmap source, int maxSize) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        float scale = (float) maxSize / Math.max(w, h);
+        int tw = Math.max(1, Math.round(w * scale));
+        int th = Math.max(1, Math.round(h * scale));
+        return Bitmap.createScaledBitmap(source, tw, th, true);
+    }
+
+    /**
+     * FNV-1a over the dimensions and a 32x32 downscale at full 8-bit colour.
+     * Different covers must never share an entry, so no bits are dropped; the
+     * same cover at another resolution simply gets an entry of its own.
+     */
+    private static long hashOf(Bitmap source) {
+        Bitmap tiny = Bitmap.createScaledBitmap(source, HASH_SIZE, HASH_SIZE, true);
+        int[] pixels = new int[HASH_SIZE * HASH_SIZE];
+        tiny.getPixels(pixels, 0, HASH_SIZE, 0, 0, HASH_SIZE, HASH_SIZE);
+        if (tiny != source) tiny.recycle();
+
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, source.getWidth());
+        hash = fnv(hash, source.getHeight());
+        for (int p : pixels) hash = fnv(hash, p);
+        return hash;
+    }
+
+    // Feeds the four bytes of value into an FNV-1a hash
+    private static long fnv(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns {dominant, vibrant}. Dominant is the most populated 4-bit-per-channel
+     * bucket; vibrant is the most saturated reasonably bright bucket.
+     */
+    private static int[] extractColors(Bitmap bitmap) {
+        int w = bitmap.getWidth();
+        int h = bitmap.getHeight();
+        int[] pixels = new int[w * h];
+        bitmap.getPixels(pixels, 0, w, 0, 0, w, h);
+
+        int[] counts = new int[4096];
+        for (int p : pixels) {
+            int bucket = ((p >> 12) & 0xF00) | ((p >> 8) & 0x0F0) | ((p >> 4) & 0x00F);
+            counts[bucket]++;
+        }
+
+        int dominantBucket = 0;
+        int vibrantBucket = -1;
+        float bestVibrancy = 0f;
+        float[] hsv = new float[3];
+
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] == 0) continue;
+            if (counts[bucket] > counts[dominantBucket]) dominantBucket = bucket;
+
+            Color.colorToHSV(bucketToColor(bucket), hsv);
+            if (hsv[2] < 0.35f) continue;
+            float vibrancy = hsv[1] * hsv[2] * (float) Math.sqrt(counts[bucket]);
+            if (vibrancy > bestVibrancy) {
+                bestVibrancy = vibrancy;
+                vibrantBucket = bucket;
+            }
+        }
+
+        int dominant = bucketToColor(dominantBucket);
+        int vibrant = vibrantBucket >= 0 ? bucketToColor(vibrantBucket) : dominant;
+        return new int[] {dominant, vibrant};
+    }
+
+    private static int bucketToColor(int bucket) {
+        int r = ((bucket >> 8) & 0xF) * 17;
+        int g = ((bucket >> 4) & 0xF) * 17;
+        int b = (bucket & 0xF) * 17;
+        return Color.rgb(r, g, b);
+    }
+}
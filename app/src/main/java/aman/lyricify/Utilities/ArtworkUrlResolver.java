@@ -0,0 +1,95 @@
+package aman.lyricify;
+
+import android.content.Context;
+import android.util.LruCache;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Turns catalogue artwork templates ({@code .../{w}x{h}bb.{f}}) into URLs sized
+ * for where the image is shown.
+ *
+ * Sizes are rounded up to a fixed set of buckets, so the many slightly
+ * different view sizes share a few URLs and therefore Glide's and OkHttp's
+ * disk cache entries. Once a bucket has been handed out for a template, any
+ * smaller request for the same template is answered with that URL instead:
+ * the image is already on disk and Glide downsamples it to the view.
+ *
+ * Display requests ask for WebP, which the artwork CDN serves noticeably
+ * smaller than JPEG at the same size. Callers that embed or save the image
+ * should keep using an explicit JPEG URL.
+ */
+public final class ArtworkUrlResolver {
+
+    // Pixel sizes the templates are filled with
+    private static final int[] SIZE_BUCKETS = {
+        100, 200, 300, 400, 600, 800, 1000, 1200, 1500, 2000, 3000
+    };
+    private static final String DISPLAY_FORMAT = "webp";
+
+    // Largest bucket already requested per template
+    private static final LruCache<String, Integer> largestRequested = new LruCache<>(512);
+
+    private ArtworkUrlResolver() {}
+
+    /** URL for showing {@code template} at {@code sizePx} square pixels. */
+    public static String resolve(String template, int sizePx) {
+        if (template == null || template.isEmpty()) return template;
+        if (!template.contains("{w}") && !template.contains("{h}")) {
+            return template.replace("{f}", DISPLAY_FORMAT);
+        }
+
+        int bucket = bucketFor(sizePx);
+        synchronized (largestRequested) {
+            Integer cached = largestRequested.get(template);
+            if (cached != null && cached >= bucket) {
+                bucket = cached;
+            } else {
+                largestRequested.put(template, bucket);
+            }
+        }
+
+        String size = String.valueOf(bucket);
+        return template.replace("{w}", size).replace("{h}", size).replace("{f}", DISPLAY_FORMAT);
+    }
+
+    /** {@link #resolve} for a square of {@code sizeDp} on this device. */
+    public static String resolveDp(Context context, String template, int sizeDp) {
+        float density = context.getResources().getDisplayMetrics().density;
+        return resolve(template, Math.round(sizeDp * density));
+    }
+
+    /**
+     * {@link #resolve} for the larger side of {@code view}: its current size if
+     * laid out, else the fixed layout size of it or the parent it fills, else
+     * the screen width.
+     */
+    public static String resolveFor(View view, String template) {
+        int size = Math.max(view.getWidth(), view.getHeight());
+        if (size <= 0) size = fixedLayoutSize(view);
+        if (size <= 0) size = view.getResources().getDisplayMetrics().widthPixels;
+        return resolve(template, size);
+    }
+
+    private static int fixedLayoutSize(View view) {
+        View current = view;
+        while (current != null) {
+            ViewGroup.LayoutParams params = current.getLayoutParams();
+            if (params == null) return 0;
+            int size = Math.max(params.width, params.height);
+            if (size > 0) return size;
+            // Only a match_parent view takes its size from the parent
+            if (params.width != ViewGroup.LayoutParams.MATCH_PARENT
+                    && params.height != ViewGroup.LayoutParams.MATCH_PARENT) return 0;
+            current = current.getParent() instanceof View ? (View) current.getParent() : null;
+        }
+        return 0;
+    }
+
+    private static int bucketFor(int sizePx) {
+        for (int bucket : SIZE_BUCKETS) {
+            if (bucket >= sizePx) return bucket;
+        }
+        return SIZE_BUCKETS[SIZE_BUCKETS.length - 1];
+    }
+}
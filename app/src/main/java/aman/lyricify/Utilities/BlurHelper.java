@@ -2,19 +2,15 @@ package aman.lyricify;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.renderscript.Allocation;
-import android.renderscript.Element;
-import android.renderscript.RenderScript;
-import android.renderscript.ScriptIntrinsicBlur;
 
 /**
  * Helper class for blurring bitmaps
  */
 public class BlurHelper {
-    
+
     /**
-     * Blur a bitmap using RenderScript
-     * @param context Context
+     * Blur a bitmap on the CPU (stack blur)
+     * @param context Context (unused, kept for API compatibility)
      * @param image Bitmap to blur
      * @param radius Blur radius (1-25)
      * @return Blurred bitmap
@@ -23,39 +19,248 @@ public class BlurHelper {
         if (radius < 1 || radius > 25) {
             radius = 25;
         }
-        
+
         try {
             // Create a scaled down version for better performance
             int width = image.getWidth();
             int height = image.getHeight();
             float scale = 0.4f; // Scale down to 40%
-            
+
             Bitmap scaledBitmap = Bitmap.createScaledBitmap(
-                image, 
-                (int)(width * scale), 
-                (int)(height * scale), 
+                image,
+                Math.max(1, (int)(width * scale)),
+                Math.max(1, (int)(height * scale)),
                 false
             );
-            
-            Bitmap outputBitmap = Bitmap.createBitmap(scaledBitmap);
-            
-            RenderScript rs = RenderScript.create(context);
-            ScriptIntrinsicBlur blurScript = ScriptIntrinsicBlur.create(rs, Element.U8_4(rs));
-            
-            Allocation tmpIn = Allocation.createFromBitmap(rs, scaledBitmap);
-            Allocation tmpOut = Allocation.createFromBitmap(rs, outputBitmap);
-            
-            blurScript.setRadius(radius);
-            blurScript.setInput(tmpIn);
-            blurScript.forEach(tmpOut);
-            tmpOut.copyTo(outputBitmap);
-            
-            rs.destroy();
-            
-            return outputBitmap;
+
+            return stackBlur(scaledBitmap, (int) radius);
         } catch (Exception e) {
             // Fallback: return original image if blur fails
             return image;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Stack blur (Mario Klingemann's algorithm). Runs on the CPU in
+     * O(width * height) regardless of radius, so it is cheap on the small
+     * downscales we feed it. Returns a new mutable ARGB_8888 bitmap.
+     */
+    public static Bitmap stackBlur(Bitmap source, int radius) {
+        Bitmap bitmap = source.copy(Bitmap.Config.ARGB_8888, true);
+        if (radius < 1) return bitmap;
+
+        int w = bitmap.getWidth();
+        int h = bitmap.getHeight();
+        int[] pix = new int[w * h];
+        bitmap.getPixels(pix, 0, w, 0, 0, w, h);
+
+        int wm = w - 1;
+        int hm = h - 1;
+        int wh = w * h;
+        int div = radius + radius + 1;
+
+        int[] r = new int[wh];
+        int[] g = new int[wh];
+        int[] b = new int[wh];
+        int[] a = new int[wh];
+        int rsum, gsum, bsum, asum, x, y, i, p, yp, yi, yw;
+        int[] vmin = new int[Math.max(w, h)];
+
+        int divsum = (div + 1) >> 1;
+        divsum *= divsum;
+        int[] dv = new int[256 * divsum];
+        for (i = 0; i < 256 * divsum; i++) {
+            dv[i] = i / divsum;
+        }
+
+        yw = yi = 0;
+
+        int[][] stack = new int[div][4];
+        int stackpointer;
+        int stackstart;
+        int[] sir;
+        int rbs;
+        int r1 = radius + 1;
+        int routsum, goutsum, boutsum, aoutsum;
+        int rinsum, ginsum, binsum, ainsum;
+
+        for (y = 0; y < h; y++) {
+            rinsum = ginsum = binsum = ainsum = routsum = goutsum = boutsum = aoutsum = rsum = gsum = bsum = asum = 0;
+            for (i = -radius; i <= radius; i++) {
+                p = pix[yi + Math.min(wm, Math.max(i, 0))];
+                sir = stack[i + radius];
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+                sir[3] = (p >>> 24);
+                rbs = r1 - Math.abs(i);
+                rsum += sir[0] * rbs;
+                gsum += sir[1] * rbs;
+                bsum += sir[2] * rbs;
+                asum += sir[3] * rbs;
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                    ainsum += sir[3];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                    aoutsum += sir[3];
+                }
+            }
+            stackpointer = radius;
+
+            for (x = 0; x < w; x++) {
+                r[yi] = dv[rsum];
+                g[yi] = dv[gsum];
+                b[yi] = dv[bsum];
+                a[yi] = dv[asum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+                asum -= aoutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+                aoutsum -= sir[3];
+
+                if (y == 0) {
+                    vmin[x] = Math.min(x + radius + 1, wm);
+                }
+                p = pix[yw + vmin[x]];
+
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+                sir[3] = (p >>> 24);
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+                ainsum += sir[3];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+                asum += ainsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[(stackpointer) % div];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+                aoutsum += sir[3];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+                ainsum -= sir[3];
+
+                yi++;
+            }
+            yw += w;
+        }
+
+        for (x = 0; x < w; x++) {
+            rinsum = ginsum = binsum = ainsum = routsum = goutsum = boutsum = aoutsum = rsum = gsum = bsum = asum = 0;
+            yp = -radius * w;
+            for (i = -radius; i <= radius; i++) {
+                yi = Math.max(0, yp) + x;
+
+                sir = stack[i + radius];
+
+                sir[0] = r[yi];
+                sir[1] = g[yi];
+                sir[2] = b[yi];
+                sir[3] = a[yi];
+
+                rbs = r1 - Math.abs(i);
+
+                rsum += r[yi] * rbs;
+                gsum += g[yi] * rbs;
+                bsum += b[yi] * rbs;
+                asum += a[yi] * rbs;
+
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                    ainsum += sir[3];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                    aoutsum += sir[3];
+                }
+
+                if (i < hm) {
+                    yp += w;
+                }
+            }
+            yi = x;
+            stackpointer = radius;
+            for (y = 0; y < h; y++) {
+                pix[yi] = (dv[asum] << 24) | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+                asum -= aoutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+                aoutsum -= sir[3];
+
+                if (x == 0) {
+                    vmin[y] = Math.min(y + r1, hm) * w;
+                }
+                p = x + vmin[y];
+
+                sir[0] = r[p];
+                sir[1] = g[p];
+                sir[2] = b[p];
+                sir[3] = a[p];
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+                ainsum += sir[3];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+                asum += ainsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[stackpointer];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+                aoutsum += sir[3];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+                ainsum -= sir[3];
+
+                yi += w;
+            }
+        }
+
+        bitmap.setPixels(pix, 0, w, 0, 0, w, h);
+        return bitmap;
+    }
+}
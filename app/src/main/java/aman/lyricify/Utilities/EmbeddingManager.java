@@ -5,7 +5,6 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.widget.Toast;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -223,6 +222,7 @@ public class EmbeddingManager {
     
     /**
      * Embed artwork into audio file (with Bitmap - converts to JPEG)
+     * Prefer {@link #embedArtworkWithBytes} when the encoded image is available.
      */
     public void embedArtwork(String filePath, Bitmap artwork) {
         Context context = contextRef.get();
@@ -236,59 +236,8 @@ public class EmbeddingManager {
         }
         
         new Thread(() -> {
-            File tempFile = null;
-            try {
-                File originalFile = new File(filePath);
-                
-                if (!originalFile.exists()) {
-                    notifyError("File not found");
-                    return;
-                }
-                long sourceSize = originalFile.length();
-                
-                notifyProgress("Converting image...");
-                ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                artwork.compress(Bitmap.CompressFormat.JPEG, 90, stream);
-                byte[] imageData = stream.toByteArray();
-                
-                notifyProgress("Copying to cache...");
-                tempFile = new File(
-                    context.getCacheDir(),
-                    "temp_" + System.currentTimeMillis() + "_" + originalFile.getName()
-                );
-                copyFile(originalFile, tempFile);
-                
-                // Validate Copy
-                if (tempFile.length() != sourceSize) {
-                    notifyError("Copy failed. Source: " + sourceSize + "b, Temp: " + tempFile.length() + "b");
-                    if(tempFile.exists()) tempFile.delete();
-                    return;
-                }
-
-                notifyProgress("Embedding artwork...");
-                TagLib tagLib = new TagLib();
-                boolean success = tagLib.setArtwork(
-                    tempFile.getAbsolutePath(),
-                    imageData,
-                    "image/jpeg",
-                    "Cover (front)"
-                );
-                
-                if (!success) {
-                    if (tempFile.exists()) tempFile.delete();
-                    notifyError("TagLib failed to set artwork.");
-                    return;
-                }
-                
-                final File finalTempFile = tempFile;
-                saveFile(filePath, finalTempFile, "Artwork embedded successfully!");
-                
-            } catch (Exception e) {
-                if (tempFile != null && tempFile.exists()) {
-                    tempFile.delete();
-                }
-                notifyError(e.getClass().getSimpleName() + ": " + e.getMessage());
-            }
+            notifyProgress("Converting image...");
+            embedEncodedArtwork(filePath, EncodedArtwork.fromBitmap(artwork));
         }).start();
     }
     
@@ -308,104 +257,73 @@ public class EmbeddingManager {
         }
         
         new Thread(() -> {
-            File tempFile = null;
-            try {
-                File originalFile = new File(filePath);
-                
-                if (!originalFile.exists()) {
-                    notifyError("File not found");
-                    return;
-                }
-                long sourceSize = originalFile.length();
-                
-                // Detect MIME type from image data or URL
-                String mimeType = detectMimeType(imageData, imageUrl);
-                notifyProgress("Detected format: " + mimeType);
-                
-                notifyProgress("Copying to cache...");
-                tempFile = new File(
-                    context.getCacheDir(),
-                    "temp_" + System.currentTimeMillis() + "_" + originalFile.getName()
-                );
-                copyFile(originalFile, tempFile);
-                
-                // Validate Copy
-                if (tempFile.length() != sourceSize) {
-                    notifyError("Copy failed. Source: " + sourceSize + "b, Temp: " + tempFile.length() + "b");
-                    if(tempFile.exists()) tempFile.delete();
-                    return;
-                }
-
-                notifyProgress("Embedding artwork...");
-                TagLib tagLib = new TagLib();
-                boolean success = tagLib.setArtwork(
-                    tempFile.getAbsolutePath(),
-                    imageData,
-                    mimeType,
-                    "Cover (front)"
-                );
-                
-                if (!success) {
-                    if (tempFile.exists()) tempFile.delete();
-                    notifyError("TagLib failed to set artwork.");
-                    return;
-                }
-                
-                final File finalTempFile = tempFile;
-                saveFile(filePath, finalTempFile, "Artwork embedded successfully!");
-                
-            } catch (Exception e) {
-                if (tempFile != null && tempFile.exists()) {
-                    tempFile.delete();
-                }
-                notifyError(e.getClass().getSimpleName() + ": " + e.getMessage());
-            }
+            EncodedArtwork artwork = EncodedArtwork.of(imageData, imageUrl);
+            notifyProgress("Detected format: " + artwork.mimeType);
+            embedEncodedArtwork(filePath, artwork);
         }).start();
     }
     
     /**
-     * Detects MIME type from image bytes or URL
-     * Similar to TagLibTester logic
+     * Writes {@code artwork} as the front cover. The bytes go in as they are
+     * unless they exceed {@link EncodedArtwork#EMBED_BUDGET_BYTES}.
+     * Runs on the caller's (background) thread.
      */
-    private String detectMimeType(byte[] imageData, String imageUrl) {
-        // First, try to detect from magic bytes (file signature)
-        if (imageData != null && imageData.length >= 12) {
-            // JPEG: FF D8 FF
-            if (imageData[0] == (byte) 0xFF && imageData[1] == (byte) 0xD8 && imageData[2] == (byte) 0xFF) {
-                return "image/jpeg";
+    private void embedEncodedArtwork(String filePath, EncodedArtwork artwork) {
+        Context context = contextRef.get();
+        if (context == null) return;
+        
+        File tempFile = null;
+        try {
+            File originalFile = new File(filePath);
+            
+            if (!originalFile.exists()) {
+                notifyError("File not found");
+                return;
             }
-            // PNG: 89 50 4E 47
-            if (imageData[0] == (byte) 0x89 && imageData[1] == 0x50 && imageData[2] == 0x4E && imageData[3] == 0x47) {
-                return "image/png";
+            long sourceSize = originalFile.length();
+            
+            EncodedArtwork fitted = artwork.fitBudget(EncodedArtwork.EMBED_BUDGET_BYTES);
+            if (fitted != artwork) {
+                notifyProgress("Artwork too large, converted to JPEG");
             }
-            // GIF: 47 49 46
-            if (imageData[0] == 0x47 && imageData[1] == 0x49 && imageData[2] == 0x46) {
-                return "image/gif";
+            
+            notifyProgress("Copying to cache...");
+            tempFile = new File(
+                context.getCacheDir(),
+                "temp_" + System.currentTimeMillis() + "_" + originalFile.getName()
+            );
+            copyFile(originalFile, tempFile);
+            
+            // Validate Copy
+            if (tempFile.length() != sourceSize) {
+                notifyError("Copy failed. Source: " + sourceSize + "b, Temp: " + tempFile.length() + "b");
+                if(tempFile.exists()) tempFile.delete();
+                return;
             }
-            // WebP: RIFF....WEBP
-            if (imageData[0] == 0x52 && imageData[1] == 0x49 && imageData[2] == 0x46 && imageData[3] == 0x46 &&
-                imageData[8] == 0x57 && imageData[9] == 0x45 && imageData[10] == 0x42 && imageData[11] == 0x50) {
-                return "image/webp";
+
+            notifyProgress("Embedding artwork...");
+            TagLib tagLib = new TagLib();
+            boolean success = tagLib.setArtwork(
+                tempFile.getAbsolutePath(),
+                fitted.bytes,
+                fitted.mimeType,
+                "Cover (front)"
+            );
+            
+            if (!success) {
+                if (tempFile.exists()) tempFile.delete();
+                notifyError("TagLib failed to set artwork.");
+                return;
             }
-        }
-        
-        // Fallback: detect from URL extension
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            String lowerUrl = imageUrl.toLowerCase();
-            if (lowerUrl.endsWith(".png") || lowerUrl.contains(".png?")) {
-                return "image/png";
-            } else if (lowerUrl.endsWith(".gif") || lowerUrl.contains(".gif?")) {
-                return "image/gif";
-            } else if (lowerUrl.endsWith(".webp") || lowerUrl.contains(".webp?")) {
-                return "image/webp";
-            } else if (lowerUrl.endsWith(".jpg") || lowerUrl.endsWith(".jpeg") || 
-                       lowerUrl.contains(".jpg?") || lowerUrl.contains(".jpeg?")) {
-                return "image/jpeg";
+            
+            saveFile(filePath, tempFile, "Artwork embedded successfully!");
+            
+        } catch (Exception e) {
+            if (tempFile != null && tempFile.exists()) {
+                tempFile.delete();
             }
+            notifyError(e.getClass().getSimpleName() + ": " + e.getMessage());
         }
-        
-        // Default fallback
-        return "image/jpeg";
     }
     
     private void saveFile(String originalPath, File tempFile, String successMessage) {
@@ -0,0 +1,134 @@
+package aman.lyricify;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+/**
+ * Artwork as its original encoded bytes plus MIME type and pixel size.
+ *
+ * The bytes are what gets embedded or saved, untouched, so a cover keeps its
+ * format (PNG, animated GIF/WebP) and quality. Decoding only happens to read
+ * the header for the size, and re-encoding only when {@link #fitBudget} finds
+ * the image over the byte budget.
+ */
+public final class EncodedArtwork {
+
+    private static final String TAG = "EncodedArtwork";
+
+    /** Largest cover we embed into a tag; bigger ones are transcoded down. */
+    public static final int EMBED_BUDGET_BYTES = 4 * 1024 * 1024;
+
+    // Transcoding steps: JPEG qualities tried before shrinking the image
+    private static final int[] JPEG_QUALITIES = {92, 85, 75};
+
+    public final byte[] bytes;
+    public final String mimeType;
+    public final int width;
+    public final int height;
+
+    private EncodedArtwork(byte[] bytes, String mimeType, int width, int height) {
+        this.bytes = bytes;
+        this.mimeType = mimeType;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Wraps encoded image bytes. {@code hint} is a URL, file name or MIME type
+     * used when the bytes have no recognisable signature.
+     */
+    public static EncodedArtwork of(byte[] bytes, String hint) {
+        if (bytes == null || bytes.length == 0) return null;
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        return new EncodedArtwork(
+                bytes, detectMimeType(bytes, hint), options.outWidth, options.outHeight);
+    }
+
+    /** Encodes a bitmap once, for sources that never had encoded bytes. */
+    public static EncodedArtwork fromBitmap(Bitmap bitmap) {
+        if (bitmap == null) return null;
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITIES[0], stream);
+        return new EncodedArtwork(
+                stream.toByteArray(), "image/jpeg", bitmap.getWidth(), bitmap.getHeight());
+    }
+
+    /**
+     * This artwork if it fits in {@code maxBytes}, otherwise a JPEG that does:
+     * lower quality first, then halving the size. Animated images lose their
+     * animation when transcoded.
+     */
+    public EncodedArtwork fitBudget(int maxBytes) {
+        if (bytes.length <= maxBytes) return this;
+
+        Log.d(TAG, "Transcoding " + mimeType + " of " + bytes.length + " bytes to fit " + maxBytes);
+        int sampleSize = 1;
+        while (sampleSize <= 16) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = sampleSize;
+            Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+            if (bitmap == null) break;
+            try {
+                for (int quality : JPEG_QUALITIES) {
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                    bitmap.compress(Bitmap.CompressFormat.JPEG, quality, stream);
+                    if (stream.size() <= maxBytes) {
+                        return new EncodedArtwork(
+                                stream.toByteArray(),
+                                "image/jpeg",
+                                bitmap.getWidth(),
+                                bitmap.getHeight());
+                    }
+                }
+            } finally {
+                bitmap.recycle();
+            }
+            sampleSize *= 2;
+        }
+        Log.w(TAG, "Could not fit artwork into " + maxBytes + " bytes, keeping original");
+        return this;
+    }
+
+    /** MIME type from the file signature, then from {@code hint}, defaulting to JPEG. */
+    public static String detectMimeType(byte[] data, String hint) {
+        if (data != null && data.length >= 12) {
+            // JPEG: FF D8 FF
+            if (data[0] == (byte) 0xFF && data[1] == (byte) 0xD8 && data[2] == (byte) 0xFF) {
+                return "image/jpeg";
+            }
+            // PNG: 89 50 4E 47
+            if (data[0] == (byte) 0x89 && data[1] == 0x50 && data[2] == 0x4E && data[3] == 0x47) {
+                return "image/png";
+            }
+            // GIF: 47 49 46
+            if (data[0] == 0x47 && data[1] == 0x49 && data[2] == 0x46) {
+                return "image/gif";
+            }
+            // WebP: RIFF....WEBP
+            if (data[0] == 0x52 && data[1] == 0x49 && data[2] == 0x46 && data[3] == 0x46
+                    && data[8] == 0x57 && data[9] == 0x45 && data[10] == 0x42 && data[11] == 0x50) {
+                return "image/webp";
+            }
+            // AVIF: ....ftypavif
+            if (data[4] == 0x66 && data[5] == 0x74 && data[6] == 0x79 && data[7] == 0x70
+                    && data[8] == 0x61 && data[9] == 0x76 && data[10] == 0x69 && data[11] == 0x66) {
+                return "image/avif";
+            }
+        }
+
+        if (hint != null && !hint.isEmpty()) {
+            String lower = hint.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("image/")) return lower;
+            if (lower.endsWith(".png") || lower.contains(".png?")) return "image/png";
+            if (lower.endsWith(".gif") || lower.contains(".gif?")) return "image/gif";
+            if (lower.endsWith(".webp") || lower.contains(".webp?")) return "image/webp";
+            if (lower.endsWith(".avif") || lower.contains(".avif?")) return "image/avif";
+        }
+        return "image/jpeg";
+    }
+}
@@ -0,0 +1,172 @@
+package aman.lyricify;
+
+import android.provider.MediaStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The library's included and excluded folders, compiled once per load.
+ *
+ * Folders are stored in a trie of path segments, so checking a song walks its
+ * path once however many folders are configured. The folders are also turned
+ * into a MediaStore selection, letting the provider drop rows outside them
+ * before they are read into the app; {@link #includes} stays the exact check.
+ *
+ * A song is in scope when it is under an included folder (or everything is
+ * scanned) and not under any excluded folder.
+ */
+public final class FolderScope {
+
+    // Beyond this many folders the selection is left to the in-memory check
+    private static final int MAX_SELECTION_FOLDERS = 100;
+
+    private static final class Node {
+        HashMap<String, Node> children;
+        boolean include;
+        boolean exclude;
+
+        Node child(String segment, boolean create) {
+            if (children == null) {
+                if (!create) return null;
+                children = new HashMap<>();
+            }
+            Node node = children.get(segment);
+            if (node == null && create) {
+                node = new Node();
+                children.put(segment, node);
+            }
+            return node;
+        }
+    }
+
+    private final Node root = new Node();
+    private final boolean scanAll;
+    private final List<String> included = new ArrayList<>();
+    private final List<String> excluded = new ArrayList<>();
+
+    private FolderScope(boolean scanAll) {
+        this.scanAll = scanAll;
+    }
+
+    public static FolderScope compile(boolean scanAll, Set<String> whitelist,
+            boolean blacklistEnabled, Set<String> blacklist) {
+        FolderScope scope = new FolderScope(scanAll);
+        if (!scanAll) {
+            for (String folder : whitelist) {
+                String normalized = normalize(folder);
+                if (normalized == null) continue;
+                scope.nodeFor(normalized).include = true;
+                scope.included.add(normalized);
+            }
+        }
+        if (blacklistEnabled) {
+            for (String folder : blacklist) {
+                String normalized = normalize(folder);
+                if (normalized == null) continue;
+                scope.nodeFor(normalized).exclude = true;
+                scope.excluded.add(normalized);
+            }
+        }
+        return scope;
+    }
+
+    /** True when no song can be in scope, so the query can be skipped. */
+    public boolean isEmpty() {
+        return !scanAll && included.isEmpty();
+    }
+
+    public boolean includes(String path) {
+        if (path == null) return false;
+        boolean in = scanAll;
+        Node node = root;
+        int start = 0;
+        // The file name itself is not a folder, so stop at the last separator
+        int end;
+        while ((end = path.indexOf('/', start)) != -1) {
+            node = node.child(path.substring(start, end), false);
+            if (node == null) break;
+            if (node.exclude) return false;
+            if (node.include) in = true;
+            start = end + 1;
+        }
+        return in;
+    }
+
+    /**
+     * A selection matching a superset of {@link #includes}, or null if there
+     * is nothing to narrow or too many folders to express compactly.
+     *
+     * Every clause may only let extra rows through for {@link #includes} to
+     * drop. Includes use LIKE, which ignores ASCII case; exclusions use GLOB,
+     * which does not, so they never drop a differently cased folder, and a
+     * NULL path is kept explicitly since NOT GLOB on NULL would drop it.
+     */
+    public String selection() {
+        if (included.size() + excluded.size() > MAX_SELECTION_FOLDERS) return null;
+
+        StringBuilder sb = new StringBuilder();
+        if (!included.isEmpty()) {
+            sb.append('(');
+            for (int i = 0; i < included.size(); i++) {
+                if (i > 0) sb.append(" OR ");
+                sb.append(MediaStore.Audio.Media.DATA).append(" LIKE ? ESCAPE '\\'");
+            }
+            sb.append(')');
+        }
+        for (int i = 0; i < excluded.size(); i++) {
+            if (sb.length() > 0) sb.append(" AND ");
+            sb.append('(').append(MediaStore.Audio.Media.DATA).append(" IS NULL OR ")
+                    .append(MediaStore.Audio.Media.DATA).append(" NOT GLOB ?)");
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /** Arguments for {@link #selection()}, in the same order. */
+    public String[] selectionArgs() {
+        if (included.size() + excluded.size() > MAX_SELECTION_FOLDERS) return null;
+        String[] args = new String[included.size() + excluded.size()];
+        int i = 0;
+        for (String folder : included) args[i++] = likePrefix(folder);
+        for (String folder : excluded) args[i++] = globPrefix(folder);
+        return args;
+    }
+
+    private Node nodeFor(String folder) {
+        Node node = root;
+        for (String segment : folder.split("/", -1)) {
+            node = node.child(segment, true);
+        }
+        return node;
+    }
+
+    // Drops trailing separators; a folder is matched by whole segments
+    private static String normalize(String folder) {
+        if (folder == null) return null;
+        String trimmed = folder.trim();
+        while (trimmed.length() > 1 && trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String likePrefix(String folder) {
+        return folder.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "/%";
+    }
+
+    // GLOB has no ESCAPE clause; a wildcard is matched literally inside brackets
+    private static String globPrefix(String folder) {
+        StringBuilder sb = new StringBuilder(folder.length() + 2);
+        for (int i = 0; i < folder.length(); i++) {
+            char c = folder.charAt(i);
+            if (c == '*' || c == '?' || c == '[') {
+                sb.append('[').append(c).append(']');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append("/*").toString();
+    }
+}
@@ -0,0 +1,194 @@
+package aman.lyricify;
+
+import java.io.IOException;
+
+/**
+ * Minimal pull parser over an in-memory JSON string, modelled on
+ * android.util.JsonReader. It never builds a tree, so callers can stream
+ * straight from the response into their own output.
+ *
+ * Kept free of Android classes so the parsers stay runnable in the JVM
+ * benchmark module. Commas are treated as separators and not validated.
+ */
+final class JsonPullReader {
+
+    private final String in;
+    private final int length;
+    private int pos;
+
+    JsonPullReader(String in) {
+        this.in = in;
+        this.length = in.length();
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+    }
+
+    /** True while the current object or array has more elements. */
+    boolean hasNext() throws IOException {
+        char c = peekChar();
+        return c != '}' && c != ']';
+    }
+
+    boolean isNull() throws IOException {
+        return peekChar() == 'n';
+    }
+
+    String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    String nextString() throws IOException {
+        if (peekChar() != '"') {
+            // Be as forgiving as org.json: bare literals read as their text
+            return readLiteral();
+        }
+        pos++;
+
+        int start = pos;
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c == '"') {
+                // Fast path: no escapes
+                return in.substring(start, pos++);
+            }
+            if (c == '\\') break;
+            pos++;
+        }
+
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        sb.append(in, start, pos);
+        while (pos < length) {
+            char c = in.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= length) break;
+            char e = in.charAt(pos++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos + 4 > length) throw syntaxError("Unterminated escape");
+                    try {
+                        sb.append((char) Integer.parseInt(in.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw syntaxError("Bad unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    sb.append(e); // \" \\ \/
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    long nextLong() throws IOException {
+        String value = peekChar() == '"' ? nextString() : readLiteral();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(value);
+            } catch (NumberFormatException e2) {
+                throw syntaxError("Expected a number but was " + value);
+            }
+        }
+    }
+
+    boolean nextBoolean() throws IOException {
+        String value = peekChar() == '"' ? nextString() : readLiteral();
+        if ("true".equalsIgnoreCase(value)) return true;
+        if ("false".equalsIgnoreCase(value)) return false;
+        throw syntaxError("Expected a boolean but was " + value);
+    }
+
+    void nextNull() throws IOException {
+        String value = readLiteral();
+        if (!"null".equals(value)) throw syntaxError("Expected null but was " + value);
+    }
+
+    void skipValue() throws IOException {
+        char c = peekChar();
+        if (c == '"') {
+            nextString();
+            return;
+        }
+        if (c != '{' && c != '[') {
+            readLiteral();
+            return;
+        }
+
+        int depth = 0;
+        while (pos < length) {
+            c = in.charAt(pos);
+            if (c == '"') {
+                nextString();
+                continue;
+            }
+            pos++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) return;
+            }
+        }
+        throw syntaxError("Unterminated value");
+    }
+
+    private String readLiteral() throws IOException {
+        peekChar();
+        int start = pos;
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c == ',' || c == '}' || c == ']' || c == ':' || isWhitespace(c)) break;
+            pos++;
+        }
+        if (start == pos) throw syntaxError("Expected a value");
+        return in.substring(start, pos);
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekChar() != expected) throw syntaxError("Expected '" + expected + "'");
+        pos++;
+    }
+
+    /** Skips whitespace and separators, returns the next significant char without consuming it. */
+    private char peekChar() throws IOException {
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c != ',' && !isWhitespace(c)) return c;
+            pos++;
+        }
+        throw syntaxError("Unexpected end of input");
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at " + pos);
+    }
+}
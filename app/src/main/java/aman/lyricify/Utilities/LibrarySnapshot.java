@@ -0,0 +1,273 @@
+package aman.lyricify;
+
+import android.content.ContentUris;
+import android.content.Context;
+import android.os.Build;
+import android.provider.MediaStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The library list as it was last shown, for drawing rows on a cold start
+ * before MediaStore has been queried.
+ *
+ * The file is a string pool followed by fixed-width song records in display
+ * order and the fast scroller sections, read back through a memory map. It
+ * also records the filter preferences and the MediaStore generation it was
+ * built from: while both still match, the snapshot is the library and the
+ * full query can be skipped.
+ */
+public final class LibrarySnapshot {
+
+    private static final String TAG = "LibrarySnapshot";
+    private static final String SNAPSHOT_FILE = "library_snapshot.bin";
+    private static final int MAGIC = 0x4C594C42; // "LYLB"
+    private static final int VERSION = 1;
+    // Writers share one temp file, so they take turns
+    private static final Object writeLock = new Object();
+
+    // id, albumId, duration, dateAdded, dateModified, size (longs), four pool
+    // indices (ints), coverage (float), lineCount (int), format, flags (bytes)
+    private static final int RECORD_BYTES = 6 * 8 + 4 * 4 + 4 + 4 + 1 + 1;
+    private static final int NO_STRING = -1;
+    private static final byte NO_QUALITY = -1;
+    private static final byte FLAG_DUET = 1;
+    private static final byte FLAG_BACKGROUND = 2;
+
+    public final String filterKey;
+    public final String generation;
+    public final int sortMode;
+    public final boolean descending;
+    public final List<MediaStoreHelper.LocalSong> songs;
+    public final SectionIndex sections;
+
+    private LibrarySnapshot(String filterKey, String generation, int sortMode, boolean descending,
+            List<MediaStoreHelper.LocalSong> songs, SectionIndex sections) {
+        this.filterKey = filterKey;
+        this.generation = generation;
+        this.sortMode = sortMode;
+        this.descending = descending;
+        this.songs = songs;
+        this.sections = sections;
+    }
+
+    /** Whether every song already has its lyrics quality, i.e. no indexing is pending. */
+    public boolean isComplete() {
+        for (MediaStoreHelper.LocalSong song : songs) {
+            if (song.lyricsQuality == null) return false;
+        }
+        return true;
+    }
+
+    /** Identifies the folder and lyrics filter settings a list was built with. */
+    public static String filterKey(boolean scanAll, boolean blacklistEnabled, boolean hideLyrics,
+            boolean hideLrc, Set<String> whitelist, Set<String> blacklist) {
+        return (scanAll ? "A" : "W" + new TreeSet<>(whitelist))
+                + (blacklistEnabled ? "B" + new TreeSet<>(blacklist) : "")
+                + (hideLyrics ? "L" : "")
+                + (hideLrc ? "S" : "");
+    }
+
+    /**
+     * MediaStore's change counter over all external volumes, or null where the
+     * platform does not have one (API 29).
+     */
+    public static String mediaGeneration(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) return null;
+        try {
+            StringBuilder sb = new StringBuilder(MediaStore.getVersion(context));
+            for (String volume : new TreeSet<>(MediaStore.getExternalVolumeNames(context))) {
+                sb.append(';').append(volume).append('=')
+                        .append(MediaStore.getGeneration(context, volume));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            Log.e(TAG, "MediaStore generation unavailable", e);
+            return null;
+        }
+    }
+
+    public static LibrarySnapshot read(Context context) {
+        File file = new File(context.getFilesDir(), SNAPSHOT_FILE);
+        if (!file.exists()) return null;
+
+        try (FileInputStream in = new FileInputStream(file);
+                FileChannel channel = in.getChannel()) {
+            MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+            String filterKey = readString(buffer);
+            String generation = readString(buffer);
+            int sortMode = buffer.getInt();
+            boolean descending = buffer.get() != 0;
+
+            String[] pool = new String[buffer.getInt()];
+            for (int i = 0; i < pool.length; i++) pool[i] = readString(buffer);
+
+            int count = buffer.getInt();
+            List<MediaStoreHelper.LocalSong> songs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) songs.add(readRecord(buffer, pool));
+
+            String[] labels = new String[buffer.getInt()];
+            for (int i = 0; i < labels.length; i++) labels[i] = pool[buffer.getInt()];
+            int[] sectionStart = new int[labels.length];
+            buffer.asIntBuffer().get(sectionStart);
+            buffer.position(buffer.position() + sectionStart.length * 4);
+            int[] positionToSection = new int[count];
+            buffer.asIntBuffer().get(positionToSection);
+
+            return new LibrarySnapshot(filterKey, generation, sortMode, descending, songs,
+                    SectionIndex.of(labels, sectionStart, positionToSection));
+        } catch (Exception e) {
+            // Truncated or from an older layout; the regular load takes over
+            Log.e(TAG, "Error reading snapshot", e);
+            return null;
+        }
+    }
+
+    /** Writes {@code songs} in display order, replacing the previous snapshot atomically. */
+    public static void write(Context context, String filterKey, String generation, int sortMode,
+            boolean descending, List<MediaStoreHelper.LocalSong> songs, SectionIndex sections) {
+        HashMap<String, Integer> poolIndex = new HashMap<>();
+        List<String> pool = new ArrayList<>();
+        int[] refs = new int[songs.size() * 4];
+        for (int i = 0; i < songs.size(); i++) {
+            MediaStoreHelper.LocalSong song = songs.get(i);
+            refs[i * 4] = intern(song.filePath, pool, poolIndex);
+            refs[i * 4 + 1] = intern(song.title, pool, poolIndex);
+            refs[i * 4 + 2] = intern(song.artist, pool, poolIndex);
+            refs[i * 4 + 3] = intern(song.album, pool, poolIndex);
+        }
+        int[] labelRefs = new int[sections.sections.length];
+        for (int i = 0; i < labelRefs.length; i++) {
+            labelRefs[i] = intern(sections.sections[i], pool, poolIndex);
+        }
+
+        synchronized (writeLock) {
+            File file = new File(context.getFilesDir(), SNAPSHOT_FILE);
+            File tmp = new File(context.getFilesDir(), SNAPSHOT_FILE + ".tmp");
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, filterKey);
+                writeString(out, generation);
+                out.writeInt(sortMode);
+                out.writeBoolean(descending);
+
+                out.writeInt(pool.size());
+                for (String s : pool) writeString(out, s);
+
+                out.writeInt(songs.size());
+                for (int i = 0; i < songs.size(); i++) {
+                    writeRecord(out, songs.get(i), refs, i * 4);
+                }
+
+                out.writeInt(labelRefs.length);
+                for (int ref : labelRefs) out.writeInt(ref);
+                for (int start : sections.sectionStart) out.writeInt(start);
+                for (int section : sections.positionToSection) out.writeInt(section);
+            } catch (IOException e) {
+                Log.e(TAG, "Error writing snapshot", e);
+                tmp.delete();
+                return;
+            }
+            if (!tmp.renameTo(file)) tmp.delete();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, MediaStoreHelper.LocalSong song,
+            int[] refs, int offset) throws IOException {
+        out.writeLong(song.fileUri != null ? ContentUris.parseId(song.fileUri) : -1);
+        out.writeLong(song.albumId);
+        out.writeLong(song.duration);
+        out.writeLong(song.dateAdded);
+        out.writeLong(song.dateModified);
+        out.writeLong(song.size);
+        for (int i = 0; i < 4; i++) out.writeInt(refs[offset + i]);
+
+        LyricsQualityIndex.Quality quality = song.lyricsQuality;
+        out.writeFloat(quality != null ? quality.coverage : 0f);
+        out.writeInt(quality != null ? quality.lineCount : 0);
+        out.writeByte(quality != null ? quality.format : NO_QUALITY);
+        out.writeByte(quality == null ? 0
+                : (quality.duet ? FLAG_DUET : 0) | (quality.backgroundVocals ? FLAG_BACKGROUND : 0));
+    }
+
+    private static MediaStoreHelper.LocalSong readRecord(ByteBuffer buffer, String[] pool) {
+        int start = buffer.position();
+        long id = buffer.getLong();
+        long albumId = buffer.getLong();
+        long duration = buffer.getLong();
+        long dateAdded = buffer.getLong();
+        long dateModified = buffer.getLong();
+        long size = buffer.getLong();
+        String path = poolString(pool, buffer.getInt());
+        String title = poolString(pool, buffer.getInt());
+        String artist = poolString(pool, buffer.getInt());
+        String album = poolString(pool, buffer.getInt());
+        float coverage = buffer.getFloat();
+        int lineCount = buffer.getInt();
+        byte format = buffer.get();
+        byte flags = buffer.get();
+        buffer.position(start + RECORD_BYTES);
+
+        MediaStoreHelper.LocalSong song = new MediaStoreHelper.LocalSong(
+                id >= 0
+                        ? ContentUris.withAppendedId(MediaStore.Audio.Media.EXTERNAL_CONTENT_URI, id)
+                        : null,
+                path, title, artist, album, albumId, duration, dateAdded);
+        song.dateModified = dateModified;
+        song.size = size;
+        if (format != NO_QUALITY) {
+            song.lyricsQuality = format == LyricsQualityIndex.FORMAT_NONE
+                    ? LyricsQualityIndex.Quality.none()
+                    : new LyricsQualityIndex.Quality(format, lineCount,
+                            (flags & FLAG_DUET) != 0, (flags & FLAG_BACKGROUND) != 0, coverage);
+        }
+        return song;
+    }
+
+    private static int intern(String s, List<String> pool, HashMap<String, Integer> poolIndex) {
+        if (s == null) return NO_STRING;
+        Integer index = poolIndex.get(s);
+        if (index == null) {
+            index = pool.size();
+            pool.add(s);
+            poolIndex.put(s, index);
+        }
+        return index;
+    }
+
+    private static String poolString(String[] pool, int index) {
+        return index == NO_STRING ? null : pool[index];
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
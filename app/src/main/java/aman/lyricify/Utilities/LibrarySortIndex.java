@@ -0,0 +1,194 @@
+package aman.lyricify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Every sort order of one library load, computed up front together with its
+ * fast scroller sections.
+ *
+ * Built on the loader thread and immutable afterwards, so switching the sort
+ * mode or order on the UI thread is a copy instead of a sort. Comparisons use
+ * the lowercased keys cached on each {@link MediaStoreHelper.LocalSong}.
+ *
+ * When the library is reloaded, {@link #build} starts from the previous index:
+ * songs whose sort key did not change keep their place, and only new or changed
+ * songs are sorted and merged in.
+ */
+public final class LibrarySortIndex {
+
+    // Same values as LocalSongAdapter's sort modes
+    public static final int MODE_TITLE = 0;
+    public static final int MODE_DATE_ADDED = 1;
+    public static final int MODE_ARTIST = 2;
+    public static final int MODE_LYRICS_QUALITY = 3;
+    private static final int MODE_COUNT = 4;
+
+    private static final LyricsQualityIndex.Quality NO_LYRICS = LyricsQualityIndex.Quality.none();
+
+    private static final Comparator<MediaStoreHelper.LocalSong> BY_TITLE =
+            (s1, s2) -> s1.titleKey().compareTo(s2.titleKey());
+    private static final Comparator<MediaStoreHelper.LocalSong> BY_DATE_ADDED =
+            (s1, s2) -> Long.compare(s1.dateAdded, s2.dateAdded);
+    private static final Comparator<MediaStoreHelper.LocalSong> BY_ARTIST =
+            (s1, s2) -> s1.artistKey().compareTo(s2.artistKey());
+    // Unindexed songs sort with "no lyrics" until the indexer catches up
+    private static final Comparator<MediaStoreHelper.LocalSong> BY_LYRICS_QUALITY =
+            (s1, s2) -> qualityOf(s1).compareTo(qualityOf(s2));
+
+    // Ascending order per mode
+    private final MediaStoreHelper.LocalSong[][] orders = new MediaStoreHelper.LocalSong[MODE_COUNT][];
+    // Descending order per mode; ties keep their ascending order
+    private final MediaStoreHelper.LocalSong[][] descendingOrders =
+            new MediaStoreHelper.LocalSong[MODE_COUNT][];
+    // Fast scroller sections per mode, ascending and descending
+    private final SectionIndex[][] sections = new SectionIndex[MODE_COUNT][2];
+
+    private LibrarySortIndex() {}
+
+    /**
+     * Sorts {@code songs} in every mode. With a {@code previous} index the
+     * orders are merge-updated rather than sorted from scratch.
+     */
+    public static LibrarySortIndex build(
+            List<MediaStoreHelper.LocalSong> songs, LibrarySortIndex previous) {
+        MediaStoreHelper.LocalSong[] base = songs.toArray(new MediaStoreHelper.LocalSong[0]);
+        HashMap<String, MediaStoreHelper.LocalSong> byPath = null;
+        if (previous != null) {
+            byPath = new HashMap<>(base.length * 2);
+            for (MediaStoreHelper.LocalSong song : base) {
+                if (song.filePath != null) byPath.put(song.filePath, song);
+            }
+        }
+
+        LibrarySortIndex index = new LibrarySortIndex();
+        for (int mode = 0; mode < MODE_COUNT; mode++) {
+            Comparator<MediaStoreHelper.LocalSong> comparator = comparatorFor(mode);
+            MediaStoreHelper.LocalSong[] order =
+                    previous != null
+                            ? merge(previous.orders[mode], base, byPath, comparator)
+                            : sortCopy(base, comparator);
+            MediaStoreHelper.LocalSong[] reversed = reverseStable(order, comparator);
+            index.orders[mode] = order;
+            index.descendingOrders[mode] = reversed;
+            index.sections[mode][0] = SectionIndex.build(order.length, i -> order[i], mode);
+            index.sections[mode][1] = SectionIndex.build(reversed.length, i -> reversed[i], mode);
+        }
+        return index;
+    }
+
+    /** Fills {@code out} with the songs in the given mode and direction. */
+    public void copyTo(int mode, boolean descending, List<MediaStoreHelper.LocalSong> out) {
+        MediaStoreHelper.LocalSong[] order = descending ? descendingOrders[mode] : orders[mode];
+        out.clear();
+        out.addAll(Arrays.asList(order));
+    }
+
+    public int size() {
+        return orders[MODE_TITLE].length;
+    }
+
+    /** Sections matching {@link #copyTo} for the same mode and direction. */
+    public SectionIndex sections(int mode, boolean descending) {
+        return sections[mode][descending ? 1 : 0];
+    }
+
+    private static MediaStoreHelper.LocalSong[] sortCopy(
+            MediaStoreHelper.LocalSong[] base, Comparator<MediaStoreHelper.LocalSong> comparator) {
+        MediaStoreHelper.LocalSong[] sorted = base.clone();
+        Arrays.sort(sorted, comparator); // Stable, keeps MediaStore's order on ties
+        return sorted;
+    }
+
+    /**
+     * {@code ascending} back to front, except that each run of equal keys keeps
+     * its order, as a stable sort with the reversed comparator would give.
+     */
+    private static MediaStoreHelper.LocalSong[] reverseStable(
+            MediaStoreHelper.LocalSong[] ascending,
+            Comparator<MediaStoreHelper.LocalSong> comparator) {
+        MediaStoreHelper.LocalSong[] reversed = new MediaStoreHelper.LocalSong[ascending.length];
+        int k = 0;
+        int end = ascending.length;
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && comparator.compare(ascending[start - 1], ascending[end - 1]) == 0) {
+                start--;
+            }
+            for (int i = start; i < end; i++) reversed[k++] = ascending[i];
+            end = start;
+        }
+        return reversed;
+    }
+
+    /**
+     * Keeps the previous order for songs still present with an equal key, sorts
+     * only the rest and merges the two runs. O(n + k log k) for k changed songs.
+     */
+    private static MediaStoreHelper.LocalSong[] merge(
+            MediaStoreHelper.LocalSong[] previousOrder,
+            MediaStoreHelper.LocalSong[] base,
+            HashMap<String, MediaStoreHelper.LocalSong> byPath,
+            Comparator<MediaStoreHelper.LocalSong> comparator) {
+        List<MediaStoreHelper.LocalSong> kept = new ArrayList<>(base.length);
+        Set<MediaStoreHelper.LocalSong> used =
+                Collections.newSetFromMap(new IdentityHashMap<>(base.length * 2));
+
+        for (MediaStoreHelper.LocalSong old : previousOrder) {
+            if (old.filePath == null) continue;
+            MediaStoreHelper.LocalSong current = byPath.get(old.filePath);
+            if (current == null || used.contains(current)) continue;
+            if (comparator.compare(old, current) != 0) continue;
+            // Keys can change on the previous objects after they were sorted (lyrics
+            // quality is filled in later); only keep what is still in order
+            if (!kept.isEmpty() && comparator.compare(kept.get(kept.size() - 1), current) > 0) {
+                continue;
+            }
+            kept.add(current);
+            used.add(current);
+        }
+
+        List<MediaStoreHelper.LocalSong> changed = new ArrayList<>(base.length - kept.size());
+        for (MediaStoreHelper.LocalSong song : base) {
+            if (!used.contains(song)) changed.add(song);
+        }
+        changed.sort(comparator);
+
+        MediaStoreHelper.LocalSong[] merged = new MediaStoreHelper.LocalSong[base.length];
+        int i = 0, j = 0, k = 0;
+        while (i < kept.size() && j < changed.size()) {
+            // Kept songs win ties so an unchanged library keeps its exact order
+            if (comparator.compare(changed.get(j), kept.get(i)) < 0) {
+                merged[k++] = changed.get(j++);
+            } else {
+                merged[k++] = kept.get(i++);
+            }
+        }
+        while (i < kept.size()) merged[k++] = kept.get(i++);
+        while (j < changed.size()) merged[k++] = changed.get(j++);
+        return merged;
+    }
+
+    private static Comparator<MediaStoreHelper.LocalSong> comparatorFor(int mode) {
+        switch (mode) {
+            case MODE_DATE_ADDED:
+                return BY_DATE_ADDED;
+            case MODE_ARTIST:
+                return BY_ARTIST;
+            case MODE_LYRICS_QUALITY:
+                return BY_LYRICS_QUALITY;
+            default:
+                return BY_TITLE;
+        }
+    }
+
+    private static LyricsQualityIndex.Quality qualityOf(MediaStoreHelper.LocalSong song) {
+        return song.lyricsQuality != null ? song.lyricsQuality : NO_LYRICS;
+    }
+}
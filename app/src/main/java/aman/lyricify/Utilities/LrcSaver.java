@@ -92,6 +92,8 @@ public class LrcSaver {
                     if (os != null) {
                         os.write(lyrics.getBytes("UTF-8"));
                         os.flush();
+                        // Overwriting in place leaves the folder's mtime alone
+                        SidecarDirectoryCache.getInstance(context).invalidate(audioFilePath);
                         notifySuccess(outputFilePath);
                     } else {
                         notifyError("Cannot open file for writing");
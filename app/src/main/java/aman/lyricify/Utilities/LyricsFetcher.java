@@ -43,13 +43,14 @@ public class LyricsFetcher {
     public void fetchBySongId(String songId) {
         showLoading();
 
-        ApiClient.getLyrics(
+        NetworkClient.getLyrics(
                 songId,
                 new ApiClient.LyricsCallback() {
                     @Override
                     public void onSuccess(ApiClient.LyricsResponse lyrics) {
                         currentLyricsResponse = lyrics;
                         displayLyrics(lyrics.plain);
+                        reportLyricsShown();
                         if (callback != null) {
                             callback.onLyricsLoaded(lyrics);
                         }
@@ -77,6 +78,7 @@ public class LyricsFetcher {
                     public void onSuccess(ApiClient.LyricsResponse lyrics) {
                         currentLyricsResponse = lyrics;
                         displayLyrics(lyrics.plain);
+                        reportLyricsShown();
                         if (callback != null) {
                             callback.onLyricsLoaded(lyrics);
                         }
@@ -126,6 +128,17 @@ public class LyricsFetcher {
         }
     }
 
+    /** Ends the latency trace on the frame that first draws the fetched lyrics. */
+    private void reportLyricsShown() {
+        TextView lyricsTextViewPlain = lyricsTextViewPlainRef.get();
+        if (lyricsTextViewPlain == null) return;
+        // Queued behind displayLyrics' setText, then waits for the next frame
+        lyricsTextViewPlain.post(
+                () ->
+                        lyricsTextViewPlain.postOnAnimation(
+                                () -> LatencyTracer.finish(LatencyTracer.STAGE_LYRICS_SHOWN)));
+    }
+
     /** Display error message */
     private void displayError(String error) {
         TextView lyricsTextView = lyricsTextViewRef.get();
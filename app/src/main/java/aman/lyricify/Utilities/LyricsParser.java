@@ -1,123 +1,310 @@
 package aman.lyricify;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.util.Locale;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class LyricsParser {
 
+    /**
+     * Every LRC flavour we derive from one API response.
+     * The ELRC variants are null for line-synced ("Line") responses.
+     */
+    public static class ConvertedLyrics {
+        public final String type;
+        public final String lrc;
+        public final String lrcMultiPerson;
+        public final String elrc;
+        public final String elrcMultiPerson;
+
+        ConvertedLyrics(String type, String lrc, String lrcMultiPerson, String elrc, String elrcMultiPerson) {
+            this.type = type;
+            this.lrc = lrc;
+            this.lrcMultiPerson = lrcMultiPerson;
+            this.elrc = elrc;
+            this.elrcMultiPerson = elrcMultiPerson;
+        }
+
+        public boolean isWordSynced() {
+            return isKaraokeType(type);
+        }
+    }
+
     public static String convertToLRC(String jsonResponse) {
         if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
             return "No lyrics available";
         }
 
         try {
-            JSONObject root = new JSONObject(jsonResponse);
-
-            if (!root.has("content")) {
+            ConvertedLyrics converted = parse(jsonResponse, false);
+            if (converted == null) {
                 return "No lyrics found";
             }
 
-            String type = root.optString("type", "Line");
-
             // Karaoke: syllable/word-level timing
-            if ("Syllable".equals(type) || "Word".equals(type)) {
-                return convertToKaraokeLRC(root);
-            } else {
-                return convertToNormalLRC(root);
-            }
+            return converted.isWordSynced() ? converted.elrcMultiPerson : converted.lrc;
 
-        } catch (JSONException e) {
+        } catch (IOException e) {
             return "Error parsing lyrics";
         }
     }
 
-    // ----------------- NORMAL LRC -----------------
-    private static String convertToNormalLRC(JSONObject root) throws JSONException {
-        JSONArray content = root.getJSONArray("content");
-        StringBuilder lrcBuilder = new StringBuilder();
-
-        for (int i = 0; i < content.length(); i++) {
-            JSONObject line = content.getJSONObject(i);
-            long timestamp = line.getLong("timestamp");
-            String timeTag = formatTimestamp(timestamp);
-
-            // Build line text
-            StringBuilder lineText = new StringBuilder();
-            JSONArray textArray = line.getJSONArray("text");
-            for (int j = 0; j < textArray.length(); j++) {
-                JSONObject word = textArray.getJSONObject(j);
-                lineText.append(word.getString("text"));
-                if (j < textArray.length() - 1) lineText.append(" ");
+    /**
+     * Streams the API response once and writes LRC, LRC multi-person, ELRC and
+     * ELRC multi-person side by side. Returns null if there is no "content".
+     */
+    public static ConvertedLyrics convert(String jsonResponse) throws IOException {
+        return parse(jsonResponse, true);
+    }
+
+    /**
+     * With {@code all} false only the flavour {@link #convertToLRC} returns is
+     * written, LRC for line-synced and ELRC multi-person for karaoke responses;
+     * the others are left null. If "type" only comes after "content", both
+     * candidates are written since the choice isn't known yet.
+     */
+    private static ConvertedLyrics parse(String jsonResponse, boolean all) throws IOException {
+        JsonPullReader reader = new JsonPullReader(jsonResponse);
+        LineBuffer line = new LineBuffer();
+
+        StringBuilder lrc = null;
+        StringBuilder lrcMulti = null;
+        StringBuilder elrc = null;
+        StringBuilder elrcMulti = null;
+
+        String type = "Line";
+        boolean typeKnown = false;
+        boolean hasContent = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("type".equals(name) && !reader.isNull()) {
+                type = reader.nextString();
+                typeKnown = true;
+            } else if ("content".equals(name)) {
+                if (!hasContent) {
+                    boolean karaoke = isKaraokeType(type);
+                    int capacity = jsonResponse.length() / 4;
+                    if (all || !typeKnown || !karaoke) lrc = new StringBuilder(capacity);
+                    if (all) lrcMulti = new StringBuilder(capacity);
+                    if (all) elrc = new StringBuilder(capacity);
+                    if (all || !typeKnown || karaoke) elrcMulti = new StringBuilder(capacity);
+                }
+                hasContent = true;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    line.read(reader);
+                    if (lrc != null) line.writeLrc(lrc, false);
+                    if (lrcMulti != null) line.writeLrc(lrcMulti, true);
+                    if (elrc != null) line.writeElrc(elrc, false);
+                    if (elrcMulti != null) line.writeElrc(elrcMulti, true);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
+        }
+        reader.endObject();
+
+        if (!hasContent) return null;
 
-            lrcBuilder.append(timeTag)
-                      .append(lineText.toString().trim())
-                      .append("\n");
+        // Word timings are only mandatory for karaoke responses, and "type"
+        // may come after "content", so this can only be checked at the end
+        if (isKaraokeType(type)) {
+            if (line.missingWordTimestamp) throw new IOException("Word without timestamp");
+            return new ConvertedLyrics(type, finish(lrc), finish(lrcMulti), finish(elrc), finish(elrcMulti));
         }
+        return new ConvertedLyrics(type, finish(lrc), finish(lrcMulti), null, null);
+    }
 
-        return lrcBuilder.toString().trim();
+    private static boolean isKaraokeType(String type) {
+        return "Syllable".equals(type) || "Word".equals(type);
     }
 
-    // ----------------- KARAOKE LRC -----------------
-    private static String convertToKaraokeLRC(JSONObject root) throws JSONException {
-        JSONArray content = root.getJSONArray("content");
-        StringBuilder lrcBuilder = new StringBuilder();
+    // ----------------- LINE BUFFER -----------------
+
+    /**
+     * Holds the current line while it is streamed. Keys can arrive in any
+     * order, so we collect a line before writing it. Arrays are reused
+     * across lines.
+     */
+    private static final class LineBuffer {
+        long timestamp;
+        long endtime;
+        boolean oppositeTurn;
+
+        int wordCount;
+        String[] words = new String[16];
+        long[] wordStarts = new long[16];
+        boolean[] parts = new boolean[16];
 
-        for (int i = 0; i < content.length(); i++) {
-            JSONObject line = content.getJSONObject(i);
+        boolean missingWordTimestamp;
 
-            long lineTimestamp = line.getLong("timestamp");
-            long lineEndtime = line.optLong("endtime", lineTimestamp);
+        private final StringBuilder plain = new StringBuilder(128);
 
-            boolean oppositeTurn = line.optBoolean("oppositeTurn", false);
-            String voice = oppositeTurn ? "v2" : "v1";
+        void read(JsonPullReader reader) throws IOException {
+            timestamp = -1;
+            endtime = -1;
+            oppositeTurn = false;
+            wordCount = 0;
 
-            JSONArray textArray = line.getJSONArray("text");
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.isNull()) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "timestamp":
+                        timestamp = reader.nextLong();
+                        break;
+                    case "endtime":
+                        endtime = reader.nextLong();
+                        break;
+                    case "oppositeTurn":
+                        oppositeTurn = reader.nextBoolean();
+                        break;
+                    case "text":
+                        readWords(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (timestamp < 0) throw new IOException("Line without timestamp");
+            if (endtime < 0) endtime = timestamp;
+        }
+
+        private void readWords(JsonPullReader reader) throws IOException {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String text = null;
+                long start = -1;
+                boolean part = false;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.isNull()) {
+                        reader.nextNull();
+                        continue;
+                    }
+                    switch (name) {
+                        case "text":
+                            text = reader.nextString();
+                            break;
+                        case "timestamp":
+                            start = reader.nextLong();
+                            break;
+                        case "part":
+                            part = reader.nextBoolean();
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                if (text == null) throw new IOException("Word without text");
+                if (start < 0) missingWordTimestamp = true;
+                addWord(text, start, part);
+            }
+            reader.endArray();
+        }
+
+        private void addWord(String text, long start, boolean part) {
+            if (wordCount == words.length) {
+                int size = wordCount * 2;
+                words = Arrays.copyOf(words, size);
+                wordStarts = Arrays.copyOf(wordStarts, size);
+                parts = Arrays.copyOf(parts, size);
+            }
+            words[wordCount] = text;
+            wordStarts[wordCount] = start;
+            parts[wordCount] = part;
+            wordCount++;
+        }
 
-            // Start building karaoke line
-            StringBuilder karaokeLine = new StringBuilder();
-            karaokeLine.append(formatTimestamp(lineTimestamp))
-                       .append(voice)
-                       .append(":");
+        /** [mm:ss.mmm]text  (or [mm:ss.mmm]v1:text) */
+        void writeLrc(StringBuilder out, boolean multiPerson) {
+            plain.setLength(0);
+            for (int i = 0; i < wordCount; i++) {
+                plain.append(words[i]);
+                if (i < wordCount - 1 && !parts[i]) plain.append(' ');
+            }
+
+            out.append('[');
+            appendTimestamp(out, timestamp);
+            out.append(']');
+            if (multiPerson) out.append(voice()).append(':');
+            appendTrimmed(out, plain);
+            out.append('\n');
+        }
 
-            for (int j = 0; j < textArray.length(); j++) {
-                JSONObject word = textArray.getJSONObject(j);
-                long wordStart = word.getLong("timestamp");
+        /** [mm:ss.mmm]<mm:ss.mmm>word <mm:ss.mmm>word <end> */
+        void writeElrc(StringBuilder out, boolean multiPerson) {
+            out.append('[');
+            appendTimestamp(out, timestamp);
+            out.append(']');
+            if (multiPerson) out.append(voice()).append(':');
 
-                karaokeLine.append("<")
-                           .append(formatTimestampShort(wordStart))
-                           .append(">")
-                           .append(word.getString("text"));
-                if ((j < textArray.length() - 1) && !word.optBoolean("part" , false)) karaokeLine.append(" ");
+            for (int i = 0; i < wordCount; i++) {
+                out.append('<');
+                appendTimestamp(out, wordStarts[i]);
+                out.append('>').append(words[i]);
+                if (i < wordCount - 1 && !parts[i]) out.append(' ');
             }
 
             // Add line endtime at the end
-            karaokeLine.append(" <").append(formatTimestampShort(lineEndtime)).append(">");
+            out.append(" <");
+            appendTimestamp(out, endtime);
+            out.append(">\n");
+        }
 
-            lrcBuilder.append(karaokeLine).append("\n");
+        private String voice() {
+            return oppositeTurn ? "v2" : "v1";
         }
+    }
+
+    // ----------------- OUTPUT HELPERS -----------------
 
-        return lrcBuilder.toString().trim();
+    private static void appendTrimmed(StringBuilder out, CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        out.append(text, start, end);
     }
 
-    // ----------------- TIMESTAMP FORMATTING -----------------
-    private static String formatTimestamp(long milliseconds) {
-        int totalSeconds = (int) (milliseconds / 1000);
-        int minutes = totalSeconds / 60;
-        int seconds = totalSeconds % 60;
-        int millis = (int) (milliseconds % 1000);
-        return String.format(Locale.US, "[%02d:%02d.%03d]", minutes, seconds, millis);
+    private static String finish(StringBuilder sb) {
+        if (sb == null) return null;
+        int end = sb.length();
+        while (end > 0 && sb.charAt(end - 1) <= ' ') end--;
+        int start = 0;
+        while (start < end && sb.charAt(start) <= ' ') start++;
+        return sb.substring(start, end);
     }
 
-    // For short format in karaoke: mm:ss.mmm without []
-    private static String formatTimestampShort(long milliseconds) {
-        int totalSeconds = (int) (milliseconds / 1000);
-        int minutes = totalSeconds / 60;
-        int seconds = totalSeconds % 60;
+    // ----------------- TIMESTAMP FORMATTING -----------------
+
+    /**
+     * Writes mm:ss.mmm without going through String.format. Minutes grow past
+     * two digits for very long tracks, same as %02d did.
+     */
+    static void appendTimestamp(StringBuilder out, long milliseconds) {
+        if (milliseconds < 0) milliseconds = 0;
+        long minutes = milliseconds / 60000;
+        int seconds = (int) ((milliseconds / 1000) % 60);
         int millis = (int) (milliseconds % 1000);
-        return String.format(Locale.US, "%02d:%02d.%03d", minutes, seconds, millis);
+
+        if (minutes < 10) out.append('0');
+        out.append(minutes).append(':');
+        out.append((char) ('0' + seconds / 10)).append((char) ('0' + seconds % 10)).append('.');
+        out.append((char) ('0' + millis / 100))
+           .append((char) ('0' + (millis / 10) % 10))
+           .append((char) ('0' + millis % 10));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,401 @@
+package aman.lyricify;
+
+import android.content.Context;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import aman.taglib.TagLib;
+
+/**
+ * Persistent index of what lyrics each local file carries.
+ *
+ * Embedded lyrics and the .lrc/.ttml sidecar are classified once (plain, line
+ * synced or word synced, plus line count, duet/background vocal flags and how
+ * much of the track the timestamps cover) and stored keyed by path. An entry is
+ * only trusted while the file's size and modification time still match, both
+ * of which come with the MediaStore row, and while the sidecar it was built
+ * from has the same size and modification time, both of which come with the
+ * {@link SidecarDirectoryCache} listing. So the library screen can filter and
+ * sort by lyrics without touching TagLib or the filesystem.
+ *
+ * Stale or missing entries are filled in by {@link #indexAll} on a background
+ * thread.
+ */
+public class LyricsQualityIndex {
+
+    private static final String TAG = "LyricsQualityIndex";
+    private static final String CACHE_FILE = "lyrics_quality.dat";
+
+    public static final int FORMAT_NONE = 0;
+    public static final int FORMAT_PLAIN = 1;
+    public static final int FORMAT_LINE_SYNCED = 2;
+    public static final int FORMAT_WORD_SYNCED = 3;
+
+    // [mm:ss.xx] at the start of a line, <mm:ss.xx> inside it
+    private static final Pattern LINE_TAG =
+            Pattern.compile("^\\[(\\d{1,3}):(\\d{2})(?:[.:](\\d{1,3}))?\\]");
+    private static final Pattern WORD_TAG =
+            Pattern.compile("<(\\d{1,3}):(\\d{2})(?:[.:](\\d{1,3}))?>");
+    // TTML clock values: "1:02.345", "01:02:03.4" or "62.345s"
+    private static final Pattern TTML_TIME =
+            Pattern.compile("(?:begin|end)=\"((?:\\d+:)?(?:\\d+:)?\\d+(?:\\.\\d+)?)(s?)\"");
+
+    private static LyricsQualityIndex instance;
+
+    private HashMap<String, Entry> index;
+    private boolean isDirty = false;
+
+    /** Classification of one lyrics text. */
+    public static class Quality implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static final Quality NONE = new Quality(FORMAT_NONE, 0, false, false, 0f);
+
+        public final int format;
+        public final int lineCount;
+        public final boolean duet;
+        public final boolean backgroundVocals;
+        // Last timestamp relative to the track duration, 0 for plain lyrics
+        public final float coverage;
+
+        Quality(int format, int lineCount, boolean duet, boolean backgroundVocals, float coverage) {
+            this.format = format;
+            this.lineCount = lineCount;
+            this.duet = duet;
+            this.backgroundVocals = backgroundVocals;
+            this.coverage = coverage;
+        }
+
+        /** Orders by format first, then by how much of the song is timed. */
+        public int compareTo(Quality other) {
+            if (format != other.format) return Integer.compare(format, other.format);
+            if (coverage != other.coverage) return Float.compare(coverage, other.coverage);
+            return Integer.compare(lineCount, other.lineCount);
+        }
+
+        public static Quality none() {
+            return NONE;
+        }
+
+        private Object readResolve() {
+            return format == FORMAT_NONE ? NONE : this;
+        }
+    }
+
+    /** What is known about one file, valid for a given size and mtime of it and its sidecar. */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final long size;
+        final long lastModified;
+        // 0 when there is no sidecar; entries saved before these fields read as 0 too
+        final long sidecarSize;
+        final long sidecarModified;
+        public final Quality embedded;
+        public final Quality sidecar;
+
+        Entry(long size, long lastModified, SidecarDirectoryCache.Sidecar sidecarFile,
+                Quality embedded, Quality sidecar) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sidecarSize = sidecarFile != null ? sidecarFile.size : 0;
+            this.sidecarModified = sidecarFile != null ? sidecarFile.lastModified : 0;
+            this.embedded = embedded;
+            this.sidecar = sidecar;
+        }
+
+        public boolean hasEmbedded() {
+            return embedded.format != FORMAT_NONE;
+        }
+
+        public boolean hasSidecar() {
+            return sidecar.format != FORMAT_NONE;
+        }
+
+        /** The better of the embedded and sidecar lyrics. */
+        public Quality best() {
+            return embedded.compareTo(sidecar) >= 0 ? embedded : sidecar;
+        }
+    }
+
+    public static synchronized LyricsQualityIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new LyricsQualityIndex();
+            instance.loadIndex(context);
+        }
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadIndex(Context context) {
+        File file = new File(context.getCacheDir(), CACHE_FILE);
+        if (!file.exists()) {
+            index = new HashMap<>();
+            return;
+        }
+
+        try (ObjectInputStream ois =
+                new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            index = (HashMap<String, Entry>) ois.readObject();
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading index", e);
+            index = new HashMap<>();
+        }
+    }
+
+    /**
+     * Returns the entry for {@code song} if it is still valid for the size and
+     * mtime MediaStore reports and for {@code sidecar}, the song's sidecar in
+     * the {@link SidecarDirectoryCache} listing (null if it has none), otherwise
+     * null. Only stats the audio file when MediaStore did not report them.
+     */
+    public Entry lookup(MediaStoreHelper.LocalSong song, SidecarDirectoryCache.Sidecar sidecar) {
+        if (song.filePath == null) return null;
+        Entry entry;
+        synchronized (this) {
+            entry = index.get(song.filePath);
+        }
+        if (entry == null) return null;
+        if (entry.size != sizeOf(song) || entry.lastModified != lastModifiedOf(song)) return null;
+        // A sidecar that appeared, went away or was rewritten
+        long sidecarSize = sidecar != null ? sidecar.size : 0;
+        long sidecarModified = sidecar != null ? sidecar.lastModified : 0;
+        if (entry.sidecarSize != sidecarSize || entry.sidecarModified != sidecarModified) {
+            return null;
+        }
+        return entry;
+    }
+
+    private static long sizeOf(MediaStoreHelper.LocalSong song) {
+        return song.size > 0 ? song.size : new File(song.filePath).length();
+    }
+
+    private static long lastModifiedOf(MediaStoreHelper.LocalSong song) {
+        return song.dateModified > 0
+                ? song.dateModified * 1000L
+                : new File(song.filePath).lastModified();
+    }
+
+    /**
+     * Analyses every song without a valid entry. Reads tags and sidecars, so
+     * call it off the main thread. The songs themselves are not touched since
+     * the UI reads them; apply the result on the UI thread. {@code sidecars}
+     * should have been scanned for the same load, so it answers from memory.
+     *
+     * @return each song's best quality by path, and how many entries were
+     *     added or replaced
+     */
+    public IndexResult indexAll(
+            List<MediaStoreHelper.LocalSong> songs, SidecarDirectoryCache sidecars) {
+        IndexResult result = new IndexResult();
+        TagLib tagLib = new TagLib();
+        for (MediaStoreHelper.LocalSong song : songs) {
+            SidecarDirectoryCache.Sidecar sidecar = sidecars.sidecarFor(song.filePath);
+            Entry entry = lookup(song, sidecar);
+            if (entry == null && song.filePath != null) {
+                entry = analyzeFile(tagLib, song, sidecar);
+                if (entry != null) {
+                    synchronized (this) {
+                        index.put(song.filePath, entry);
+                        isDirty = true;
+                    }
+                    result.updated++;
+                }
+            }
+            if (entry != null) result.qualities.put(song.filePath, entry.best());
+        }
+        return result;
+    }
+
+    /** What {@link #indexAll} found, to be applied to the songs on the UI thread. */
+    public static class IndexResult {
+        public final HashMap<String, Quality> qualities = new HashMap<>();
+        public int updated;
+
+        /** Sets each song's lyrics quality from the result. UI thread only. */
+        public void applyTo(List<MediaStoreHelper.LocalSong> songs) {
+            for (MediaStoreHelper.LocalSong song : songs) {
+                if (song.filePath == null) continue;
+                Quality quality = qualities.get(song.filePath);
+                if (quality != null) song.lyricsQuality = quality;
+            }
+        }
+    }
+
+    private Entry analyzeFile(
+            TagLib tagLib, MediaStoreHelper.LocalSong song, SidecarDirectoryCache.Sidecar sidecarFile) {
+        File file = new File(song.filePath);
+        if (!file.exists()) return null;
+
+        // Same identity lookup() checks, so the next load matches without a stat
+        long size = sizeOf(song);
+        long lastModified = lastModifiedOf(song);
+
+        Quality embedded = Quality.NONE;
+        try {
+            HashMap<String, String> metadata = tagLib.getMetadata(song.filePath);
+            if (metadata != null) {
+                for (String key : metadata.keySet()) {
+                    if (key.equalsIgnoreCase("LYRICS")) {
+                        embedded = analyze(metadata.get(key), song.duration);
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "TagLib read error: " + song.filePath, e);
+        }
+
+        Quality sidecar = Quality.NONE;
+        int lastDot = song.filePath.lastIndexOf('.');
+        if (sidecarFile != null && lastDot != -1) {
+            String basePath = song.filePath.substring(0, lastDot);
+            sidecar = analyzeSidecar(new File(basePath + ".lrc"), song.duration);
+            if (sidecar.format == FORMAT_NONE) {
+                sidecar = analyzeSidecar(new File(basePath + ".ttml"), song.duration);
+            }
+        }
+
+        // Stamped with the listing lookup() will compare against, not a fresh stat
+        return new Entry(size, lastModified, sidecarFile, embedded, sidecar);
+    }
+
+    private static Quality analyzeSidecar(File file, long durationMs) {
+        if (!file.isFile()) return Quality.NONE;
+        try {
+            String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Quality quality = analyze(text, durationMs);
+            // An existing but empty sidecar still counts as having one, as before
+            return quality.format == FORMAT_NONE
+                    ? new Quality(FORMAT_PLAIN, 0, false, false, 0f)
+                    : quality;
+        } catch (IOException e) {
+            Log.e(TAG, "Sidecar read error: " + file, e);
+            return new Quality(FORMAT_PLAIN, 0, false, false, 0f);
+        }
+    }
+
+    /** Classifies LRC, enhanced LRC, TTML or plain text lyrics. */
+    static Quality analyze(String text, long durationMs) {
+        if (text == null || text.trim().isEmpty()) return Quality.NONE;
+        if (text.contains("<tt")) return analyzeTtml(text, durationMs);
+
+        int lines = 0;
+        int syncedLines = 0;
+        boolean wordSynced = false;
+        boolean duet = false;
+        boolean background = false;
+        long lastTimeMs = 0;
+
+        for (String rawLine : text.split("\n")) {
+            String line = rawLine.trim();
+            if (line.isEmpty()) continue;
+
+            Matcher lineTag = LINE_TAG.matcher(line);
+            String content = line;
+            if (lineTag.find()) {
+                syncedLines++;
+                lastTimeMs = Math.max(lastTimeMs, toMillis(lineTag));
+                content = line.substring(lineTag.end()).trim();
+            } else if (line.startsWith("[") && line.endsWith("]") && !line.startsWith("[bg:")) {
+                continue; // [ar:], [ti:], [offset:] and other headers
+            }
+
+            if (content.startsWith("[bg:")) background = true;
+            if (content.startsWith("v2:")) duet = true;
+
+            Matcher wordTag = WORD_TAG.matcher(content);
+            while (wordTag.find()) {
+                wordSynced = true;
+                lastTimeMs = Math.max(lastTimeMs, toMillis(wordTag));
+            }
+            lines++;
+        }
+
+        if (lines == 0) return Quality.NONE;
+        int format =
+                wordSynced
+                        ? FORMAT_WORD_SYNCED
+                        : syncedLines > 0 ? FORMAT_LINE_SYNCED : FORMAT_PLAIN;
+        float coverage = format == FORMAT_PLAIN ? 0f : coverage(lastTimeMs, durationMs);
+        return new Quality(format, lines, duet, background, coverage);
+    }
+
+    private static Quality analyzeTtml(String text, long durationMs) {
+        int lines = count(text, "<p");
+        boolean wordSynced = text.contains("<span") && text.contains("begin=");
+        boolean duet = text.contains("\"v2\"");
+        boolean background = text.contains("x-bg");
+
+        long lastTimeMs = 0;
+        Matcher time = TTML_TIME.matcher(text);
+        while (time.find()) {
+            lastTimeMs = Math.max(lastTimeMs, parseClock(time.group(1)));
+        }
+
+        int format;
+        if (wordSynced) format = FORMAT_WORD_SYNCED;
+        else if (lastTimeMs > 0) format = FORMAT_LINE_SYNCED;
+        else format = lines > 0 ? FORMAT_PLAIN : FORMAT_NONE;
+        if (format == FORMAT_NONE) return Quality.NONE;
+
+        float coverage = format == FORMAT_PLAIN ? 0f : coverage(lastTimeMs, durationMs);
+        return new Quality(format, lines, duet, background, coverage);
+    }
+
+    private static long toMillis(Matcher m) {
+        long minutes = Long.parseLong(m.group(1));
+        long seconds = Long.parseLong(m.group(2));
+        long fraction = 0;
+        String frac = m.group(3);
+        if (frac != null) {
+            fraction = Long.parseLong(frac);
+            if (frac.length() == 1) fraction *= 100;
+            else if (frac.length() == 2) fraction *= 10;
+        }
+        return (minutes * 60 + seconds) * 1000 + fraction;
+    }
+
+    private static long parseClock(String value) {
+        try {
+            String[] parts = value.split(":");
+            double seconds = 0;
+            for (String part : parts) seconds = seconds * 60 + Double.parseDouble(part);
+            return (long) (seconds * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static float coverage(long lastTimeMs, long durationMs) {
+        if (durationMs <= 0) return 0f;
+        return Math.min(1f, (float) lastTimeMs / durationMs);
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i != -1; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Persists the index if anything changed since the last save. */
+    public synchronized void saveIndex(Context context) {
+        if (!isDirty) return;
+
+        File file = new File(context.getCacheDir(), CACHE_FILE);
+        try (ObjectOutputStream oos =
+                new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            oos.writeObject(index);
+            isDirty = false;
+        } catch (IOException e) {
+            Log.e(TAG, "Error saving index", e);
+        }
+    }
+}
@@ -205,6 +205,7 @@ public class MediaSessionHandler {
         }
         if (title == null || title.trim().isEmpty()) title = "Unknown Track";
 
+        LatencyTracer.trackChanged(contextRef.get(), title, artist, "session");
         Bitmap artwork = extractArtwork(metadata);
         callback.onMediaFound(title, artist, artwork);
     }
@@ -10,6 +10,7 @@ import android.provider.MediaStore;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 public class MediaStoreHelper {
     private static final String TAG = "MediaStoreHelper";
@@ -25,6 +26,15 @@ public class MediaStoreHelper {
         public long duration;
         public long dateAdded;
         public int matchScore;
+        // File identity as MediaStore last saw it (bytes, seconds), 0 if unknown
+        public long size;
+        public long dateModified;
+        // Set from LyricsQualityIndex, null until the file has been indexed
+        public LyricsQualityIndex.Quality lyricsQuality;
+
+        // Sort keys, lowercased once instead of per comparison
+        private String titleKey;
+        private String artistKey;
 
         public LocalSong(Uri fileUri, String filePath, String title, String artist, String album, long albumId, long duration, long dateAdded) {
             this.fileUri = fileUri;
@@ -37,6 +47,20 @@ public class MediaStoreHelper {
             this.dateAdded = dateAdded;
             this.matchScore = 0;
         }
+
+        public String titleKey() {
+            if (titleKey == null) titleKey = sortKey(title);
+            return titleKey;
+        }
+
+        public String artistKey() {
+            if (artistKey == null) artistKey = sortKey(artist);
+            return artistKey;
+        }
+
+        private static String sortKey(String value) {
+            return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+        }
     }
 
     public interface SearchCallback {
@@ -50,9 +74,18 @@ public class MediaStoreHelper {
     }
 
     public static List<LocalSong> getAllSongs(Context context) {
+        return getAllSongs(context, null, null);
+    }
+
+    /**
+     * All music rows matching {@code folderSelection} (ANDed with the music
+     * filter), e.g. from {@link FolderScope#selection()}; null for no restriction.
+     */
+    public static List<LocalSong> getAllSongs(Context context, String folderSelection, String[] selectionArgs) {
         List<LocalSong> allSongs = new ArrayList<>();
         try {
-            allSongs.addAll(queryMediaStore(context, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI, null, null));
+            allSongs.addAll(queryMediaStore(context, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI,
+                    folderSelection, selectionArgs, null, null));
             Collections.sort(allSongs, (s1, s2) -> s1.title.compareToIgnoreCase(s2.title));
         } catch (Exception e) {
             Log.e(TAG, "Error fetching all songs", e);
@@ -64,7 +97,8 @@ public class MediaStoreHelper {
         new Thread(() -> {
             try {
                 List<LocalSong> candidates = new ArrayList<>();
-                candidates.addAll(queryMediaStore(context, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI, searchTitle, searchArtist));
+                candidates.addAll(queryMediaStore(context, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI,
+                        null, null, searchTitle, searchArtist));
 
                 if (candidates.isEmpty()) {
                     callback.onNotFound();
@@ -85,11 +119,13 @@ public class MediaStoreHelper {
         }).start();
     }
 
-    private static List<LocalSong> queryMediaStore(Context context, Uri contentUri, String searchTitle, String searchArtist) {
+    private static List<LocalSong> queryMediaStore(Context context, Uri contentUri,
+            String extraSelection, String[] selectionArgs, String searchTitle, String searchArtist) {
         List<LocalSong> results = new ArrayList<>();
         ContentResolver resolver = context.getContentResolver();
 
         String selection = MediaStore.Audio.Media.IS_MUSIC + " != 0";
+        if (extraSelection != null) selection += " AND (" + extraSelection + ")";
         String[] projection = {
                 MediaStore.Audio.Media._ID,
                 MediaStore.Audio.Media.DATA,
@@ -98,10 +134,12 @@ public class MediaStoreHelper {
                 MediaStore.Audio.Media.ALBUM,
                 MediaStore.Audio.Media.ALBUM_ID,
                 MediaStore.Audio.Media.DURATION,
-                MediaStore.Audio.Media.DATE_ADDED
+                MediaStore.Audio.Media.DATE_ADDED,
+                MediaStore.Audio.Media.DATE_MODIFIED,
+                MediaStore.Audio.Media.SIZE
         };
 
-        try (Cursor cursor = resolver.query(contentUri, projection, selection, null, MediaStore.Audio.Media.TITLE + " ASC")) {
+        try (Cursor cursor = resolver.query(contentUri, projection, selection, selectionArgs, MediaStore.Audio.Media.TITLE + " ASC")) {
             if (cursor != null) {
                 int idCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media._ID);
                 int pathCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.DATA);
@@ -111,6 +149,8 @@ public class MediaStoreHelper {
                 int albumIdCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.ALBUM_ID);
                 int durationCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.DURATION);
                 int dateAddedCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.DATE_ADDED);
+                int dateModifiedCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.DATE_MODIFIED);
+                int sizeCol = cursor.getColumnIndexOrThrow(MediaStore.Audio.Media.SIZE);
 
                 String normalizedTitle = searchTitle != null ? normalize(searchTitle) : null;
                 String normalizedArtist = searchArtist != null ? normalize(searchArtist) : null;
@@ -128,7 +168,10 @@ public class MediaStoreHelper {
                         long duration = cursor.getLong(durationCol);
                         long dateAdded = cursor.getLong(dateAddedCol);
 
-                        results.add(new LocalSong(fileUri, path, title, artist, album, albumId, duration, dateAdded));
+                        LocalSong song = new LocalSong(fileUri, path, title, artist, album, albumId, duration, dateAdded);
+                        song.dateModified = cursor.getLong(dateModifiedCol);
+                        song.size = cursor.getLong(sizeCol);
+                        results.add(song);
                     }
                 }
             }
@@ -4,10 +4,16 @@ import android.app.AlertDialog;
 import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Context;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Color;
+import android.graphics.ImageDecoder;
+import android.graphics.drawable.AnimatedImageDrawable;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Spannable;
 import android.text.SpannableStringBuilder;
 import android.text.style.ForegroundColorSpan;
@@ -20,7 +26,9 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import aman.taglib.TagLib;
 
@@ -30,14 +38,20 @@ import aman.taglib.TagLib;
 public class MetadataManager {
 
     private static final String TAG = "MetadataManager";
+    // Matches the fixed height of the artwork preview in the dialog
+    private static final int ARTWORK_HEIGHT = 400;
+
     private final WeakReference<Context> contextRef;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public MetadataManager(Context context) {
         this.contextRef = new WeakReference<>(context);
     }
 
     /**
-     * Show metadata dialog with artwork and tags
+     * Show metadata dialog with artwork and tags.
+     * The dialog opens immediately; tags and artwork are read on a worker
+     * thread and each section is added as soon as it is ready.
      */
     public void showMetadataDialog(String filePath) {
         Context context = contextRef.get();
@@ -50,24 +64,80 @@ public class MetadataManager {
             return;
         }
 
-        TagLib tagLib = new TagLib();
-        HashMap<String, String> metadataMap = tagLib.getMetadata(filePath);
-        TagLib.Artwork[] artworks = tagLib.getArtwork(filePath);
-
         LinearLayout layout = new LinearLayout(context);
         layout.setOrientation(LinearLayout.VERTICAL);
         layout.setPadding(40, 40, 40, 40);
 
-        // Add artwork if available
-        if (artworks != null && artworks.length > 0) {
-            addArtworkToLayout(context, layout, artworks);
-        } else {
-            TextView noArtText = new TextView(context);
-            noArtText.setText("No artwork embedded in this file");
-            noArtText.setPadding(0, 0, 0, 20);
-            layout.addView(noArtText);
-        }
+        // Artwork goes above the tags, whichever finishes first
+        LinearLayout artworkSection = new LinearLayout(context);
+        artworkSection.setOrientation(LinearLayout.VERTICAL);
+        layout.addView(artworkSection);
+
+        TextView loadingText = new TextView(context);
+        loadingText.setText("Reading metadata...");
+        loadingText.setPadding(0, 0, 0, 20);
+        layout.addView(loadingText);
+
+        ScrollView scrollView = new ScrollView(context);
+        scrollView.addView(layout);
+
+        AlertDialog dialog = new AlertDialog.Builder(context)
+                .setTitle("Metadata & Artwork")
+                .setView(scrollView)
+                .setPositiveButton("OK", null)
+                .show();
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        dialog.setOnDismissListener(d -> cancelled.set(true));
+
+        // Decode artwork no larger than it is shown
+        int targetWidth = context.getResources().getDisplayMetrics().widthPixels;
+        int targetHeight = ARTWORK_HEIGHT;
+        Resources resources = context.getResources();
 
+        new Thread(() -> {
+            TagLib tagLib = new TagLib();
+
+            HashMap<String, String> metadataMap = tagLib.getMetadata(filePath);
+            postIfShowing(cancelled, () -> {
+                layout.removeView(loadingText);
+                addMetadataToLayout(dialog.getContext(), layout, metadataMap);
+            });
+            if (cancelled.get()) return;
+
+            TagLib.Artwork[] artworks = tagLib.getArtwork(filePath);
+            if (artworks == null || artworks.length == 0) {
+                postIfShowing(cancelled, () -> {
+                    TextView noArtText = new TextView(dialog.getContext());
+                    noArtText.setText("No artwork embedded in this file");
+                    noArtText.setPadding(0, 0, 0, 20);
+                    artworkSection.addView(noArtText);
+                });
+                return;
+            }
+
+            for (int i = 0; i < artworks.length; i++) {
+                if (cancelled.get()) return;
+                DecodedArtwork decoded = decodeArtwork(resources, artworks[i].data, targetWidth, targetHeight);
+                // Let the picture bytes go before decoding the next one
+                String mimeType = artworks[i].mimeType;
+                artworks[i] = null;
+                if (decoded == null) continue;
+
+                int number = i + 1;
+                postIfShowing(cancelled, () ->
+                        addArtworkToLayout(dialog.getContext(), artworkSection, number, decoded, mimeType));
+            }
+        }).start();
+    }
+
+    private void postIfShowing(AtomicBoolean cancelled, Runnable action) {
+        mainHandler.post(() -> {
+            if (!cancelled.get()) action.run();
+        });
+    }
+
+    private void addMetadataToLayout(Context context, LinearLayout layout, HashMap<String, String> metadataMap) {
         // Create HorizontalScrollView to handle long lines without wrapping
         HorizontalScrollView hScrollView = new HorizontalScrollView(context);
 
@@ -77,18 +147,20 @@ public class MetadataManager {
 
         // Use SpannableStringBuilder to color keys
         SpannableStringBuilder ssb = new SpannableStringBuilder();
-        for (String key : metadataMap.keySet()) {
-            int start = ssb.length();
-            ssb.append(key);
-            int end = ssb.length();
+        if (metadataMap != null) {
+            for (String key : metadataMap.keySet()) {
+                int start = ssb.length();
+                ssb.append(key);
+                int end = ssb.length();
 
-            // Apply Blue Color to the key
-            ssb.setSpan(new ForegroundColorSpan(Color.CYAN), start, end, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+                // Apply Blue Color to the key
+                ssb.setSpan(new ForegroundColorSpan(Color.CYAN), start, end, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
 
-            // Append the value
-            ssb.append(": ").append(metadataMap.get(key)).append("\n");
+                // Append the value
+                ssb.append(": ").append(metadataMap.get(key)).append("\n");
+            }
         }
-        
+
         metadataText.setText(ssb);
 
         // Add TextView to HorizontalScrollView
@@ -96,119 +168,106 @@ public class MetadataManager {
 
         // Add HorizontalScrollView to the main Vertical Layout
         layout.addView(hScrollView);
-
-        ScrollView scrollView = new ScrollView(context);
-        scrollView.addView(layout);
-
-        new AlertDialog.Builder(context)
-                .setTitle("Metadata & Artwork")
-                .setView(scrollView)
-                .setPositiveButton("OK", null)
-                .show();
     }
 
     /**
-     * Add artwork images to layout with animated image support (GIF/WebP)
+     * Add one decoded artwork (animated GIF/WebP start playing) and its info line
      */
-    private void addArtworkToLayout(Context context, LinearLayout layout, TagLib.Artwork[] artworks) {
-        for (int i = 0; i < artworks.length; i++) {
-            ImageView imageView = new ImageView(context);
-            imageView.setAdjustViewBounds(true);
-
-            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                    LinearLayout.LayoutParams.MATCH_PARENT, 400
-            );
-            params.setMargins(0, 0, 0, 10);
-            imageView.setLayoutParams(params);
-            imageView.setScaleType(ImageView.ScaleType.FIT_CENTER);
-
-            // Load image with animation support
-            boolean imageLoaded = loadAnimatedImage(imageView, artworks[i].data);
-            
-            if (imageLoaded) {
-                layout.addView(imageView);
-
-                // Get dimensions for info text
-                String dimensions = getDimensions(artworks[i].data);
-                TextView infoText = new TextView(context);
-                infoText.setText(
-                        "Artwork " + (i + 1) + ": " +
-                                dimensions +
-                                " - " + artworks[i].mimeType
-                );
-                infoText.setPadding(0, 0, 0, 20);
-                layout.addView(infoText);
-            }
+    private void addArtworkToLayout(Context context, LinearLayout layout, int number,
+                                    DecodedArtwork artwork, String mimeType) {
+        ImageView imageView = new ImageView(context);
+        imageView.setAdjustViewBounds(true);
+
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.MATCH_PARENT, ARTWORK_HEIGHT
+        );
+        params.setMargins(0, 0, 0, 10);
+        imageView.setLayoutParams(params);
+        imageView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        imageView.setImageDrawable(artwork.drawable);
+
+        // Start animation if it's an AnimatedImageDrawable (GIF/WebP)
+        if (artwork.drawable instanceof AnimatedImageDrawable) {
+            ((AnimatedImageDrawable) artwork.drawable).start();
+            Log.d(TAG, "Started animated image playback");
+        }
+        layout.addView(imageView);
+
+        TextView infoText = new TextView(context);
+        infoText.setText(
+                "Artwork " + number + ": " +
+                        artwork.width + "x" + artwork.height +
+                        " - " + mimeType
+        );
+        infoText.setPadding(0, 0, 0, 20);
+        layout.addView(infoText);
+    }
+
+    private static class DecodedArtwork {
+        final Drawable drawable;
+        // Size of the embedded picture, not of the decoded preview
+        final int width;
+        final int height;
+
+        DecodedArtwork(Drawable drawable, int width, int height) {
+            this.drawable = drawable;
+            this.width = width;
+            this.height = height;
         }
     }
 
     /**
-     * Load image with animation support for GIF/WebP
-     * Returns true if image was loaded successfully
+     * Decode embedded artwork downsampled to fit maxWidth x maxHeight, keeping
+     * animation for GIF/WebP. The original size comes from the header, so the
+     * full-resolution picture is never decoded. Runs off the UI thread.
      */
-    private boolean loadAnimatedImage(ImageView imageView, byte[] imageData) {
+    private DecodedArtwork decodeArtwork(Resources resources, byte[] imageData, int maxWidth, int maxHeight) {
         if (imageData == null || imageData.length == 0) {
-            return false;
+            return null;
         }
 
+        int[] size = new int[2];
         try {
-            // For Android 9+ (API 28+), use ImageDecoder to support animated images
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.P) {
-                android.graphics.ImageDecoder.Source source = 
-                    android.graphics.ImageDecoder.createSource(java.nio.ByteBuffer.wrap(imageData));
-                Drawable drawable = android.graphics.ImageDecoder.decodeDrawable(source);
-                imageView.setImageDrawable(drawable);
-                
-                // Start animation if it's an AnimatedImageDrawable (GIF/WebP)
-                if (drawable instanceof android.graphics.drawable.AnimatedImageDrawable) {
-                    ((android.graphics.drawable.AnimatedImageDrawable) drawable).start();
-                    Log.d(TAG, "Started animated image playback");
-                }
-                return true;
-            } else {
-                // Fallback for older Android versions - shows first frame only
-                Bitmap bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length);
-                if (bitmap != null) {
-                    imageView.setImageBitmap(bitmap);
-                    return true;
+            ImageDecoder.Source source = ImageDecoder.createSource(ByteBuffer.wrap(imageData));
+            Drawable drawable = ImageDecoder.decodeDrawable(source, (decoder, info, src) -> {
+                size[0] = info.getSize().getWidth();
+                size[1] = info.getSize().getHeight();
+                float scale = Math.min(1f, Math.min(
+                        (float) maxWidth / size[0], (float) maxHeight / size[1]));
+                if (scale < 1f) {
+                    decoder.setTargetSize(
+                            Math.max(1, Math.round(size[0] * scale)),
+                            Math.max(1, Math.round(size[1] * scale)));
                 }
-            }
+            });
+            return new DecodedArtwork(drawable, size[0], size[1]);
         } catch (Exception e) {
             Log.e(TAG, "Error loading animated image, trying fallback: " + e.getMessage());
-            // Fallback to static image on error
-            try {
-                Bitmap bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length);
-                if (bitmap != null) {
-                    imageView.setImageBitmap(bitmap);
-                    return true;
-                }
-            } catch (Exception fallbackError) {
-                Log.e(TAG, "Fallback also failed: " + fallbackError.getMessage());
-            }
         }
-        return false;
-    }
 
-    /**
-     * Get image dimensions as a string
-     */
-    private String getDimensions(byte[] imageData) {
+        // Fallback to a static, subsampled image
         try {
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.P) {
-                android.graphics.ImageDecoder.Source source = 
-                    android.graphics.ImageDecoder.createSource(java.nio.ByteBuffer.wrap(imageData));
-                Bitmap bitmap = android.graphics.ImageDecoder.decodeBitmap(source);
-                return bitmap.getWidth() + "x" + bitmap.getHeight();
-            } else {
-                BitmapFactory.Options options = new BitmapFactory.Options();
-                options.inJustDecodeBounds = true;
-                BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
-                return options.outWidth + "x" + options.outHeight;
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+            int width = options.outWidth;
+            int height = options.outHeight;
+            int sampleSize = 1;
+            while (width / (sampleSize * 2) >= maxWidth || height / (sampleSize * 2) >= maxHeight) {
+                sampleSize *= 2;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error getting dimensions: " + e.getMessage());
-            return "unknown";
+
+            options = new BitmapFactory.Options();
+            options.inSampleSize = sampleSize;
+            Bitmap bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+            if (bitmap == null) return null;
+            return new DecodedArtwork(new BitmapDrawable(resources, bitmap), width, height);
+        } catch (Exception fallbackError) {
+            Log.e(TAG, "Fallback also failed: " + fallbackError.getMessage());
         }
+        return null;
     }
 
     /**
@@ -0,0 +1,285 @@
+package aman.lyricify;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * The app's shared OkHttp client.
+ *
+ * One client means one connection pool and one on-disk HTTP cache for every
+ * caller, so artwork and API responses that allow caching are served locally
+ * and repeat requests to the same host re-use a warm connection. The
+ * dispatcher caps concurrent calls per host so a burst of artwork loads can't
+ * starve the lyrics API.
+ *
+ * Identical requests made while one is already in flight are merged: the
+ * network is hit once and every caller gets the result. Each call's timing is
+ * logged under {@link #TAG}.
+ */
+public final class NetworkClient {
+
+    private static final String TAG = "NetworkClient";
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE = 50L * 1024 * 1024;
+
+    private static final int MAX_REQUESTS = 16;
+    private static final int MAX_REQUESTS_PER_HOST = 4;
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static volatile OkHttpClient client;
+
+    // In-flight requests by key, with everyone waiting on them
+    private static final HashMap<String, List<BytesCallback>> inFlightBytes = new HashMap<>();
+    private static final HashMap<String, List<ApiClient.LyricsCallback>> inFlightLyrics =
+            new HashMap<>();
+
+    public interface BytesCallback {
+        void onSuccess(byte[] bytes, String contentType);
+
+        void onFailure(IOException e);
+    }
+
+    private NetworkClient() {}
+
+    public static OkHttpClient get(Context context) {
+        OkHttpClient result = client;
+        if (result == null) {
+            synchronized (NetworkClient.class) {
+                result = client;
+                if (result == null) {
+                    File cacheDir = context.getApplicationContext().getCacheDir();
+                    result = build(new File(cacheDir, CACHE_DIR));
+                    client = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Package-private so tests can build the real configuration without a Context
+    static OkHttpClient build(File cacheDir) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        return new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir, CACHE_SIZE))
+                .connectionPool(
+                        new ConnectionPool(
+                                MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .eventListenerFactory(call -> new TimingListener())
+                .build();
+    }
+
+    /**
+     * Downloads {@code url} into memory. Concurrent calls for the same URL share
+     * one request. Callbacks run on an OkHttp thread.
+     */
+    public static void fetchBytes(Context context, String url, BytesCallback callback) {
+        fetchBytes(get(context), url, callback);
+    }
+
+    static void fetchBytes(OkHttpClient client, String url, BytesCallback callback) {
+        synchronized (inFlightBytes) {
+            List<BytesCallback> waiting = inFlightBytes.get(url);
+            if (waiting != null) {
+                waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            waiting.add(callback);
+            inFlightBytes.put(url, waiting);
+        }
+
+        Request request;
+        try {
+            request = new Request.Builder().url(url).build();
+        } catch (IllegalArgumentException e) {
+            deliverBytes(url, null, null, new IOException("Invalid URL: " + url, e));
+            return;
+        }
+
+        client.newCall(request)
+                .enqueue(
+                        new Callback() {
+                            @Override
+                            public void onFailure(Call call, IOException e) {
+                                deliverBytes(url, null, null, e);
+                            }
+
+                            @Override
+                            public void onResponse(Call call, Response response) {
+                                try (ResponseBody body = response.body()) {
+                                    if (!response.isSuccessful() || body == null) {
+                                        deliverBytes(url, null, null,
+                                                new IOException("HTTP " + response.code()));
+                                        return;
+                                    }
+                                    String contentType =
+                                            body.contentType() != null
+                                                    ? body.contentType().toString()
+                                                    : null;
+                                    deliverBytes(url, body.bytes(), contentType, null);
+                                } catch (IOException e) {
+                                    deliverBytes(url, null, null, e);
+                                }
+                            }
+                        });
+    }
+
+    private static void deliverBytes(
+            String url, byte[] bytes, String contentType, IOException error) {
+        List<BytesCallback> waiting;
+        synchronized (inFlightBytes) {
+            waiting = inFlightBytes.remove(url);
+        }
+        if (waiting == null) return;
+        for (BytesCallback callback : waiting) {
+            if (error != null) callback.onFailure(error);
+            else callback.onSuccess(bytes, contentType);
+        }
+    }
+
+    /**
+     * {@link ApiClient#getLyrics} with concurrent calls for the same song ID
+     * merged into one. Forced refreshes should still go to ApiClient directly.
+     */
+    public static void getLyrics(String songId, ApiClient.LyricsCallback callback) {
+        synchronized (inFlightLyrics) {
+            List<ApiClient.LyricsCallback> waiting = inFlightLyrics.get(songId);
+            if (waiting != null) {
+                waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            waiting.add(callback);
+            inFlightLyrics.put(songId, waiting);
+        }
+
+        LatencyTracer.Span fetchSpan = LatencyTracer.begin(LatencyTracer.STAGE_LYRICS_FETCH);
+        ApiClient.getLyrics(
+                songId,
+                new ApiClient.LyricsCallback() {
+                    @Override
+                    public void onSuccess(ApiClient.LyricsResponse lyricsResponse) {
+                        fetchSpan.end();
+                        for (ApiClient.LyricsCallback waiting : takeLyricsWaiters(songId)) {
+                            waiting.onSuccess(lyricsResponse);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        fetchSpan.cancel();
+                        for (ApiClient.LyricsCallback waiting : takeLyricsWaiters(songId)) {
+                            waiting.onFailure(error);
+                        }
+                    }
+                });
+    }
+
+    private static List<ApiClient.LyricsCallback> takeLyricsWaiters(String songId) {
+        synchronized (inFlightLyrics) {
+            List<ApiClient.LyricsCallback> waiting = inFlightLyrics.remove(songId);
+            return waiting != null ? waiting : new ArrayList<>();
+        }
+    }
+
+    /** Logs where each call spent its time: queue, connect, first byte and total. */
+    private static final class TimingListener extends EventListener {
+        private long callStart;
+        private long connectStart = -1;
+        private long connectMs = -1;
+        private long firstByteMs = -1;
+        private long bodyBytes;
+        private String cacheResult = "network";
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectStart(
+                Call call, java.net.InetSocketAddress address, java.net.Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, okhttp3.Connection connection) {
+            if (connectStart >= 0) connectMs = elapsedMs(connectStart);
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            firstByteMs = elapsedMs(callStart);
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            bodyBytes = byteCount;
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            cacheResult = "cache";
+        }
+
+        @Override
+        public void cacheConditionalHit(Call call, Response cachedResponse) {
+            cacheResult = "revalidated";
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            log(call, null);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            log(call, ioe);
+        }
+
+        private void log(Call call, IOException error) {
+            Log.d(
+                    TAG,
+                    call.request().url().host()
+                            + " "
+                            + cacheResult
+                            + (error != null ? " FAILED" : "")
+                            + " total="
+                            + elapsedMs(callStart)
+                            + "ms ttfb="
+                            + firstByteMs
+                            + "ms connect="
+                            + (connectMs >= 0 ? connectMs + "ms" : "reused")
+                            + " bytes="
+                            + bodyBytes);
+        }
+
+        private static long elapsedMs(long startNanos) {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -30,7 +31,15 @@ import java.lang.ref.WeakReference;
 import aman.lyricify.glide.AudioFileCover;
 
 /**
- * Manages the "Now Playing" card display and updates
+ * Manages the "Now Playing" card display and updates.
+ *
+ * Updates are event driven: media session metadata changes arrive through
+ * {@link #prepareUpdate} and posted notifications through the broadcast
+ * receiver. A new track is shown as soon as its metadata is complete (title,
+ * artist and artwork). While artwork is missing it waits at most
+ * {@link #MAX_UPDATE_DELAY_MS} from the track's first update, which covers
+ * players that send the artwork a moment later. Artwork that only arrives
+ * after that replaces the placeholder when it comes, without polling.
  */
 public class NowPlayingManager {
     
@@ -58,12 +67,10 @@ public class NowPlayingManager {
     private String pendingArtist = null;
     private Bitmap pendingArtwork = null;
     private Runnable pendingUpdateRunnable = null;
-    private static final int UPDATE_DELAY_MS = 500;
-    
-    // Artwork monitoring
-    private Runnable artworkMonitoringRunnable;
-    private int artworkCheckAttempts = 0;
-    private static final int MAX_ARTWORK_ATTEMPTS = 15;
+    private LatencyTracer.Span debounceSpan = null;
+    // When the first update for the pending track arrived
+    private long pendingSince = 0;
+    private static final int MAX_UPDATE_DELAY_MS = 500;
     
     private NowPlayingCallback callback;
     
@@ -83,7 +90,8 @@ public class NowPlayingManager {
                 String source = intent.getStringExtra("source");
                 
                 if ((hasActiveMedia || pendingTitle != null) && 
-                    (source.equals("onNotificationPosted") || isWaitingForArtwork)) {
+                    (source.equals("onNotificationPosted") || isWaitingForArtwork
+                            || pendingTitle != null)) {
                     updateFromNotification(title, artist, artwork);
                 }
             }
@@ -127,17 +135,50 @@ public class NowPlayingManager {
         }
     }
     
+    /**
+     * Feeds in the latest metadata. Repeats for the track already on the card
+     * or already pending only fill in artwork, so playback state callbacks
+     * can call this freely.
+     */
     public void prepareUpdate(String title, String artist, Bitmap artwork) {
-        cancelPendingUpdate();
+        boolean hasArtwork = MediaSessionHandler.isValidBitmap(artwork);
         
-        pendingTitle = title;
-        pendingArtist = artist;
-        pendingArtwork = artwork;
+        // Same track as on the card: only the artwork can still improve
+        if (pendingTitle == null && hasActiveMedia
+                && title.equals(currentTitle) && artist.equals(currentArtist)) {
+            if (hasArtwork) uiHandler.post(() -> applyCurrentArtwork(artwork));
+            return;
+        }
         
-        requestExistingNotificationCheck();
+        if (pendingTitle != null && title.equals(pendingTitle) && artist.equals(pendingArtist)) {
+            // Same pending track: keep its deadline, just take what arrived
+            if (hasArtwork) pendingArtwork = artwork;
+        } else {
+            cancelPendingUpdate();
+            pendingTitle = title;
+            pendingArtist = artist;
+            pendingArtwork = hasArtwork ? artwork : null;
+            pendingSince = SystemClock.uptimeMillis();
+            debounceSpan = LatencyTracer.begin(LatencyTracer.STAGE_DEBOUNCE);
+            
+            // The notification may already carry the artwork; ask once per track
+            if (!hasArtwork) requestExistingNotificationCheck();
+        }
         
+        schedulePendingCommit();
+    }
+    
+    // Commits right away once the metadata is complete, else at the deadline
+    private void schedulePendingCommit() {
+        if (pendingUpdateRunnable != null) uiHandler.removeCallbacks(pendingUpdateRunnable);
         pendingUpdateRunnable = this::commitPendingUpdate;
-        uiHandler.postDelayed(pendingUpdateRunnable, UPDATE_DELAY_MS);
+        
+        if (MediaSessionHandler.isValidBitmap(pendingArtwork)) {
+            uiHandler.post(pendingUpdateRunnable);
+        } else {
+            long waited = SystemClock.uptimeMillis() - pendingSince;
+            uiHandler.postDelayed(pendingUpdateRunnable, Math.max(0, MAX_UPDATE_DELAY_MS - waited));
+        }
     }
     
     public void cancelPendingUpdate() {
@@ -145,6 +186,10 @@ public class NowPlayingManager {
             uiHandler.removeCallbacks(pendingUpdateRunnable);
             pendingUpdateRunnable = null;
         }
+        if (debounceSpan != null) {
+            debounceSpan.cancel();
+            debounceSpan = null;
+        }
         pendingTitle = null;
         pendingArtist = null;
         pendingArtwork = null;
@@ -152,6 +197,10 @@ public class NowPlayingManager {
     
     private void commitPendingUpdate() {
         if (pendingTitle == null) return;
+        if (debounceSpan != null) {
+            debounceSpan.end();
+            debounceSpan = null;
+        }
         
         final String finalTitle = pendingTitle;
         final String finalArtist = pendingArtist;
@@ -169,18 +218,19 @@ public class NowPlayingManager {
             nowPlayingArtist.setText(finalArtist);
             nowPlayingFilePath.setText("Searching file...");
             nowPlayingFilePath.setVisibility(View.VISIBLE);
+            LatencyTracer.mark(LatencyTracer.STAGE_CARD_SHOWN);
             
             // Initial load (Static Bitmap) - will be replaced if local file is found
             if (MediaSessionHandler.isValidBitmap(finalArtwork)) {
                 nowPlayingArtwork.setImageBitmap(finalArtwork);
+                LatencyTracer.mark(LatencyTracer.STAGE_ARTWORK);
                 currentArtwork = finalArtwork;
                 isWaitingForArtwork = false;
-                stopArtworkMonitoring();
             } else {
+                // Filled in by the next metadata change or posted notification
                 nowPlayingArtwork.setImageResource(R.drawable.ic_music_note);
                 currentArtwork = null;
                 isWaitingForArtwork = true;
-                startArtworkMonitoring();
             }
             
             nowPlayingCard.setOnClickListener(v -> {
@@ -203,10 +253,12 @@ public class NowPlayingManager {
     }
     
     private void searchForLocalFile(Context context, String title, String artist) {
+        LatencyTracer.Span searchSpan = LatencyTracer.begin(LatencyTracer.STAGE_LOCAL_SEARCH);
         MediaStoreHelper.searchLocalSong(context, title, artist, 
             new MediaStoreHelper.SearchCallback() {
                 @Override
                 public void onFound(MediaStoreHelper.LocalSong song) {
+                    searchSpan.end();
                     currentFilePath = song.filePath;
                     currentFileUri = song.fileUri;
                     
@@ -219,7 +271,6 @@ public class NowPlayingManager {
                         loadAnimatedArtwork(song.filePath);
                         
                         // Stop looking for notification artwork since we found the file
-                        stopArtworkMonitoring();
                         isWaitingForArtwork = false;
                     });
                     
@@ -230,6 +281,7 @@ public class NowPlayingManager {
                 
                 @Override
                 public void onNotFound() {
+                    searchSpan.end();
                     currentFilePath = null;
                     currentFileUri = null;
                     uiHandler.post(() -> {
@@ -240,6 +292,7 @@ public class NowPlayingManager {
                 
                 @Override
                 public void onError(String error) {
+                    searchSpan.cancel();
                     currentFilePath = null;
                     currentFileUri = null;
                     uiHandler.post(() -> {
@@ -287,6 +340,7 @@ public class NowPlayingManager {
                      if (resource instanceof Animatable) {
                          ((Animatable) resource).start();
                      }
+                     LatencyTracer.mark(LatencyTracer.STAGE_ARTWORK);
                      return false;
                  }
              })
@@ -298,44 +352,51 @@ public class NowPlayingManager {
         if (title == null || title.trim().isEmpty()) return;
         if (artist == null) artist = "Unknown Artist";
         
-        // Update pending if matches
+        // Update pending if matches; artwork completes it, so commit now
         if (pendingTitle != null && pendingTitle.equals(title) && 
             pendingArtist != null && pendingArtist.equals(artist)) {
-            if (artwork != null && pendingArtwork == null) {
+            if (MediaSessionHandler.isValidBitmap(artwork) && pendingArtwork == null) {
                 pendingArtwork = artwork;
+                schedulePendingCommit();
             }
             return;
         }
         
         // Update current if matches
-        if (title.equals(currentTitle) && artist.equals(currentArtist)) {
-            // FIX: If we found a local file (currentFilePath != null), it means we are likely
-            // displaying a high-quality GIF/WebP. Do NOT overwrite it with a static bitmap
-            // from the notification.
-            if (currentFilePath != null) {
-                 // We can update the backing field for fallback, but don't touch UI
-                 if (MediaSessionHandler.isValidBitmap(artwork)) {
-                     currentArtwork = artwork;
-                 }
-                 return;
-            }
-
-            // Normal behavior: Update static bitmap
-            if (MediaSessionHandler.isValidBitmap(artwork)) {
-                final Bitmap finalArtwork = artwork;
-                uiHandler.post(() -> {
-                    nowPlayingArtwork.setImageBitmap(finalArtwork);
-                    currentArtwork = finalArtwork;
-                    isWaitingForArtwork = false;
-                    stopArtworkMonitoring();
-                });
-            }
+        if (title.equals(currentTitle) && artist.equals(currentArtist)
+                && MediaSessionHandler.isValidBitmap(artwork)) {
+            final Bitmap finalArtwork = artwork;
+            uiHandler.post(() -> applyCurrentArtwork(finalArtwork));
         }
     }
     
+    /** Shows newly arrived artwork for the track already on the card. */
+    private void applyCurrentArtwork(Bitmap artwork) {
+        // FIX: If we found a local file (currentFilePath != null), it means we are likely
+        // displaying a high-quality GIF/WebP. Do NOT overwrite it with a static bitmap
+        // from the notification.
+        if (currentFilePath != null) {
+            // We can update the backing field for fallback, but don't touch UI
+            currentArtwork = artwork;
+            return;
+        }
+        // Repeats of the artwork on screen arrive with every state change; skip only those
+        if (isSameArtwork(artwork, currentArtwork)) return;
+        
+        nowPlayingArtwork.setImageBitmap(artwork);
+        LatencyTracer.mark(LatencyTracer.STAGE_ARTWORK);
+        currentArtwork = artwork;
+        isWaitingForArtwork = false;
+    }
+    
+    private static boolean isSameArtwork(Bitmap artwork, Bitmap current) {
+        if (current == null) return false;
+        if (artwork == current) return true;
+        return !current.isRecycled() && artwork.sameAs(current);
+    }
+    
     public void hide() {
         cancelPendingUpdate();
-        stopArtworkMonitoring();
         
         uiHandler.post(() -> {
             nowPlayingCard.setVisibility(View.GONE);
@@ -350,34 +411,6 @@ public class NowPlayingManager {
         });
     }
     
-    private void startArtworkMonitoring() {
-        stopArtworkMonitoring();
-        artworkCheckAttempts = 0;
-        
-        artworkMonitoringRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isWaitingForArtwork && hasActiveMedia && 
-                    artworkCheckAttempts < MAX_ARTWORK_ATTEMPTS) {
-                    artworkCheckAttempts++;
-                    requestExistingNotificationCheck();
-                    uiHandler.postDelayed(this, 2000);
-                } else if (artworkCheckAttempts >= MAX_ARTWORK_ATTEMPTS) {
-                    isWaitingForArtwork = false;
-                }
-            }
-        };
-        
-        uiHandler.postDelayed(artworkMonitoringRunnable, 500);
-    }
-    
-    private void stopArtworkMonitoring() {
-        if (artworkMonitoringRunnable != null) {
-            uiHandler.removeCallbacks(artworkMonitoringRunnable);
-            artworkMonitoringRunnable = null;
-        }
-    }
-    
     private void requestExistingNotificationCheck() {
         Context context = contextRef.get();
         if (context != null) {
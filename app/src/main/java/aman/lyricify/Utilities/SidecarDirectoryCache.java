@@ -0,0 +1,185 @@
+package aman.lyricify;
+
+import android.content.Context;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Answers "does this song have a .lrc/.ttml next to it" from directory listings.
+ *
+ * Each music directory is listed once and its sidecars are kept by base name,
+ * with the size and mtime of each, so a library load costs one stat per
+ * directory instead of two per song. Listings are persisted and re-used for as
+ * long as the directory's mtime, which changes whenever a file is added,
+ * removed or renamed in it, is unchanged. A sidecar rewritten in place does
+ * not change that mtime, so writers call {@link #invalidate} afterwards.
+ *
+ * Call {@link #beginScan()} before a library load; each directory is then
+ * validated at most once per scan.
+ */
+public class SidecarDirectoryCache {
+
+    private static final String TAG = "SidecarDirectoryCache";
+    private static final String CACHE_FILE = "sidecar_dirs.dat";
+
+    // A listing taken within this window of the directory's mtime may have
+    // missed a change made in the same timestamp tick, so it is re-listed
+    private static final long MTIME_GRANULARITY_MS = 2000;
+
+    private static SidecarDirectoryCache instance;
+
+    private HashMap<String, Listing> listings;
+    // Directories already checked against their mtime during the current scan
+    private final HashSet<String> validated = new HashSet<>();
+    private boolean isDirty = false;
+
+    /** Size and mtime of one sidecar as of the directory listing. */
+    public static class Sidecar implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final long size;
+        public final long lastModified;
+
+        Sidecar(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class Listing implements Serializable {
+        // 2: sidecars became a map with size and mtime
+        private static final long serialVersionUID = 2L;
+
+        final long lastModified;
+        final boolean trusted;
+        // Base name (without extension) -> the .lrc, else the .ttml, in the directory
+        final HashMap<String, Sidecar> sidecars;
+
+        Listing(long lastModified, boolean trusted, HashMap<String, Sidecar> sidecars) {
+            this.lastModified = lastModified;
+            this.trusted = trusted;
+            this.sidecars = sidecars;
+        }
+    }
+
+    public static synchronized SidecarDirectoryCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SidecarDirectoryCache();
+            instance.loadCache(context);
+        }
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadCache(Context context) {
+        File file = new File(context.getCacheDir(), CACHE_FILE);
+        if (!file.exists()) {
+            listings = new HashMap<>();
+            return;
+        }
+
+        try (ObjectInputStream ois =
+                new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            listings = (HashMap<String, Listing>) ois.readObject();
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading cache", e);
+            listings = new HashMap<>();
+        }
+    }
+
+    /** Starts a new library load: every directory is re-validated on first use. */
+    public synchronized void beginScan() {
+        validated.clear();
+    }
+
+    /**
+     * The .lrc (or else .ttml) with the same base name as {@code audioPath},
+     * or null if there is none. Answered from the listing, without a stat.
+     */
+    public synchronized Sidecar sidecarFor(String audioPath) {
+        if (audioPath == null) return null;
+
+        int lastSlash = audioPath.lastIndexOf('/');
+        int lastDot = audioPath.lastIndexOf('.');
+        if (lastSlash == -1 || lastDot <= lastSlash) return null;
+
+        String dir = audioPath.substring(0, lastSlash);
+        String baseName = audioPath.substring(lastSlash + 1, lastDot);
+
+        Listing listing = listingFor(dir);
+        return listing != null ? listing.sidecars.get(baseName) : null;
+    }
+
+    /** Drops the listing of {@code audioPath}'s directory, e.g. after writing its sidecar. */
+    public synchronized void invalidate(String audioPath) {
+        if (audioPath == null) return;
+        int lastSlash = audioPath.lastIndexOf('/');
+        if (lastSlash == -1) return;
+        String dir = audioPath.substring(0, lastSlash);
+        validated.remove(dir);
+        if (listings.remove(dir) != null) isDirty = true;
+    }
+
+    private Listing listingFor(String dir) {
+        Listing listing = listings.get(dir);
+        if (validated.contains(dir)) return listing;
+        validated.add(dir);
+
+        File directory = new File(dir);
+        long lastModified = directory.lastModified();
+        if (lastModified == 0) {
+            // Gone or unreadable
+            if (listings.remove(dir) != null) isDirty = true;
+            return null;
+        }
+
+        if (listing != null && listing.trusted && listing.lastModified == lastModified) {
+            return listing;
+        }
+
+        listing = list(directory, lastModified);
+        listings.put(dir, listing);
+        isDirty = true;
+        return listing;
+    }
+
+    private static Listing list(File directory, long lastModified) {
+        HashMap<String, Sidecar> sidecars = new HashMap<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                int dot = name.lastIndexOf('.');
+                if (dot <= 0) continue;
+                String ext = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+                boolean lrc = ext.equals("lrc");
+                if (!lrc && !ext.equals("ttml")) continue;
+                String baseName = name.substring(0, dot);
+                // Only sidecars are stat'ed, and only when the directory is re-listed.
+                // The .lrc wins over a .ttml, like the lyrics readers
+                if (lrc || !sidecars.containsKey(baseName)) {
+                    sidecars.put(baseName, new Sidecar(file.length(), file.lastModified()));
+                }
+            }
+        }
+        boolean trusted = System.currentTimeMillis() - lastModified > MTIME_GRANULARITY_MS;
+        return new Listing(lastModified, trusted, sidecars);
+    }
+
+    /** Persists the listings if any directory was (re-)listed. */
+    public synchronized void saveCache(Context context) {
+        if (!isDirty) return;
+
+        File file = new File(context.getCacheDir(), CACHE_FILE);
+        try (ObjectOutputStream oos =
+                new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            oos.writeObject(listings);
+            isDirty = false;
+        } catch (IOException e) {
+            Log.e(TAG, "Error saving cache", e);
+        }
+    }
+}
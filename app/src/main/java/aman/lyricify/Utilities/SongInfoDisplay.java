@@ -92,10 +92,7 @@ public class SongInfoDisplay {
             return;
         }
         
-        String formattedUrl = artworkUrl
-            .replace("{w}", "1000")
-            .replace("{h}", "1000")
-            .replace("{f}", "jpg");
+        String formattedUrl = ArtworkUrlResolver.resolveFor(artworkView, artworkUrl);
         
         // 1. Load Main Artwork
         Glide.with(context)
@@ -119,10 +116,10 @@ public class SongInfoDisplay {
                 }
             });
 
-        // 2. Load Blurred Background
+        // 2. Load Blurred Background (blurred anyway, the smallest size will do)
         if (backgroundView != null) {
             Glide.with(context)
-                .load(formattedUrl)
+                .load(ArtworkUrlResolver.resolve(artworkUrl, 0))
                 .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 3)))
                 .into(backgroundView);
         }
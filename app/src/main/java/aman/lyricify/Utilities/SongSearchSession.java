@@ -0,0 +1,195 @@
+package aman.lyricify;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Online song search for one identify dialog.
+ *
+ * Keystrokes are debounced, and a newer search supersedes older ones: results
+ * that arrive for a superseded query are dropped before any work is done on
+ * them. Results are kept in a small LRU shared by all sessions, so opening the
+ * dialog again for the next file of a mis-tagged album does not hit the network
+ * for a query that was just made.
+ *
+ * Results are ranked by the text match first and then by how well they fit the
+ * local file (duration, album).
+ */
+public class SongSearchSession {
+
+    private static final String TAG = "SongSearchSession";
+
+    private static final long DEBOUNCE_MS = 400;
+    private static final int CACHE_SIZE = 32;
+
+    // Shared across dialogs, keyed by normalized query
+    private static final LruCache<String, List<Song>> RESULT_CACHE = new LruCache<>(CACHE_SIZE);
+    // Ranks cache hits off the UI thread, one thread reused across every search
+    private static final ExecutorService RANK_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    public interface Listener {
+        void onSearchStarted();
+
+        void onResults(List<SongAdapter.Item> items);
+
+        void onError(String error);
+    }
+
+    private final MediaStoreHelper.LocalSong localSong;
+    private final int artworkSize;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Bumped for every search; callbacks carrying an older value are stale
+    private final AtomicInteger generation = new AtomicInteger();
+    private Runnable pendingSearch;
+    private String lastQuery;
+    private volatile boolean closed;
+
+    public SongSearchSession(MediaStoreHelper.LocalSong localSong, int artworkSize, Listener listener) {
+        this.localSong = localSong;
+        this.artworkSize = artworkSize;
+        this.listener = listener;
+    }
+
+    /** Searches once typing has paused. */
+    public void searchDebounced(String query) {
+        if (pendingSearch != null) mainHandler.removeCallbacks(pendingSearch);
+        pendingSearch = () -> {
+            pendingSearch = null;
+            // Typing back to the query already shown changes nothing
+            if (!normalize(query).equals(lastQuery)) search(query);
+        };
+        mainHandler.postDelayed(pendingSearch, DEBOUNCE_MS);
+    }
+
+    /** Searches immediately, e.g. for the search button or on open. */
+    public void searchNow(String query) {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+        search(query);
+    }
+
+    /** Drops the pending search and ignores anything still in flight. */
+    public void close() {
+        closed = true;
+        generation.incrementAndGet();
+        if (pendingSearch != null) mainHandler.removeCallbacks(pendingSearch);
+        pendingSearch = null;
+    }
+
+    private void search(String rawQuery) {
+        if (closed) return;
+        String query = normalize(rawQuery);
+        if (query.isEmpty()) return;
+
+        int searchId = generation.incrementAndGet();
+
+        List<Song> cached;
+        synchronized (RESULT_CACHE) {
+            cached = RESULT_CACHE.get(query);
+        }
+        if (cached != null) {
+            Log.d(TAG, "Cache hit: " + query);
+            RANK_EXECUTOR.execute(() -> {
+                // Typed past before its turn came
+                if (searchId == generation.get()) deliver(searchId, query, rank(cached, query));
+            });
+            return;
+        }
+
+        listener.onSearchStarted();
+        ApiClient.searchSongs(rawQuery.trim(), new ApiClient.SearchCallback() {
+            @Override
+            public void onSuccess(ArrayList<Song> results) {
+                synchronized (RESULT_CACHE) {
+                    RESULT_CACHE.put(query, Collections.unmodifiableList(new ArrayList<>(results)));
+                }
+                if (searchId != generation.get()) return;
+
+                // Still on the network thread: score, rank and build rows here
+                deliver(searchId, query, rank(results, query));
+            }
+
+            @Override
+            public void onFailure(String error) {
+                mainHandler.post(() -> {
+                    if (searchId == generation.get()) listener.onError(error);
+                });
+            }
+        });
+    }
+
+    // Shows ranked results unless a newer search has started since
+    private void deliver(int searchId, String query, List<SongAdapter.Item> items) {
+        mainHandler.post(() -> {
+            if (searchId != generation.get()) return;
+            // Only a query whose results are on screen counts as done; a failed one may be retried
+            lastQuery = query;
+            listener.onResults(items);
+        });
+    }
+
+    private List<SongAdapter.Item> rank(List<Song> results, String query) {
+        // Cached songs are shared between sessions, so scores live in this ranking only
+        Song.MatchQuery matchQuery = new Song.MatchQuery(query);
+        int count = results.size();
+        int[] scores = new int[count];
+        int[] keys = new int[count];
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Song song = results.get(i);
+            scores[i] = song.scoreAgainst(matchQuery);
+            keys[i] = scores[i] + localAffinity(song);
+            order.add(i);
+        }
+        Collections.sort(order, (a, b) -> Integer.compare(keys[b], keys[a]));
+
+        List<Song> sorted = new ArrayList<>(count);
+        int[] sortedScores = new int[count];
+        for (int i : order) {
+            sortedScores[sorted.size()] = scores[i];
+            sorted.add(results.get(i));
+        }
+        return SongAdapter.toItems(sorted, sortedScores, artworkSize);
+    }
+
+    /** Bonus for results that look like the local file beyond the title/artist text. */
+    private int localAffinity(Song song) {
+        if (localSong == null) return 0;
+        int bonus = 0;
+
+        long localDuration = localSong.duration;
+        long remoteDuration = song.getDurationMillis();
+        if (localDuration > 0 && remoteDuration > 0) {
+            long diff = Math.abs(localDuration - remoteDuration);
+            if (diff <= 2000) bonus += 15;
+            else if (diff <= 5000) bonus += 8;
+            else if (diff > 30000) bonus -= 10; // Likely a different version/edit
+        }
+
+        if (localSong.album != null && song.getAlbumName() != null
+                && !localSong.album.trim().isEmpty()
+                && localSong.album.trim().equalsIgnoreCase(song.getAlbumName().trim())) {
+            bonus += 10;
+        }
+        return bonus;
+    }
+
+    /** Lowercase, trimmed, single spaces: "Title  Artist " and "title artist" share a cache entry. */
+    static String normalize(String query) {
+        if (query == null) return "";
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
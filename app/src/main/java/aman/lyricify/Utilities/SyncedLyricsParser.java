@@ -9,6 +9,9 @@ import java.util.regex.Pattern;
  * Parses LRC and Karaoke format lyrics
  */
 public class SyncedLyricsParser {
+
+    private static final Pattern LINE_END_PATTERN =
+        Pattern.compile("<(\\d{2}):(\\d{2})\\.(\\d{2,3})>\\s*$");
     
     /**
      * Parse standard LRC format lyrics
@@ -82,7 +85,10 @@ public class SyncedLyricsParser {
                     List<LyricLineModels.KaraokeWord> words = parseKaraokeWords(content);
                     
                     if (!words.isEmpty()) {
-                        lines.add(new LyricLineModels.KaraokeLine(lineTimestamp, voice, words));
+                        LyricLineModels.KaraokeLine karaokeLine =
+                            new LyricLineModels.KaraokeLine(lineTimestamp, voice, words);
+                        karaokeLine.endTime = parseLineEnd(content);
+                        lines.add(karaokeLine);
                     }
                 } catch (NumberFormatException e) {
                     // Skip malformed lines
@@ -124,6 +130,25 @@ public class SyncedLyricsParser {
         return words;
     }
     
+    /**
+     * Trailing end tag of a karaoke line ("... <mm:ss.xxx>"), or -1
+     */
+    private static long parseLineEnd(String content) {
+        Matcher matcher = LINE_END_PATTERN.matcher(content);
+        if (!matcher.find()) return -1;
+        try {
+            int minutes = Integer.parseInt(matcher.group(1));
+            int seconds = Integer.parseInt(matcher.group(2));
+            String millisStr = matcher.group(3);
+            int millis = millisStr.length() == 2 ?
+                Integer.parseInt(millisStr) * 10 :
+                Integer.parseInt(millisStr);
+            return (minutes * 60 * 1000L) + (seconds * 1000L) + millis;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     /**
      * Check if lyrics are in karaoke format
      */
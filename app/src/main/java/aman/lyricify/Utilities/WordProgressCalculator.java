@@ -6,40 +6,130 @@ import java.util.List;
  * Calculates word progress for karaoke mode
  */
 class WordProgressCalculator {
-    
+
+    // Fallback duration for the last word when the line end is unknown
+    static final long DEFAULT_LAST_WORD_MS = 1000;
+
     static class WordProgress {
         int wordIndex;
         float progress;
-        
+
+        WordProgress() {
+            this(-1, 0f);
+        }
+
         WordProgress(int wordIndex, float progress) {
             this.wordIndex = wordIndex;
             this.progress = progress;
         }
     }
-    
+
+    /**
+     * One-shot lookup. Allocates, prefer a {@link Cursor} for per-frame use.
+     */
     static WordProgress calculate(List<KaraokeWord> words, long positionMs) {
-        int currentWord = -1;
-        float wordProgress = 0f;
-        
-        for (int i = 0; i < words.size(); i++) {
-            KaraokeWord word = words.get(i);
-            long wordStart = word.timestamp;
-            long wordEnd = (i + 1 < words.size()) ? 
-                words.get(i + 1).timestamp : 
-                (wordStart + 1000);
-            
-            if (positionMs >= wordStart && positionMs < wordEnd) {
-                currentWord = i;
-                long wordDuration = wordEnd - wordStart;
-                long elapsed = positionMs - wordStart;
-                wordProgress = wordDuration > 0 ? (float) elapsed / wordDuration : 1.0f;
-                break;
-            } else if (positionMs >= wordEnd) {
-                currentWord = i;
-                wordProgress = 1.0f;
+        WordProgress out = new WordProgress();
+        Cursor.of(words).update(positionMs, out);
+        return out;
+    }
+
+    /**
+     * Per-line progress cursor. Word start/end times are precomputed once;
+     * {@link #update} remembers the last active word and walks forward from
+     * it, falling back to a binary search when playback jumps backwards.
+     * Steady playback therefore costs O(1) per frame regardless of line length.
+     */
+    static final class Cursor {
+        private final long[] starts;
+        private final long[] ends;
+        private int current = -1;
+
+        private Cursor(long[] starts, long lineEnd) {
+            this.starts = starts;
+            this.ends = new long[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                if (i + 1 < starts.length) {
+                    ends[i] = starts[i + 1];
+                } else {
+                    ends[i] = lineEnd > starts[i] ? lineEnd : starts[i] + DEFAULT_LAST_WORD_MS;
+                }
+            }
+        }
+
+        static Cursor of(List<KaraokeWord> words) {
+            long[] starts = new long[words.size()];
+            for (int i = 0; i < starts.length; i++) starts[i] = words.get(i).timestamp;
+            return new Cursor(starts, -1);
+        }
+
+        /**
+         * @param lineEnd end of the line if known (e.g. the trailing ELRC tag), or -1
+         */
+        static Cursor ofModels(List<LyricLineModels.KaraokeWord> words, long lineEnd) {
+            long[] starts = new long[words.size()];
+            for (int i = 0; i < starts.length; i++) starts[i] = words.get(i).timestamp;
+            return new Cursor(starts, lineEnd);
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        long startOf(int index) {
+            return starts[index];
+        }
+
+        long endOf(int index) {
+            return ends[index];
+        }
+
+        /**
+         * Writes the active word (last word that has started, or -1) and its
+         * 0..1 progress into {@code out}.
+         */
+        void update(long positionMs, WordProgress out) {
+            if (starts.length == 0 || positionMs < starts[0]) {
+                current = -1;
+                out.wordIndex = -1;
+                out.progress = 0f;
+                return;
+            }
+
+            if (current < 0 || positionMs < starts[current]) {
+                // Seek backwards (or first call): binary search
+                current = indexAt(positionMs);
+            } else {
+                // Normal playback: advance monotonically
+                while (current + 1 < starts.length && positionMs >= starts[current + 1]) {
+                    current++;
+                }
+            }
+
+            long start = starts[current];
+            long end = ends[current];
+            out.wordIndex = current;
+            if (positionMs >= end) {
+                out.progress = 1f;
+            } else {
+                long duration = end - start;
+                out.progress = duration > 0 ? (float) (positionMs - start) / duration : 1f;
+            }
+        }
+
+        void reset() {
+            current = -1;
+        }
+
+        /** Last index with start <= positionMs; caller guarantees positionMs >= starts[0]. */
+        private int indexAt(long positionMs) {
+            int lo = 0;
+            int hi = starts.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (starts[mid] <= positionMs) lo = mid;
+                else hi = mid - 1;
             }
+            return lo;
         }
-        
-        return new WordProgress(currentWord, wordProgress);
     }
-}
\ No newline at end of file
+}
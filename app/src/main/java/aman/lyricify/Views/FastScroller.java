@@ -34,12 +34,16 @@ public class FastScroller extends View {
 
     private boolean isDragging = false;
     private String currentSectionText = "";
+    // Measured once per section change instead of every frame
+    private float currentSectionWidth = 0;
+    private int currentSection = -1;
     private float currentY = 0;
     
     // Reusable rects to avoid allocation in onDraw
     private final RectF handleRect = new RectF();
     private final RectF bubbleRect = new RectF();
     private final Rect textBounds = new Rect();
+    private final Paint.FontMetrics textMetrics;
 
     public FastScroller(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -62,6 +66,7 @@ public class FastScroller extends View {
         textPaint.setTextSize(60); // Slightly smaller text for better fit
         textPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
         textPaint.setTextAlign(Paint.Align.CENTER);
+        textMetrics = textPaint.getFontMetrics();
     }
 
     public void attachToRecyclerView(RecyclerView recyclerView) {
@@ -111,10 +116,8 @@ public class FastScroller extends View {
             // 2. Draw Bubble (Only when dragging)
             if (isDragging && !currentSectionText.isEmpty()) {
                 
-                // Measure Text Width
-                textPaint.getTextBounds(currentSectionText, 0, currentSectionText.length(), textBounds);
-                float textWidth = textBounds.width();
-                
+                float textWidth = currentSectionWidth;
+
                 // Calculate Dynamic Bubble Width
                 // Use minimum width (for "A") or expand for "Oct 2025"
                 float bubbleWidth = Math.max(MIN_BUBBLE_WIDTH, textWidth + (BUBBLE_PADDING_HORIZONTAL * 2));
@@ -141,8 +144,7 @@ public class FastScroller extends View {
                 canvas.drawRoundRect(bubbleRect, BUBBLE_HEIGHT / 2f, BUBBLE_HEIGHT / 2f, bubblePaint);
 
                 // Draw Text Centered
-                Paint.FontMetrics metrics = textPaint.getFontMetrics();
-                float textY = bubbleRect.centerY() - (metrics.descent + metrics.ascent) / 2;
+                float textY = bubbleRect.centerY() - (textMetrics.descent + textMetrics.ascent) / 2;
                 canvas.drawText(currentSectionText, bubbleRect.centerX(), textY, textPaint);
             }
         }
@@ -155,6 +157,7 @@ public class FastScroller extends View {
                 if (event.getX() < getWidth() - (HANDLE_WIDTH * 2)) return false;
 
                 isDragging = true;
+                currentSection = -1;
                 handlePaint.setAlpha(255);
                 getParent().requestDisallowInterceptTouchEvent(true);
                 scrollTo(event.getY());
@@ -171,6 +174,7 @@ public class FastScroller extends View {
             case MotionEvent.ACTION_CANCEL:
                 isDragging = false;
                 currentSectionText = "";
+                currentSection = -1;
                 handlePaint.setAlpha(180);
                 getParent().requestDisallowInterceptTouchEvent(false);
                 invalidate();
@@ -203,11 +207,16 @@ public class FastScroller extends View {
 
         if (recyclerView.getAdapter() instanceof SectionIndexer) {
             sectionIndexer = (SectionIndexer) recyclerView.getAdapter();
+            // O(1) in LocalSongAdapter, safe to ask on every move event
             int sectionIndex = sectionIndexer.getSectionForPosition(targetPosition);
             Object[] sections = sectionIndexer.getSections();
-            
-            if (sections != null && sectionIndex >= 0 && sectionIndex < sections.length) {
+
+            if (sectionIndex != currentSection
+                    && sections != null && sectionIndex >= 0 && sectionIndex < sections.length) {
+                currentSection = sectionIndex;
                 currentSectionText = sections[sectionIndex].toString();
+                textPaint.getTextBounds(currentSectionText, 0, currentSectionText.length(), textBounds);
+                currentSectionWidth = textBounds.width();
             }
         }
         
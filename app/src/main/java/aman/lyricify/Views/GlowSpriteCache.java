@@ -0,0 +1,90 @@
+package aman.lyricify;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.LruCache;
+
+/**
+ * Pre-rendered bloom for karaoke words.
+ *
+ * The glow of a word only depends on its text, paint and glow radius, all of
+ * which are fixed once the lyrics are laid out. So instead of drawing the text
+ * through a shadow layer every frame, the blurred text is rendered once into an
+ * ALPHA_8 mask. An alpha bitmap drawn with a shader is coloured by that shader,
+ * which lets the caller sweep the karaoke gradient over the cached mask.
+ */
+final class GlowSpriteCache {
+
+    // The bloom is blurred anyway, half resolution is indistinguishable
+    private static final float SPRITE_SCALE = 0.5f;
+    private static final int MAX_BYTES = 1024 * 1024;
+
+    static final class Sprite {
+        final Bitmap mask;
+        // Bounds relative to the text origin, in unscaled text coordinates
+        final float left, top, right, bottom;
+
+        Sprite(Bitmap mask, float left, float top, float right, float bottom) {
+            this.mask = mask;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+    }
+
+    private final LruCache<LyricWord, Sprite> sprites =
+            new LruCache<LyricWord, Sprite>(MAX_BYTES) {
+                @Override
+                protected int sizeOf(LyricWord key, Sprite value) {
+                    return value.mask.getByteCount();
+                }
+            };
+
+    private final Paint renderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Returns the glow mask for {@code word}, rendering it on first use.
+     *
+     * @param bloomPaint paint the word's text is laid out with (typeface, size, stretch, blur)
+     * @param glowRadius shadow radius baked into the sprite
+     */
+    Sprite get(LyricWord word, Paint bloomPaint, float glowRadius) {
+        Sprite sprite = sprites.get(word);
+        if (sprite != null) return sprite;
+
+        renderPaint.set(bloomPaint);
+        renderPaint.setShader(null);
+        renderPaint.setColor(Color.WHITE);
+        renderPaint.setShadowLayer(glowRadius, 0, 0, Color.WHITE);
+
+        Paint.FontMetrics fm = renderPaint.getFontMetrics();
+        // A shadow of radius r fades out at roughly 2r; the extra margin covers
+        // the mask filter used by background vocals
+        float pad = glowRadius * 2f + renderPaint.getTextSize() * 0.25f;
+        float left = -pad;
+        float top = fm.ascent - pad;
+        float right = renderPaint.measureText(word.text) + pad;
+        float bottom = fm.descent + pad;
+
+        int width = Math.max(1, (int) Math.ceil((right - left) * SPRITE_SCALE));
+        int height = Math.max(1, (int) Math.ceil((bottom - top) * SPRITE_SCALE));
+        Bitmap mask = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+
+        Canvas canvas = new Canvas(mask);
+        canvas.scale(SPRITE_SCALE, SPRITE_SCALE);
+        canvas.translate(-left, -top);
+        canvas.drawText(word.text, 0, 0, renderPaint);
+
+        sprite = new Sprite(mask, left, top, right, bottom);
+        sprites.put(word, sprite);
+        return sprite;
+    }
+
+    /** Drops every sprite, call when layout, font or text size change. */
+    void clear() {
+        sprites.evictAll();
+    }
+}
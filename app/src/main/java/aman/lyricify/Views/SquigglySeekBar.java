@@ -4,12 +4,10 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Paint;
-import android.graphics.Path;
 import android.graphics.RectF;
-import android.graphics.Shader;
 import android.util.AttributeSet;
+import android.view.animation.AnimationUtils;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.AppCompatSeekBar;
@@ -41,14 +39,51 @@ public class SquigglySeekBar extends AppCompatSeekBar {
 
     // ==========================================
 
+    private static final String TAG = "SquigglySeekBar";
+
+    // The tuning values above were per frame at 60 fps
+    private static final float REFERENCE_FRAME_MS = 1000f / 60f;
+    private static final long MAX_FRAME_GAP_MS = 100;
+    private static final float SAMPLE_SPACING = 5f;
+
+    // sin() over one period, indexed by angle * TABLE_SCALE_RAD (wrapped with SINE_MASK)
+    private static final int SINE_TABLE_SIZE = 4096;
+    private static final int SINE_MASK = SINE_TABLE_SIZE - 1;
+    private static final float[] SINE_TABLE = new float[SINE_TABLE_SIZE];
+    private static final float TABLE_SCALE = SINE_TABLE_SIZE; // one cycle
+    private static final float TABLE_SCALE_RAD = (float) (SINE_TABLE_SIZE / (Math.PI * 2));
+    // phase and 0.3 * phase are both whole turns after 10 turns; wrapping keeps floats precise
+    private static final float PHASE_PERIOD = (float) (Math.PI * 2 * 10);
+
+    static {
+        for (int i = 0; i < SINE_TABLE_SIZE; i++) {
+            SINE_TABLE[i] = (float) Math.sin(i * Math.PI * 2 / SINE_TABLE_SIZE);
+        }
+    }
+
+    // Log the average onDraw cost every this many frames, while frame metrics are enabled
+    private static final int DRAW_STATS_FRAMES = 600;
+
     private Paint activePaint;
     private Paint inactivePaint;
     private Paint thumbPaint;
-    private Path activePath;
+
+    // Wave samples and the triangles built from them, sized to the view width
+    private float[] waveX;
+    private float[] waveY;
+    private float[] waveVerts;
+    private int[] waveColors;
+    private short[] waveIndices;
 
     private float phase = 0f;
     private float currentAnimAmplitude = 0f; 
     private boolean isPlaying = false;
+    private boolean isVisibleToUser = true;
+    private long lastFrameTimeMs = 0;
+
+    private boolean drawStatsEnabled = false;
+    private long drawNanosTotal = 0;
+    private int drawCount = 0;
 
     // FLICKER FIX VARIABLES
     private long lastTouchUpTime = 0;
@@ -71,10 +106,9 @@ public class SquigglySeekBar extends AppCompatSeekBar {
     }
 
     private void init() {
+        // Colour and fade come from the per-vertex colours of the wave strip
         activePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        activePaint.setStyle(Paint.Style.STROKE);
-        activePaint.setStrokeWidth(STROKE_WIDTH);
-        activePaint.setStrokeCap(Paint.Cap.ROUND);
+        activePaint.setStyle(Paint.Style.FILL);
         activePaint.setColor(Color.WHITE);
 
         inactivePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -87,8 +121,9 @@ public class SquigglySeekBar extends AppCompatSeekBar {
         thumbPaint.setColor(Color.WHITE);
         thumbPaint.setStyle(Paint.Style.FILL);
 
-        activePath = new Path();
-        
+
+        drawStatsEnabled = FrameMetricsRecorder.isEnabled(getContext());
+
         // 1. SETTINGS TOGGLE LOGIC
         SharedPreferences prefs = getContext().getSharedPreferences("LyricifyPrefs", Context.MODE_PRIVATE);
         boolean isSquigglyEnabled = prefs.getBoolean("squiggly_seekbar_enabled", true);
@@ -105,21 +140,10 @@ public class SquigglySeekBar extends AppCompatSeekBar {
         setProgressDrawable(null);
     }
 
-    @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
-        LinearGradient fadeGradient = new LinearGradient(
-                0, 0, FADE_LENGTH, 0,
-                new int[]{Color.TRANSPARENT, Color.WHITE},
-                new float[]{0f, 1f},
-                Shader.TileMode.CLAMP
-        );
-        activePaint.setShader(fadeGradient);
-    }
-
     public void startAnimation() {
         if (!isPlaying) {
             isPlaying = true;
+            lastFrameTimeMs = 0;
             invalidate();
         }
     }
@@ -169,21 +193,40 @@ public class SquigglySeekBar extends AppCompatSeekBar {
     // ==========================================
 
     @Override
-    protected synchronized void onDraw(Canvas canvas) {
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        isVisibleToUser = isVisible;
+        // Restart the clock instead of jumping by however long we were hidden
+        lastFrameTimeMs = 0;
+        if (isVisible && (isPlaying || currentAnimAmplitude != 0f)) postInvalidateOnAnimation();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        long drawStart = drawStatsEnabled ? System.nanoTime() : 0;
+
         float width = getWidth();
         float height = getHeight();
         float centerY = height / 2;
 
-        float progressRatio = (float) getProgress() / getMax();
+        float progressRatio = getMax() > 0 ? (float) getProgress() / getMax() : 0f;
         float thumbX = width * progressRatio;
 
+        // Advance by elapsed frame time, so speed does not depend on refresh rate
+        long frameTimeMs = AnimationUtils.currentAnimationTimeMillis();
+        float frames = lastFrameTimeMs == 0
+                ? 1f
+                : Math.min(frameTimeMs - lastFrameTimeMs, MAX_FRAME_GAP_MS) / REFERENCE_FRAME_MS;
+        lastFrameTimeMs = frameTimeMs;
+
         // Transition Logic
         float targetAmplitude = isPlaying ? WAVE_AMPLITUDE : 0f;
+        float amplitudeStep = AMPLITUDE_TRANSITION_SPEED * frames;
         if (currentAnimAmplitude < targetAmplitude) {
-            currentAnimAmplitude += AMPLITUDE_TRANSITION_SPEED;
+            currentAnimAmplitude += amplitudeStep;
             if (currentAnimAmplitude > targetAmplitude) currentAnimAmplitude = targetAmplitude;
         } else if (currentAnimAmplitude > targetAmplitude) {
-            currentAnimAmplitude -= AMPLITUDE_TRANSITION_SPEED;
+            currentAnimAmplitude -= amplitudeStep;
             if (currentAnimAmplitude < targetAmplitude) currentAnimAmplitude = targetAmplitude;
         }
 
@@ -191,43 +234,9 @@ public class SquigglySeekBar extends AppCompatSeekBar {
         canvas.drawLine(thumbX, centerY, width, centerY, inactivePaint);
 
         // 2. Draw Active Line (Liquified Wave)
-        activePath.reset();
-        boolean isFirstPoint = true;
-
-        for (float x = 0; x <= thumbX; x += 5) {
-            
-            // --- HARMONIC WAVE LOGIC ---
-            // Base Wave: Standard sine
-            float angle1 = (x / width) * (float) (Math.PI * 2 * WAVE_FREQUENCY) + phase;
-            
-            // Secondary Wave: Slower, wider, and offset (Creates the "Liquid" effect)
-            // Frequency is 0.5x, Speed is different due to phase * 0.3
-            float angle2 = (x / width) * (float) (Math.PI * 2 * (WAVE_FREQUENCY * 0.5f)) - (phase * 0.3f);
-
-            // Combine them: Main Wave + 20% of Secondary Wave
-            float combinedWave = (float) Math.sin(angle1) + 0.2f * (float) Math.sin(angle2);
-            
-            // ---------------------------
-
-            // Taper Logic
-            float distToKnob = thumbX - x;
-            float envelope = 1.0f;
-            if (distToKnob < TAPER_LENGTH) {
-                float rawRatio = distToKnob / TAPER_LENGTH;
-                envelope = rawRatio * rawRatio * (3 - 2 * rawRatio);
-            }
-
-            // Apply Amplitude to the combined wave
-            float y = centerY + (currentAnimAmplitude * envelope) * combinedWave;
-
-            if (isFirstPoint) {
-                activePath.moveTo(x, y);
-                isFirstPoint = false;
-            } else {
-                activePath.lineTo(x, y);
-            }
+        if (thumbX > 0) {
+            drawWave(canvas, width, centerY, thumbX);
         }
-        canvas.drawPath(activePath, activePaint);
 
         // 3. Draw Thumb
         if (USE_VERTICAL_BAR_THUMB) {
@@ -241,11 +250,131 @@ public class SquigglySeekBar extends AppCompatSeekBar {
             canvas.drawCircle(thumbX, centerY, THUMB_RADIUS, thumbPaint);
         }
 
+        if (drawStatsEnabled) recordDrawTime(System.nanoTime() - drawStart);
+
         // Loop Control
         boolean isTransitioning = (Math.abs(currentAnimAmplitude - targetAmplitude) > 0.01f);
-        if (isPlaying || isTransitioning) {
-            phase += WAVE_SPEED;
+        if ((isPlaying || isTransitioning) && isVisibleToUser) {
+            phase = (phase + WAVE_SPEED * frames) % PHASE_PERIOD;
             postInvalidateOnAnimation();
+        } else {
+            lastFrameTimeMs = 0;
+        }
+    }
+
+    /**
+     * Draws the active wave as triangles over a fixed number of samples
+     * spread over the played part, so the work per frame is the same wherever
+     * the thumb is. Sines come from a lookup table.
+     */
+    private void drawWave(Canvas canvas, float width, float centerY, float thumbX) {
+        int samples = ensureWaveBuffers(width);
+        float step = thumbX / (samples - 1);
+        float k1 = TABLE_SCALE * WAVE_FREQUENCY / width;
+        float k2 = k1 * 0.5f;
+        float p1 = phase * TABLE_SCALE_RAD;
+        float p2 = -phase * 0.3f * TABLE_SCALE_RAD;
+        float halfStroke = STROKE_WIDTH / 2f;
+
+        // Centre line first
+        for (int i = 0; i < samples; i++) {
+            float x = i * step;
+
+            // --- HARMONIC WAVE LOGIC ---
+            // Main wave + 20% of a slower, wider wave moving the other way
+            float combinedWave = sin(x * k1 + p1) + 0.2f * sin(x * k2 + p2);
+
+            // Taper Logic
+            float distToKnob = thumbX - x;
+            float envelope = 1.0f;
+            if (distToKnob < TAPER_LENGTH) {
+                float rawRatio = distToKnob / TAPER_LENGTH;
+                envelope = rawRatio * rawRatio * (3 - 2 * rawRatio);
+            }
+
+            waveX[i] = x;
+            waveY[i] = centerY + (currentAnimAmplitude * envelope) * combinedWave;
+        }
+
+        // Then a ribbon of the stroke width around it. Vertices are not antialiased,
+        // so each side gets a 1px band fading to transparent. Per-vertex alpha
+        // also does the fade-in at the start.
+        float inner = halfStroke - 0.5f;
+        float outer = halfStroke + 0.5f;
+        for (int i = 0; i < samples; i++) {
+            int prev = Math.max(0, i - 1);
+            int next = Math.min(samples - 1, i + 1);
+            float dx = waveX[next] - waveX[prev];
+            float dy = waveY[next] - waveY[prev];
+            float len = (float) Math.sqrt(dx * dx + dy * dy);
+            float nx = len > 0 ? -dy / len : 0f;
+            float ny = len > 0 ? dx / len : 1f;
+
+            int v = i * 8;
+            waveVerts[v] = waveX[i] + nx * outer;
+            waveVerts[v + 1] = waveY[i] + ny * outer;
+            waveVerts[v + 2] = waveX[i] + nx * inner;
+            waveVerts[v + 3] = waveY[i] + ny * inner;
+            waveVerts[v + 4] = waveX[i] - nx * inner;
+            waveVerts[v + 5] = waveY[i] - ny * inner;
+            waveVerts[v + 6] = waveX[i] - nx * outer;
+            waveVerts[v + 7] = waveY[i] - ny * outer;
+
+            int alpha = waveX[i] >= FADE_LENGTH ? 255 : (int) (255 * waveX[i] / FADE_LENGTH);
+            int color = (alpha << 24) | 0x00FFFFFF;
+            int c = i * 4;
+            waveColors[c] = 0x00FFFFFF;
+            waveColors[c + 1] = color;
+            waveColors[c + 2] = color;
+            waveColors[c + 3] = 0x00FFFFFF;
+        }
+
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, samples * 8, waveVerts, 0,
+                null, 0, waveColors, 0, waveIndices, 0, waveIndices.length, activePaint);
+        // Round end under the thumb, as the stroked path had
+        canvas.drawCircle(thumbX, waveY[samples - 1], halfStroke, thumbPaint);
+    }
+
+    // One sample per SAMPLE_SPACING px of the full width, reused for any progress
+    private int ensureWaveBuffers(float width) {
+        int samples = Math.max(2, (int) Math.ceil(width / SAMPLE_SPACING) + 1);
+        if (waveX == null || waveX.length != samples) {
+            waveX = new float[samples];
+            waveY = new float[samples];
+            waveVerts = new float[samples * 8];
+            waveColors = new int[samples * 4];
+
+            // Three bands (feather, core, feather) of two triangles per segment;
+            // the topology only depends on the sample count
+            waveIndices = new short[(samples - 1) * 18];
+            int n = 0;
+            for (int i = 0; i < samples - 1; i++) {
+                int a = i * 4;
+                int b = a + 4;
+                for (int band = 0; band < 3; band++) {
+                    waveIndices[n++] = (short) (a + band);
+                    waveIndices[n++] = (short) (b + band);
+                    waveIndices[n++] = (short) (a + band + 1);
+                    waveIndices[n++] = (short) (a + band + 1);
+                    waveIndices[n++] = (short) (b + band);
+                    waveIndices[n++] = (short) (b + band + 1);
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static float sin(float tableIndex) {
+        return SINE_TABLE[(int) tableIndex & SINE_MASK];
+    }
+
+    private void recordDrawTime(long nanos) {
+        drawNanosTotal += nanos;
+        if (++drawCount == DRAW_STATS_FRAMES) {
+            Log.d(TAG, "onDraw avg " + (drawNanosTotal / drawCount / 1000) + " us over "
+                    + drawCount + " frames");
+            drawNanosTotal = 0;
+            drawCount = 0;
         }
     }
 }
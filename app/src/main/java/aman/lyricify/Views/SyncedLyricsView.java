@@ -7,6 +7,7 @@ import android.graphics.Color;
 import android.graphics.LinearGradient;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.Typeface;
 import android.util.AttributeSet;
@@ -18,6 +19,7 @@ import android.view.ViewConfiguration;
 import android.widget.OverScroller;
 
 import androidx.annotation.Nullable;
+import androidx.core.graphics.ColorUtils;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
@@ -80,6 +82,8 @@ public class SyncedLyricsView extends View {
     private static class WrappedLine {
         LyricLine parentLine;
         List<LyricWord> words;
+        // Per word: start time of the following word in the parent line (or the line end)
+        long[] nextWordTimes;
         float y;
         long nextStartTime = -1;
         float xOffset = 0;
@@ -93,6 +97,9 @@ public class SyncedLyricsView extends View {
     
     private List<LyricLine> lyrics = new ArrayList<>();
     private List<WrappedLine> wrappedLines = new ArrayList<>();
+    // Baseline y of each wrapped line, ascending (wrapLines only moves down),
+    // so drawing and hit-testing can binary search instead of scanning
+    private float[] wrappedLineY = new float[0];
     private Map<LyricLine, Float> lineCenterYMap = new HashMap<>();
     private Map<LyricLine, Float> lineScrollYMap = new HashMap<>();
 
@@ -105,15 +112,23 @@ public class SyncedLyricsView extends View {
     private Paint paintFillBG, paintBloomBG;
     private Paint paintFillV2BG, paintBloomV2BG;
 
-    private Paint paintFps;
     private LinearGradient masterGradient;
     private LinearGradient masterGradientV2;
     private final int COLOR_V2 = Color.parseColor("#00E5FF");
+    // Lyric colours; white and cyan until setPalette() tints them to the artwork
+    private int colorMain = Color.WHITE;
+    private int colorV2 = COLOR_V2;
+    private int colorIdle = Color.WHITE;
 
     private Matrix shaderMatrix = new Matrix();
+    private final GlowSpriteCache glowSprites = new GlowSpriteCache();
+    private final Paint paintGlowSprite = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final RectF glowSpriteBounds = new RectF();
     private BlurMaskFilter bgBlurFilter;
 
     private float textHeight;
+    private float textAscent;
+    private float textDescent;
     private float baseTextSize;
     private static final float LAYOUT_SCALE = 1.1f;
     private static final float INACTIVE_SCALE = 0.9f;
@@ -145,10 +160,9 @@ public class SyncedLyricsView extends View {
     private static final long SCROLL_ANTICIPATION_MS = 600;
     private static final long DECAY_DURATION_MS = 400;
 
-    private long lastFpsTime = 0;
-    private int frameCount = 0;
-    private int currentFps = 0;
     private float totalContentHeight = 0;
+    // Set by setLyrics until those lyrics have been drawn once
+    private boolean reportFirstDraw = false;
 
     private int currentFontIndex = 0;
     private static final Typeface[] FONTS = {
@@ -255,11 +269,6 @@ public class SyncedLyricsView extends View {
         paintBloomV2BG.setMaskFilter(bgBlurFilter);
         paintBloomV2BG.setTextScaleX(BG_HORIZONTAL_STRETCH);
 
-        paintFps = new Paint(Paint.ANTI_ALIAS_FLAG);
-        paintFps.setColor(Color.GREEN);
-        paintFps.setTextSize(18 * density);
-        paintFps.setFakeBoldText(true);
-        paintFps.setTextAlign(Paint.Align.RIGHT);
 
         updateTextHeight();
 
@@ -290,6 +299,8 @@ public class SyncedLyricsView extends View {
 
     private void updateTextHeight() {
         Paint.FontMetrics fm = paintActive.getFontMetrics();
+        textAscent = fm.ascent;
+        textDescent = fm.descent;
         textHeight = fm.descent - fm.ascent;
     }
 
@@ -331,6 +342,7 @@ public class SyncedLyricsView extends View {
         paintBloomV2BG.setTextSize(layoutTextSize);
 
         updateTextHeight();
+        glowSprites.clear();
         requestLayout();
         invalidate();
         return FONT_NAMES[currentFontIndex];
@@ -338,13 +350,17 @@ public class SyncedLyricsView extends View {
 
     public void setLyrics(String lyricsText) {
         if (lyricsText == null || lyricsText.isEmpty()) return;
+        LatencyTracer.Span parseSpan = LatencyTracer.begin(LatencyTracer.STAGE_PARSE);
         ByteArrayInputStream is =
                 new ByteArrayInputStream(lyricsText.getBytes(StandardCharsets.UTF_8));
-        setLyrics(LrcParser.parse(is));
+        List<LyricLine> parsed = LrcParser.parse(is);
+        parseSpan.end();
+        setLyrics(parsed);
     }
 
     public void setLyrics(List<LyricLine> lyrics) {
         this.lyrics = lyrics;
+        reportFirstDraw = true;
         requestLayout();
         invalidate();
     }
@@ -357,22 +373,37 @@ public class SyncedLyricsView extends View {
     private boolean handleTap(float touchY) {
         if (seekListener == null || wrappedLines.isEmpty()) return false;
         float clickedContentY = touchY + currentScrollY;
-        Paint.FontMetrics fm = paintActive.getFontMetrics();
         float verticalPadding = 30f;
-        for (WrappedLine wl : wrappedLines) {
-            float top = wl.y + fm.ascent - verticalPadding;
-            float bottom = wl.y + fm.descent + verticalPadding;
-            if (clickedContentY >= top && clickedContentY <= bottom) {
-                if (wl.parentLine.startTime != -1) {
-                    seekListener.onSeek(wl.parentLine.startTime);
-                    playSoundEffect(android.view.SoundEffectConstants.CLICK);
-                    return true;
-                }
+
+        // First line whose hit box reaches down to the tap, then the few
+        // (padded boxes overlap) that still contain it
+        int first = firstWrappedLineBelow(clickedContentY - textDescent - verticalPadding);
+        for (int i = first; i < wrappedLines.size(); i++) {
+            float top = wrappedLineY[i] + textAscent - verticalPadding;
+            if (top > clickedContentY) break;
+
+            WrappedLine wl = wrappedLines.get(i);
+            if (wl.parentLine.startTime != -1) {
+                seekListener.onSeek(wl.parentLine.startTime);
+                playSoundEffect(android.view.SoundEffectConstants.CLICK);
+                return true;
             }
         }
         return false;
     }
 
+    /** Index of the first wrapped line with y >= minY (size() if none). */
+    private int firstWrappedLineBelow(float minY) {
+        int lo = 0;
+        int hi = wrappedLineY.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (wrappedLineY[mid] < minY) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
     private boolean updateScrollLogic() {
         if (isFlinging) {
             if (scroller.computeScrollOffset()) {
@@ -451,6 +482,8 @@ public class SyncedLyricsView extends View {
 
     private void wrapLines(int viewWidth) {
         wrappedLines.clear();
+        wrappedLineY = new float[0];
+        glowSprites.clear();
         lineCenterYMap.clear();
         lineScrollYMap.clear();
 
@@ -555,6 +588,28 @@ public class SyncedLyricsView extends View {
         }
         totalContentHeight = currentY;
 
+        wrappedLineY = new float[wrappedLines.size()];
+        for (int i = 0; i < wrappedLineY.length; i++) {
+            wrappedLineY[i] = wrappedLines.get(i).y;
+        }
+
+        // Wrapped lines of one parent are consecutive and in word order
+        LyricLine parent = null;
+        int parentWordIndex = 0;
+        for (WrappedLine wl : wrappedLines) {
+            if (wl.parentLine != parent) {
+                parent = wl.parentLine;
+                parentWordIndex = 0;
+            }
+            wl.nextWordTimes = new long[wl.words.size()];
+            for (int w = 0; w < wl.nextWordTimes.length; w++) {
+                int next = parentWordIndex + w + 1;
+                wl.nextWordTimes[w] =
+                        next < parent.words.size() ? parent.words.get(next).time : parent.endTime;
+            }
+            parentWordIndex += wl.words.size();
+        }
+
         for (int i = 0; i < lyrics.size(); i++) {
             LyricLine current = lyrics.get(i);
             Float centerCur = lineCenterYMap.get(current);
@@ -613,43 +668,66 @@ public class SyncedLyricsView extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        if (w > 0) {
-            int[] colors = {
-                Color.WHITE,
-                Color.argb(220, 255, 255, 255),
-                Color.argb(100, 255, 255, 255),
-                Color.TRANSPARENT
-            };
-            float[] positions = {0f, 0.3f, 0.7f, 1f};
-
-            int[] colorsV2 = {
-                COLOR_V2,
-                Color.argb(220, 0, 229, 255),
-                Color.argb(100, 0, 229, 255),
-                Color.TRANSPARENT
-            };
-
-            masterGradient =
-                    new LinearGradient(0, 0, 100, 0, colors, positions, Shader.TileMode.CLAMP);
-
-            masterGradientV2 =
-                    new LinearGradient(0, 0, 100, 0, colorsV2, positions, Shader.TileMode.CLAMP);
-        }
+        if (w > 0) buildGradients();
         updateScrollBounds(h);
     }
 
+    private void buildGradients() {
+        float[] positions = {0f, 0.3f, 0.7f, 1f};
+        masterGradient =
+                new LinearGradient(0, 0, 100, 0, sweepColors(colorMain), positions, Shader.TileMode.CLAMP);
+        masterGradientV2 =
+                new LinearGradient(0, 0, 100, 0, sweepColors(colorV2), positions, Shader.TileMode.CLAMP);
+    }
+
+    private static int[] sweepColors(int color) {
+        return new int[] {
+            color,
+            ColorUtils.setAlphaComponent(color, 220),
+            ColorUtils.setAlphaComponent(color, 100),
+            Color.TRANSPARENT
+        };
+    }
+
+    /**
+     * Tints the lyrics towards the artwork's palette. The main vocal stays
+     * mostly white to keep its contrast over the backdrop, the second vocal
+     * takes the vibrant colour and upcoming lines lean towards the dominant one.
+     */
+    public void setPalette(int dominantColor, int vibrantColor) {
+        applyColors(
+                ColorUtils.blendARGB(Color.WHITE, vibrantColor, 0.25f),
+                ColorUtils.blendARGB(vibrantColor, Color.WHITE, 0.35f),
+                ColorUtils.blendARGB(Color.WHITE, dominantColor, 0.3f));
+    }
+
+    public void clearPalette() {
+        applyColors(Color.WHITE, COLOR_V2, Color.WHITE);
+    }
+
+    private void applyColors(int main, int v2, int idle) {
+        if (main == colorMain && v2 == colorV2 && idle == colorIdle) return;
+        colorMain = main;
+        colorV2 = v2;
+        colorIdle = idle;
+
+        paintActive.setColor(main);
+        paintActiveBG.setColor(main);
+        paintDefault.setColor(ColorUtils.setAlphaComponent(idle, 102));
+        paintDefaultBG.setColor(ColorUtils.setAlphaComponent(idle, 102));
+        paintPast.setColor(ColorUtils.setAlphaComponent(idle, 80));
+        if (masterGradient != null) buildGradients();
+        invalidate();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        long now = System.currentTimeMillis();
-        frameCount++;
-        if (now - lastFpsTime >= 1000) {
-            currentFps = frameCount;
-            frameCount = 0;
-            lastFpsTime = now;
-        }
-
         if (lyrics.isEmpty() || wrappedLines.isEmpty()) return;
+        if (reportFirstDraw) {
+            reportFirstDraw = false;
+            LatencyTracer.finish(LatencyTracer.STAGE_LYRICS_SHOWN);
+        }
         boolean animatingScroll = updateScrollLogic();
         boolean animatingGlow = false;
 
@@ -660,9 +738,12 @@ public class SyncedLyricsView extends View {
         float viewTop = currentScrollY - buffer;
         float viewBottom = currentScrollY + getHeight() + buffer;
 
-        for (WrappedLine wl : wrappedLines) {
-            float y = wl.y;
-            if (y - textHeight > viewBottom || y + textHeight < viewTop) continue;
+        // Only visit the visible window
+        int firstVisible = firstWrappedLineBelow(viewTop - textHeight);
+        for (int lineIndex = firstVisible; lineIndex < wrappedLines.size(); lineIndex++) {
+            float y = wrappedLineY[lineIndex];
+            if (y - textHeight > viewBottom) break;
+            WrappedLine wl = wrappedLines.get(lineIndex);
 
             float focusRatio = getFocusRatio(wl.parentLine, wl.nextStartTime);
             focusRatio = Math.max(0f, Math.min(1f, focusRatio));
@@ -700,7 +781,9 @@ public class SyncedLyricsView extends View {
             canvas.save();
             canvas.scale(targetScale, targetScale, x, y);
 
-            for (LyricWord word : wl.words) {
+            for (int wordIndex = 0; wordIndex < wl.words.size(); wordIndex++) {
+                LyricWord word = wl.words.get(wordIndex);
+                long nextWordTime = wl.nextWordTimes[wordIndex];
                 float wordWidth = word.width;
                 if (wl.parentLine.isBackground) wordWidth *= BG_HORIZONTAL_STRETCH;
 
@@ -727,11 +810,13 @@ public class SyncedLyricsView extends View {
                         }
                         int fadingAlpha = (int) (dispersedAlpha * fadeOutFactor);
                         animatingGlow = true;
-                        drawActiveWord(canvas, word, wl, x, y, wordWidth, fadingAlpha);
+                        drawActiveWord(
+                                canvas, word, nextWordTime, wl, x, y, wordWidth, fadingAlpha);
                     } else {
                         if (wl.parentLine.isWordSynced) {
                             animatingGlow = true;
-                            drawActiveWord(canvas, word, wl, x, y, wordWidth, 255);
+                            drawActiveWord(
+                                    canvas, word, nextWordTime, wl, x, y, wordWidth, 255);
                         } else {
                             if (isV2) canvas.drawText(word.text, x, y, currentPaintFillV2);
                             else canvas.drawText(word.text, x, y, currentPaintActive);
@@ -742,8 +827,8 @@ public class SyncedLyricsView extends View {
                 } else if (isTimePast) {
                     if (focusRatio > 0.01f) {
                         Paint activeP = isV2 ? currentPaintActive : currentPaintActive;
-                        if (isV2) activeP.setColor(COLOR_V2);
-                        else activeP.setColor(Color.WHITE);
+                        if (isV2) activeP.setColor(colorV2);
+                        else activeP.setColor(colorMain);
                         int finalAlpha =
                                 wl.parentLine.isBackground
                                         ? (int)
@@ -754,7 +839,7 @@ public class SyncedLyricsView extends View {
                         activeP.setAlpha(finalAlpha);
                         canvas.drawText(word.text, x, y, activeP);
                         activeP.setAlpha(255);
-                        activeP.setColor(Color.WHITE);
+                        activeP.setColor(colorMain);
                     } else {
                         canvas.drawText(word.text, x, y, currentPaintDefault);
                     }
@@ -782,7 +867,6 @@ public class SyncedLyricsView extends View {
             if (focusRatio > 0.0f && focusRatio < 1.0f) animatingGlow = true;
         }
         canvas.restore();
-        canvas.drawText(String.valueOf(currentFps), getWidth() - 50, 100, paintFps);
         if (animatingScroll || animatingGlow) postInvalidateOnAnimation();
     }
 
@@ -791,6 +875,7 @@ public class SyncedLyricsView extends View {
      * 
      * @param canvas Canvas to draw on
      * @param word The word being drawn
+     * @param nextWordTime Start of the following word (or line end), precomputed at layout
      * @param wl The wrapped line containing the word
      * @param x X position
      * @param y Y position
@@ -800,6 +885,7 @@ public class SyncedLyricsView extends View {
     private void drawActiveWord(
             Canvas canvas,
             LyricWord word,
+            long nextWordTime,
             WrappedLine wl,
             float x,
             float y,
@@ -818,12 +904,6 @@ public class SyncedLyricsView extends View {
         LinearGradient targetGrad = isV2 ? masterGradientV2 : masterGradient;
         Paint currentDefault = wl.parentLine.isBackground ? paintDefaultBG : paintDefault;
 
-        long nextWordTime = wl.parentLine.endTime;
-        int wordIndex = wl.parentLine.words.indexOf(word);
-        if (wordIndex < wl.parentLine.words.size() - 1) {
-            nextWordTime = wl.parentLine.words.get(wordIndex + 1).time;
-        }
-
         long duration = nextWordTime - word.time;
         if (duration <= 0) duration = 1;
         long elapsed = currentTime - word.time;
@@ -924,23 +1004,15 @@ public class SyncedLyricsView extends View {
                 
                 bloomAlpha = Math.max(0f, Math.min(1.0f, bloomAlpha));
                 int finalBloomAlpha = (int) (alphaOverride * bloomAlpha);
-                
-                int shadowColor = isV2 ? COLOR_V2 : Color.WHITE;
-                int fadedShadowColor =
-                        Color.argb(
-                                finalBloomAlpha,
-                                Color.red(shadowColor),
-                                Color.green(shadowColor),
-                                Color.blue(shadowColor));
-
-                // Apply dynamic glow radius
-                targetBloom.setShadowLayer(glowRadius, 0, 0, fadedShadowColor);
-                targetBloom.setShader(targetGrad);
-                targetBloom.setAlpha(finalBloomAlpha);
-                canvas.drawText(word.text, x, y, targetBloom);
-                
-                // Reset to base radius for next frame
-                targetBloom.setShadowLayer(GLOW_BASE_RADIUS, 0, 0, shadowColor);
+
+                // The blurred bloom is rendered once per word; the gradient
+                // (already positioned above) tints the cached alpha mask
+                GlowSpriteCache.Sprite sprite = glowSprites.get(word, targetBloom, glowRadius);
+                glowSpriteBounds.set(
+                        x + sprite.left, y + sprite.top, x + sprite.right, y + sprite.bottom);
+                paintGlowSprite.setShader(targetGrad);
+                paintGlowSprite.setAlpha(finalBloomAlpha);
+                canvas.drawBitmap(sprite.mask, null, glowSpriteBounds, paintGlowSprite);
             }
             targetFill.setAlpha(255);
         }
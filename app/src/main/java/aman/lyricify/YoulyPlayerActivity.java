@@ -40,8 +40,6 @@ import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.Target;
 
-import jp.wasabeef.glide.transformations.BlurTransformation;
-
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -113,6 +111,7 @@ public class YoulyPlayerActivity extends AppCompatActivity {
     private MediaController.Callback mediaControllerCallback;
 
     private Handler updateHandler;
+    private FrameMetricsRecorder frameMetrics;
     private Runnable updateRunnable;
     private boolean isTracking = false;
     private boolean isPlaying = false;
@@ -126,6 +125,7 @@ public class YoulyPlayerActivity extends AppCompatActivity {
     private long currentDuration = 0;
     
     private String currentFilePath = null;
+    private int artworkRequestId = 0;
 
     private LyricsWebViewFragment lyricsWebViewFragment;
 
@@ -135,6 +135,7 @@ public class YoulyPlayerActivity extends AppCompatActivity {
         getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
         hideSystemUI();
         setContentView(R.layout.activity_youly_player);
+        frameMetrics = FrameMetricsRecorder.attach(this, "YoulyPlayer");
 
         initializeViews();
         setupYouLyFragment();
@@ -531,36 +532,17 @@ public class YoulyPlayerActivity extends AppCompatActivity {
                  .dontAnimate()
                  .into(headerArtwork);
             
-            // FLICKER FIX FOR BACKGROUNDS:
-            Drawable currentBg = immersiveBackground.getDrawable();
-            
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                Glide.with(this)
-                     .load(bitmap)
-                     .placeholder(currentBg) 
-                     .dontAnimate()
-                     .into(immersiveBackground);
-                     
-                Glide.with(this)
-                     .load(bitmap)
-                     .placeholder(immersiveBackgroundOverlay.getDrawable())
-                     .dontAnimate()
-                     .into(immersiveBackgroundOverlay);
-            } else {
-                Glide.with(this).load(bitmap)
-                     .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 12)))
-                     .placeholder(currentBg)
-                     .dontAnimate()
-                     .into(immersiveBackground);
-                     
-                Glide.with(this).load(bitmap)
-                     .apply(RequestOptions.bitmapTransform(new BlurTransformation(25, 17)))
-                     .placeholder(immersiveBackgroundOverlay.getDrawable())
-                     .dontAnimate()
-                     .into(immersiveBackgroundOverlay);
-            }
+            // Backgrounds come from the shared derivatives cache (blurred once, off-thread).
+            // The old drawables stay on screen until the new ones are ready.
+            int requestId = ++artworkRequestId;
+            ArtworkCache.getInstance().load(bitmap, derivatives -> {
+                if (requestId != artworkRequestId || isDestroyed() || derivatives == null) return;
+                immersiveBackground.setImageBitmap(derivatives.backdrop);
+                immersiveBackgroundOverlay.setImageBitmap(derivatives.overlay);
+            });
         } else {
             // Handle null case
+            artworkRequestId++;
             headerArtwork.setImageResource(R.drawable.ic_music_note);
             immersiveBackground.setImageResource(R.drawable.ic_music_note);
             immersiveBackgroundOverlay.setImageResource(R.drawable.ic_music_note);
@@ -656,6 +638,7 @@ public class YoulyPlayerActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (frameMetrics != null) frameMetrics.detach();
         if (updateHandler != null) updateHandler.removeCallbacks(updateRunnable);
         if (mediaController != null && mediaControllerCallback != null) {
             mediaController.unregisterCallback(mediaControllerCallback);
@@ -0,0 +1,163 @@
+package aman.lyricify;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NetworkClientTest {
+
+    private static final byte[] BODY = "artwork".getBytes(StandardCharsets.UTF_8);
+    // Long enough for every caller to join before the response arrives
+    private static final long RESPONSE_DELAY_MS = 300;
+    private static final long TIMEOUT_S = 5;
+
+    @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = NetworkClient.build(new File(tmp.getRoot(), "http_cache"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        if (client.cache() != null) client.cache().close();
+    }
+
+    @Test
+    public void concurrentFetchesShareOneRequest() throws Exception {
+        server.enqueue(ok().setHeadersDelay(RESPONSE_DELAY_MS, TimeUnit.MILLISECONDS));
+        String url = server.url("/art/1.jpg").toString();
+
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        NetworkClient.fetchBytes(client, url, first);
+        NetworkClient.fetchBytes(client, url, second);
+
+        first.await();
+        second.await();
+        assertArrayEquals(BODY, first.bytes);
+        assertArrayEquals(BODY, second.bytes);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void repeatFetchIsServedFromCache() throws Exception {
+        server.enqueue(ok().setHeader("Cache-Control", "max-age=3600"));
+        String url = server.url("/art/2.jpg").toString();
+
+        Recorder first = new Recorder();
+        NetworkClient.fetchBytes(client, url, first);
+        first.await();
+
+        Recorder second = new Recorder();
+        NetworkClient.fetchBytes(client, url, second);
+        second.await();
+
+        assertArrayEquals(BODY, second.bytes);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, client.cache().hitCount());
+    }
+
+    @Test
+    public void failureReachesEveryWaiter() throws Exception {
+        server.enqueue(
+                new MockResponse()
+                        .setResponseCode(500)
+                        .setHeadersDelay(RESPONSE_DELAY_MS, TimeUnit.MILLISECONDS));
+        String url = server.url("/art/3.jpg").toString();
+
+        List<Recorder> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Recorder recorder = new Recorder();
+            waiters.add(recorder);
+            NetworkClient.fetchBytes(client, url, recorder);
+        }
+
+        for (Recorder recorder : waiters) {
+            recorder.await();
+            assertNotNull(recorder.error);
+            assertTrue(recorder.error.getMessage().contains("500"));
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void failedFetchCanBeRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(ok());
+        String url = server.url("/art/4.jpg").toString();
+
+        Recorder failed = new Recorder();
+        NetworkClient.fetchBytes(client, url, failed);
+        failed.await();
+        assertNotNull(failed.error);
+
+        Recorder retried = new Recorder();
+        NetworkClient.fetchBytes(client, url, retried);
+        retried.await();
+        assertArrayEquals(BODY, retried.bytes);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse()
+                .setHeader("Content-Type", "image/jpeg")
+                .setBody(new Buffer().write(BODY));
+    }
+
+    /** Records the one callback a fetch is expected to make. */
+    private static final class Recorder implements NetworkClient.BytesCallback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        volatile byte[] bytes;
+        volatile IOException error;
+
+        @Override
+        public void onSuccess(byte[] bytes, String contentType) {
+            this.bytes = bytes;
+            calls.add("success");
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            this.error = e;
+            calls.add("failure");
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("callback not called", done.await(TIMEOUT_S, TimeUnit.SECONDS));
+            assertEquals(1, calls.size());
+        }
+    }
+}
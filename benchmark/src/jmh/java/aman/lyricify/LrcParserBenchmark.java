@@ -0,0 +1,41 @@
+package aman.lyricify;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The native engine's parser (SyncedLyricsView.setLyrics).
+ */
+@State(Scope.Benchmark)
+public class LrcParserBenchmark {
+
+    @Param({LyricsCorpus.SMALL, LyricsCorpus.LARGE, LyricsCorpus.DUET, LyricsCorpus.BACKGROUND})
+    public String corpus;
+
+    private byte[] lrc;
+    private byte[] elrc;
+
+    @Setup
+    public void setup() {
+        LyricsCorpus fixtures = LyricsCorpus.get(corpus);
+        lrc = fixtures.lrc.getBytes(StandardCharsets.UTF_8);
+        elrc = fixtures.elrc.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<LyricLine> parseLrc() {
+        return LrcParser.parse(new ByteArrayInputStream(lrc));
+    }
+
+    @Benchmark
+    public List<LyricLine> parseElrc() {
+        return LrcParser.parse(new ByteArrayInputStream(elrc));
+    }
+}
@@ -0,0 +1,226 @@
+package aman.lyricify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic lyric fixtures shaped like real API responses and .lrc files.
+ *
+ * small      - short single-voice song (~20 lines)
+ * large      - long syllable-heavy song (~150 lines)
+ * duet       - two voices alternating (oppositeTurn / v2:)
+ * background - main vocals with [bg: ...] background lines
+ */
+final class LyricsCorpus {
+
+    static final String SMALL = "small";
+    static final String LARGE = "large";
+    static final String DUET = "duet";
+    static final String BACKGROUND = "background";
+
+    private static final String[] VOCABULARY = {
+        "I", "you", "we", "the", "night", "light", "heart", "never", "always", "falling",
+        "dancing", "in", "on", "my", "your", "love", "forever", "tonight", "again", "away",
+        "running", "through", "fire", "rain", "shadow", "remember", "golden", "hold", "me", "close"
+    };
+
+    final String lineJson;
+    final String syllableJson;
+    final String lrc;
+    final String elrc;
+
+    private LyricsCorpus(String lineJson, String syllableJson, String lrc, String elrc) {
+        this.lineJson = lineJson;
+        this.syllableJson = syllableJson;
+        this.lrc = lrc;
+        this.elrc = elrc;
+    }
+
+    static LyricsCorpus get(String name) {
+        switch (name) {
+            case SMALL:
+                return build(20, 4, 7, false, false, 1);
+            case LARGE:
+                return build(150, 8, 14, false, false, 2);
+            case DUET:
+                return build(60, 5, 10, true, false, 3);
+            case BACKGROUND:
+                return build(60, 5, 10, false, true, 4);
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    private static LyricsCorpus build(int lineCount, int minWords, int maxWords,
+                                      boolean duet, boolean background, long seed) {
+        List<Line> lines = generate(lineCount, minWords, maxWords, duet, background, new Random(seed));
+        return new LyricsCorpus(
+                toJson(lines, false),
+                toJson(lines, true),
+                toLrc(lines),
+                toElrc(lines));
+    }
+
+    // ----------------- GENERATION -----------------
+
+    private static final class Syllable {
+        String text;
+        long start;
+        long end;
+        boolean part; // joined to the next syllable without a space
+    }
+
+    private static final class Line {
+        long start;
+        long end;
+        boolean opposite;
+        List<Syllable> syllables = new ArrayList<>();
+        List<Syllable> background = new ArrayList<>(); // backing vocals, empty for most lines
+    }
+
+    private static List<Line> generate(int lineCount, int minWords, int maxWords,
+                                       boolean duet, boolean background, Random random) {
+        List<Line> lines = new ArrayList<>();
+        long time = 12_000;
+
+        for (int i = 0; i < lineCount; i++) {
+            Line line = new Line();
+            line.start = time;
+            line.opposite = duet && (i / 2) % 2 == 1;
+
+            int words = minWords + random.nextInt(maxWords - minWords + 1);
+            for (int w = 0; w < words; w++) {
+                String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+                // Longer words are sung as two syllables, like the Syllable API does
+                if (word.length() > 5) {
+                    int cut = word.length() / 2;
+                    time = addSyllable(line, word.substring(0, cut), time, true, random);
+                    time = addSyllable(line, word.substring(cut), time, false, random);
+                } else {
+                    time = addSyllable(line, word, time, false, random);
+                }
+            }
+            line.end = time;
+
+            // Echo the tail of every third line as a background vocal
+            if (background && i % 3 == 2 && line.syllables.size() > 2) {
+                int from = line.syllables.size() - 2;
+                line.background.addAll(line.syllables.subList(from, line.syllables.size()));
+            }
+            lines.add(line);
+
+            time += 400 + random.nextInt(2000); // breath / instrumental gap
+        }
+        return lines;
+    }
+
+    private static long addSyllable(Line line, String text, long time, boolean part, Random random) {
+        Syllable s = new Syllable();
+        s.text = text;
+        s.start = time;
+        s.end = time + 120 + random.nextInt(380);
+        s.part = part;
+        line.syllables.add(s);
+        return s.end;
+    }
+
+    // ----------------- SERIALIZATION -----------------
+
+    private static String toJson(List<Line> lines, boolean syllable) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"type\":\"").append(syllable ? "Syllable" : "Line").append("\",\"content\":[");
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"timestamp\":").append(line.start)
+              .append(",\"endtime\":").append(line.end)
+              .append(",\"oppositeTurn\":").append(line.opposite)
+              .append(",\"structure\":\"Verse\",\"text\":[");
+
+            if (syllable) {
+                appendSyllables(sb, line.syllables);
+            } else {
+                sb.append("{\"text\":\"").append(plainText(line.syllables))
+                  .append("\",\"part\":false,\"timestamp\":").append(line.start)
+                  .append(",\"endtime\":").append(line.end).append('}');
+            }
+            sb.append("],\"background\":").append(!line.background.isEmpty())
+              .append(",\"backgroundText\":[");
+            if (syllable) {
+                appendSyllables(sb, line.background);
+            } else if (!line.background.isEmpty()) {
+                Syllable first = line.background.get(0);
+                Syllable last = line.background.get(line.background.size() - 1);
+                sb.append("{\"text\":\"").append(plainText(line.background))
+                  .append("\",\"part\":false,\"timestamp\":").append(first.start)
+                  .append(",\"endtime\":").append(last.end).append('}');
+            }
+            sb.append("]}");
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    private static void appendSyllables(StringBuilder sb, List<Syllable> syllables) {
+        for (int j = 0; j < syllables.size(); j++) {
+            Syllable s = syllables.get(j);
+            if (j > 0) sb.append(',');
+            sb.append("{\"text\":\"").append(s.text)
+              .append("\",\"part\":").append(s.part)
+              .append(",\"timestamp\":").append(s.start)
+              .append(",\"endtime\":").append(s.end).append('}');
+        }
+    }
+
+    private static String toLrc(List<Line> lines) {
+        StringBuilder sb = new StringBuilder("[ti:Benchmark]\n[ar:Lyricify]\n");
+        for (Line line : lines) {
+            sb.append('[').append(timestamp(line.start)).append(']').append(plainText(line.syllables)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String toElrc(List<Line> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (Line line : lines) {
+            sb.append('[').append(timestamp(line.start)).append(']')
+              .append(line.opposite ? "v2:" : "v1:");
+            appendWords(sb, line.syllables, 0, line.syllables.size());
+            sb.append('<').append(timestamp(line.end)).append(">\n");
+
+            if (!line.background.isEmpty()) {
+                sb.append("[bg: ");
+                appendWords(sb, line.background, 0, line.background.size());
+                sb.append('<').append(timestamp(line.end)).append(">]\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendWords(StringBuilder sb, List<Syllable> syllables, int from, int to) {
+        for (int j = from; j < to; j++) {
+            Syllable s = syllables.get(j);
+            sb.append('<').append(timestamp(s.start)).append('>').append(s.text);
+            if (!s.part && j < to - 1) sb.append(' ');
+        }
+    }
+
+    private static String plainText(List<Syllable> syllables) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < syllables.size(); j++) {
+            Syllable s = syllables.get(j);
+            sb.append(s.text);
+            if (!s.part && j < syllables.size() - 1) sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static String timestamp(long ms) {
+        long minutes = ms / 60_000;
+        long seconds = (ms / 1000) % 60;
+        long millis = ms % 1000;
+        return String.format(Locale.US, "%02d:%02d.%03d", minutes, seconds, millis);
+    }
+}
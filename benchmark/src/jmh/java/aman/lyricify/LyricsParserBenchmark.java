@@ -0,0 +1,37 @@
+package aman.lyricify;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * API JSON -> LRC/ELRC conversion, as run on every lyrics fetch.
+ */
+@State(Scope.Benchmark)
+public class LyricsParserBenchmark {
+
+    @Param({LyricsCorpus.SMALL, LyricsCorpus.LARGE, LyricsCorpus.DUET, LyricsCorpus.BACKGROUND})
+    public String corpus;
+
+    private String lineJson;
+    private String syllableJson;
+
+    @Setup
+    public void setup() {
+        LyricsCorpus fixtures = LyricsCorpus.get(corpus);
+        lineJson = fixtures.lineJson;
+        syllableJson = fixtures.syllableJson;
+    }
+
+    @Benchmark
+    public String convertLineJson() {
+        return LyricsParser.convertToLRC(lineJson);
+    }
+
+    @Benchmark
+    public String convertSyllableJson() {
+        return LyricsParser.convertToLRC(syllableJson);
+    }
+}
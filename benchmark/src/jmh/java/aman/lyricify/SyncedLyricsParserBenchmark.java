@@ -0,0 +1,36 @@
+package aman.lyricify;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class SyncedLyricsParserBenchmark {
+
+    @Param({LyricsCorpus.SMALL, LyricsCorpus.LARGE, LyricsCorpus.DUET, LyricsCorpus.BACKGROUND})
+    public String corpus;
+
+    private String lrc;
+    private String elrc;
+
+    @Setup
+    public void setup() {
+        LyricsCorpus fixtures = LyricsCorpus.get(corpus);
+        lrc = fixtures.lrc;
+        elrc = fixtures.elrc;
+    }
+
+    @Benchmark
+    public List<LyricLineModels.LyricLine> parseLrcLyrics() {
+        return SyncedLyricsParser.parseLrcLyrics(lrc);
+    }
+
+    @Benchmark
+    public List<LyricLineModels.LyricLine> parseKaraokeLyrics() {
+        return SyncedLyricsParser.parseKaraokeLyrics(elrc);
+    }
+}
@@ -0,0 +1,71 @@
+package aman.lyricify;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One karaoke frame: progress lookup for the longest line of the corpus,
+ * with the playback position sweeping through it at 120 Hz steps (and
+ * wrapping back to the start, which exercises the cursor's seek path).
+ */
+@State(Scope.Thread)
+public class WordProgressCalculatorBenchmark {
+
+    private static final long FRAME_MS = 8;
+
+    @Param({LyricsCorpus.SMALL, LyricsCorpus.LARGE})
+    public String corpus;
+
+    private List<KaraokeWord> words;
+    private WordProgressCalculator.Cursor cursor;
+    private final WordProgressCalculator.WordProgress progress = new WordProgressCalculator.WordProgress();
+    private long[] positions;
+    private int frame;
+
+    @Setup
+    public void setup() {
+        List<LyricLineModels.LyricLine> lines =
+                SyncedLyricsParser.parseKaraokeLyrics(LyricsCorpus.get(corpus).elrc);
+
+        List<LyricLineModels.KaraokeWord> longest = new ArrayList<>();
+        for (LyricLineModels.LyricLine line : lines) {
+            List<LyricLineModels.KaraokeWord> lineWords = ((LyricLineModels.KaraokeLine) line).words;
+            if (lineWords.size() > longest.size()) longest = lineWords;
+        }
+
+        words = new ArrayList<>();
+        for (LyricLineModels.KaraokeWord w : longest) {
+            words.add(new KaraokeWord(w.timestamp, w.text));
+        }
+
+        cursor = WordProgressCalculator.Cursor.of(words);
+
+        long start = words.get(0).timestamp;
+        long end = words.get(words.size() - 1).timestamp + 1000;
+        positions = new long[(int) ((end - start) / FRAME_MS) + 1];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = start + i * FRAME_MS;
+        }
+    }
+
+    @Benchmark
+    public WordProgressCalculator.WordProgress calculate() {
+        long position = positions[frame];
+        frame = (frame + 1) % positions.length;
+        return WordProgressCalculator.calculate(words, position);
+    }
+
+    @Benchmark
+    public WordProgressCalculator.WordProgress cursor() {
+        long position = positions[frame];
+        frame = (frame + 1) % positions.length;
+        cursor.update(position, progress);
+        return progress;
+    }
+}
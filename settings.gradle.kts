@@ -18,5 +18,6 @@ rootProject.name = "LYRICIFY"
 
 include(
     ":app",
-    ":youLy"
+    ":youLy",
+    ":benchmark"
 )
\ No newline at end of file